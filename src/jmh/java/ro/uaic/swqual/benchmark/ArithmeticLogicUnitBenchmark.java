@@ -0,0 +1,94 @@
+package ro.uaic.swqual.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.proc.ArithmeticLogicUnit;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the throughput of {@link ArithmeticLogicUnit#execute(Instruction)}, per opcode. <br/>
+ * Each invocation restores 8 registers to their initial values, then executes a fixed block of instructions of
+ *   the same opcode over them and nonzero constants generated from a fixed seed. <br/>
+ * Only the unit constructor and execute are used, so the same benchmark can be run against the ALU before and
+ *   after the primitive kernels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ArithmeticLogicUnitBenchmark {
+    private static final long SEED = 0xA1;
+    private static final int BLOCK = 1024;
+    private static final int REGISTERS = 8;
+
+    /** Opcode of the executed instructions */
+    @Param({"ALU_ADD", "ALU_SUB", "ALU_UMUL", "ALU_SMUL", "ALU_UDIV", "ALU_SDIV", "ALU_AND", "ALU_SHL", "ALU_NOT",
+            "ALU_CMP"})
+    public InstructionType type;
+
+    private FlagRegister flagRegister;
+    private Register overflow;
+    private ArithmeticLogicUnit alu;
+    private Register[] registers;
+    private char[] initialValues;
+    private Instruction[] block;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        var random = new Random(SEED);
+        flagRegister = new FlagRegister();
+        overflow = new Register();
+        alu = new ArithmeticLogicUnit(flagRegister, overflow);
+
+        registers = new Register[REGISTERS];
+        initialValues = new char[REGISTERS];
+        for (var index = 0; index < REGISTERS; ++index) {
+            registers[index] = new Register();
+            initialValues[index] = (char) (1 + random.nextInt(Character.MAX_VALUE));
+        }
+        block = new Instruction[BLOCK];
+        for (var index = 0; index < BLOCK; ++index) {
+            var destination = registers[random.nextInt(REGISTERS)];
+            // nonzero constant sources keep divisions defined
+            var source = new Constant((char) (1 + random.nextInt(0x0F)));
+            block[index] = type == InstructionType.ALU_NOT
+                    ? new Instruction(type, destination)
+                    : new Instruction(type, destination, source);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCK)
+    public void execute(Blackhole blackhole) {
+        // repeated divisions and multiplications would otherwise settle the registers to 0 across invocations
+        for (var index = 0; index < REGISTERS; ++index) {
+            registers[index].setValue(initialValues[index]);
+        }
+        for (var instruction : block) {
+            alu.execute(instruction);
+        }
+        blackhole.consume(flagRegister.getValue());
+        blackhole.consume(overflow.getValue());
+    }
+}
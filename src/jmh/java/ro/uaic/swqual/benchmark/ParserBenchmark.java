@@ -0,0 +1,118 @@
+package ro.uaic.swqual.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.uaic.swqual.Parser;
+import ro.uaic.swqual.model.Instruction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link Parser#parse(String)} over a generated source file. <br/>
+ * The source is generated from a fixed seed, and only uses the syntax and API available before the hand-written
+ *   lexer, so the same benchmark can be run against both implementations: <br/>
+ *   - labels and backward jumps <br/>
+ *   - register, constant and address operands, with constants in all four bases <br/>
+ *   - address expressions with displacements <br/>
+ *   - comment and empty lines
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    private static final long SEED = 0x5EED;
+    private static final String[] REGISTERS = {"r0", "r1", "r2", "r3", "r4", "r5", "r6", "r7", "sp"};
+    private static final String[] BINARY_OPS = {"mov", "add", "sub", "and", "or", "xor", "cmp"};
+    private static final String[] JUMPS = {"jmp", "jeq", "jne", "jlt", "jgt"};
+    private static final int LINES_PER_LABEL = 16;
+
+    /** Number of lines of the generated source */
+    @Param({"100000"})
+    public int lines;
+
+    private Path source;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        var random = new Random(SEED);
+        var text = new ArrayList<String>(lines);
+        var labels = 0;
+        while (text.size() < lines) {
+            if (text.size() % LINES_PER_LABEL == 0) {
+                text.add("@label" + labels++ + ":");
+                continue;
+            }
+            text.add(switch (random.nextInt(10)) {
+                case 0 -> "// comment " + random.nextInt();
+                case 1 -> "";
+                case 2 -> JUMPS[random.nextInt(JUMPS.length)] + " @label" + random.nextInt(labels) + ";";
+                case 3, 4 -> "mov " + address(random) + " " + operand(random) + ";";
+                default -> BINARY_OPS[random.nextInt(BINARY_OPS.length)]
+                        + " " + register(random) + " " + operand(random) + ";";
+            });
+        }
+        source = Files.createTempFile("parser-benchmark", ".txt");
+        Files.write(source, text);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(source);
+    }
+
+    @Benchmark
+    public List<Instruction> parse() {
+        return new Parser().parse(source.toString()).getInstructions();
+    }
+
+    private static String register(Random random) {
+        return REGISTERS[random.nextInt(REGISTERS.length)];
+    }
+
+    private static String constant(Random random) {
+        var value = random.nextInt(0x1000);
+        var prefix = random.nextBoolean() ? "#" : "";
+        return prefix + switch (random.nextInt(4)) {
+            case 0 -> "0b" + Integer.toBinaryString(value);
+            case 1 -> "0" + Integer.toOctalString(value);
+            case 2 -> Integer.toString(value);
+            default -> "0x" + Integer.toHexString(value);
+        };
+    }
+
+    private static String address(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> "[0x" + Integer.toHexString(0x100 + random.nextInt(0x1000)) + "]";
+            case 1 -> "[" + register(random) + "]";
+            default -> "[" + register(random) + " + " + random.nextInt(0x100) + " - " + register(random) + "]";
+        };
+    }
+
+    private static String operand(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> register(random);
+            case 1 -> constant(random);
+            default -> address(random);
+        };
+    }
+}
@@ -0,0 +1,277 @@
+package ro.uaic.swqual;
+
+import ro.uaic.swqual.exception.parser.DuplicateJumpTargetException;
+import ro.uaic.swqual.exception.parser.JumpLabelNotFoundException;
+import ro.uaic.swqual.exception.parser.ParserException;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.Label;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.util.Tuple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents an assembler of source text that is edited over time, such as the content of a code editor. <br/>
+ * Each source line is parsed and resolved on its own, and kept along with the result. On an update, only the
+ *   changed lines are parsed again. The program is then re-linked, creating new linked jumps only for the
+ *   instructions whose label target moved. <br/>
+ * The result, including the first error raised, is the same as the one of
+ *   {@link Parser#parse(String)}, {@link Parser#resolveReferences} and {@link Parser#link} on the whole text. <br/>
+ * Not thread-safe. The produced instructions are never modified afterward, so they can be shared with other threads.
+ */
+public class IncrementalAssembler {
+    /** Map used to resolve the register references of each line */
+    private final Map<String, Register> registerMap;
+    /** Parser used for single lines */
+    private final Parser lineParser = new Parser();
+    /** Assembled source lines, in source order */
+    private final List<SourceLine> lines = new ArrayList<>();
+    /** Linked program of the last successful update */
+    private List<Instruction> instructions = List.of();
+    /** Source line of each instruction of the last successful update */
+    private int[] instructionLines = new int[0];
+    /** Number of lines parsed by the last update */
+    private int parsedLineCount;
+
+    /**
+     * Represents the assembly result of a single source line
+     */
+    private static class SourceLine {
+        /** Source text of the line */
+        private final String text;
+        /** Jump map key, if a label line */
+        private final String label;
+        /** Parsed and resolved instruction, if an instruction line. Labels are kept unresolved */
+        private final Instruction instruction;
+        /** Error raised while parsing the line, if any */
+        private final RuntimeException parseFailure;
+        /** Error raised while resolving the register references of the line, if any */
+        private final RuntimeException resolveFailure;
+        /** Linked form of the instruction. The instruction itself if it does not refer to a label */
+        private Instruction linked;
+        /** Instruction index the linked form jumps to. -1 if not linked yet */
+        private int linkedTarget = -1;
+
+        /**
+         * Primary constructor
+         * @param text source text of the line
+         * @param label jump map key, or null
+         * @param instruction the parsed instruction, or null
+         * @param parseFailure the error raised while parsing the line, or null
+         * @param resolveFailure the error raised while resolving the line, or null
+         */
+        SourceLine(
+                String text,
+                String label,
+                Instruction instruction,
+                RuntimeException parseFailure,
+                RuntimeException resolveFailure
+        ) {
+            this.text = text;
+            this.label = label;
+            this.instruction = instruction;
+            this.parseFailure = parseFailure;
+            this.resolveFailure = resolveFailure;
+            this.linked = instruction == null || instruction.getParam1() instanceof Label ? null : instruction;
+        }
+    }
+
+    /**
+     * Primary constructor
+     * @param registerMap a map associating register assembly labels to actual {@link Register} objects.
+     */
+    public IncrementalAssembler(Map<String, Register> registerMap) {
+        assert registerMap != null;
+        this.registerMap = registerMap;
+    }
+
+    /**
+     * Getter for the linked program of the last successful update
+     * @return the list of instructions
+     */
+    public List<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * Getter for the source line of each instruction of the last successful update
+     * @return array of line numbers, indexed by instruction index
+     */
+    public int[] getInstructionLines() {
+        return Arrays.copyOf(instructionLines, instructionLines.length);
+    }
+
+    /**
+     * Method used to get the mapping between the instructions of the last successful update and their source lines
+     * @return the source map
+     */
+    public SourceMap getSourceMap() {
+        return new SourceMap(getInstructionLines());
+    }
+
+    /**
+     * Getter for the number of lines parsed by the last update
+     * @return the number of lines
+     */
+    public int getParsedLineCount() {
+        return parsedLineCount;
+    }
+
+    /**
+     * Method used to drop all assembled lines
+     */
+    public void clear() {
+        lines.clear();
+        instructions = List.of();
+        instructionLines = new int[0];
+        parsedLineCount = 0;
+    }
+
+    /**
+     * Method used to update the whole source text. The changed lines are identified as the ones between the
+     *   longest unchanged prefix and suffix of the previous text.
+     * @param source the new source lines
+     * @return instance to self for chained operations
+     * @throws ParserException on the first error in the new source, as raised by a full parse and link
+     */
+    public IncrementalAssembler update(List<String> source) throws ParserException {
+        assert source != null;
+        var prefix = 0;
+        var maxCommon = Math.min(lines.size(), source.size());
+        while (prefix < maxCommon && lines.get(prefix).text.equals(source.get(prefix))) {
+            ++prefix;
+        }
+        var suffix = 0;
+        while (suffix < maxCommon - prefix
+                && lines.get(lines.size() - 1 - suffix).text.equals(source.get(source.size() - 1 - suffix))) {
+            ++suffix;
+        }
+        return update(prefix, lines.size() - prefix - suffix, source.subList(prefix, source.size() - suffix));
+    }
+
+    /**
+     * Method used to replace a range of source lines
+     * @param first index of the first replaced line, starting at 0
+     * @param removed number of replaced lines
+     * @param added the lines replacing them
+     * @return instance to self for chained operations
+     * @throws ParserException on the first error in the new source, as raised by a full parse and link
+     */
+    public IncrementalAssembler update(int first, int removed, List<String> added) throws ParserException {
+        assert first >= 0 && removed >= 0 && first + removed <= lines.size();
+        assert added != null;
+        var parsed = new ArrayList<SourceLine>(added.size());
+        for (var index = 0; index < added.size(); ++index) {
+            parsed.add(parseLine(added.get(index), first + index + 1));
+        }
+        var replaced = lines.subList(first, first + removed);
+        replaced.clear();
+        replaced.addAll(parsed);
+        parsedLineCount = parsed.size();
+        relink();
+        return this;
+    }
+
+    /**
+     * Method used to parse and resolve a single line
+     * @param text the line text
+     * @param lineNumber the line number, starting at 1
+     * @return the assembled line
+     */
+    private SourceLine parseLine(String text, int lineNumber) {
+        lineParser.clear();
+        try {
+            lineParser.parseLine(text, lineNumber);
+        } catch (RuntimeException exception) {
+            return new SourceLine(text, null, null, exception, null);
+        }
+
+        var trimmed = text.trim();
+        if (trimmed.startsWith("@")) {
+            return new SourceLine(text, Parser.labelKey(trimmed, text), null, null, null);
+        }
+        var parsed = lineParser.getInstructions();
+        if (parsed.isEmpty()) {
+            return new SourceLine(text, null, null, null, null);
+        }
+        try {
+            lineParser.resolveReferences(registerMap);
+        } catch (RuntimeException exception) {
+            return new SourceLine(text, null, parsed.getFirst(), null, exception);
+        }
+        return new SourceLine(text, null, parsed.getFirst(), null, null);
+    }
+
+    /**
+     * Method used to get the error of a failed line, with its current line number. <br/>
+     * The line is parsed again, since lines may have shifted since it was parsed.
+     * @param line the failed line
+     * @param index the current index of the line
+     * @return the error raised by the line
+     */
+    private RuntimeException currentFailure(SourceLine line, int index) {
+        var current = parseLine(line.text, index + 1);
+        var failure = current.parseFailure != null ? current.parseFailure : current.resolveFailure;
+        return failure != null ? failure : line.parseFailure != null ? line.parseFailure : line.resolveFailure;
+    }
+
+    /**
+     * Method used to link the assembled lines into the program.
+     * @throws ParserException on the first error, in the same order as a full parse and link
+     */
+    private void relink() throws ParserException {
+        // parse errors and duplicate labels come first, in source order, as raised while parsing
+        var labels = new HashMap<String, Integer>();
+        var instructionCount = 0;
+        for (var index = 0; index < lines.size(); ++index) {
+            var line = lines.get(index);
+            if (line.parseFailure != null) {
+                throw currentFailure(line, index);
+            }
+            if (line.label != null && labels.putIfAbsent(line.label, instructionCount) != null) {
+                throw new DuplicateJumpTargetException(line.text);
+            }
+            if (line.instruction != null) {
+                ++instructionCount;
+            }
+        }
+
+        // then unresolved register references, as raised while resolving the whole program
+        for (var index = 0; index < lines.size(); ++index) {
+            if (lines.get(index).resolveFailure != null) {
+                throw currentFailure(lines.get(index), index);
+            }
+        }
+
+        var linkedInstructions = new ArrayList<Instruction>(instructionCount);
+        var linkedLines = new int[instructionCount];
+        for (var index = 0; index < lines.size(); ++index) {
+            var line = lines.get(index);
+            if (line.instruction == null) {
+                continue;
+            }
+
+            if (line.instruction.getParam1() instanceof Label label) {
+                var target = labels.get(label.getName());
+                if (target == null) {
+                    throw new JumpLabelNotFoundException(label.getName());
+                }
+                if (target != line.linkedTarget) {
+                    var linked = new Instruction(line.instruction.getType());
+                    linked.setParameters(Tuple.of(new Constant((char) (int) target), line.instruction.getParam2()));
+                    line.linked = linked;
+                    line.linkedTarget = target;
+                }
+            }
+            linkedLines[linkedInstructions.size()] = index + 1;
+            linkedInstructions.add(line.linked);
+        }
+        instructions = linkedInstructions;
+        instructionLines = linkedLines;
+    }
+}
@@ -0,0 +1,104 @@
+package ro.uaic.swqual;
+
+import ro.uaic.swqual.exception.parser.DuplicateJumpTargetException;
+import ro.uaic.swqual.exception.parser.JumpLabelNotFoundException;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.Label;
+import ro.uaic.swqual.util.Tuple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the combiner of separately assembled modules into a single program. <br/>
+ * Modules are {@link ObjectFile ObjectFiles} built by {@link Parser#assemble}. They are placed one after the other,
+ *   in the order they were added, so the program starts with the first instruction of the first module. <br/>
+ * Labels are resolved to program instruction indices: first against the labels of their own module, then against
+ *   the labels exported by any module, if imported.
+ */
+public class Linker {
+    /** Modules to combine, in program order */
+    private final List<ObjectFile> modules = new ArrayList<>();
+
+    /**
+     * Method used to add a module to the program
+     * @param module the module to add
+     * @return instance to self for chained operations
+     */
+    public Linker add(ObjectFile module) {
+        assert module != null;
+        modules.add(module);
+        return this;
+    }
+
+    /**
+     * Method used to combine the added modules into a program. The modules themselves are not modified.
+     * @return the linked program, along with the source line of each instruction within its module
+     * @throws DuplicateJumpTargetException if two modules export the same label
+     * @throws JumpLabelNotFoundException if an imported label is not exported by any module
+     */
+    public ObjectFile link() throws DuplicateJumpTargetException, JumpLabelNotFoundException {
+        // place the modules and build the global symbol table out of their exports
+        var moduleOffsets = new int[modules.size()];
+        var exported = new HashMap<String, Constant>();
+        var size = 0;
+        for (var index = 0; index < modules.size(); ++index) {
+            var module = modules.get(index);
+            moduleOffsets[index] = size;
+            for (var name : module.getExports()) {
+                var target = new Constant((char) (size + module.getLabels().get(name)));
+                if (exported.putIfAbsent(name, target) != null) {
+                    throw new DuplicateJumpTargetException(name);
+                }
+            }
+            size += module.getInstructions().size();
+        }
+
+        var instructions = new ArrayList<Instruction>(size);
+        var instructionLines = new int[size];
+        for (var index = 0; index < modules.size(); ++index) {
+            var module = modules.get(index);
+            var offset = moduleOffsets[index];
+            var targets = new HashMap<String, Constant>();
+            module.getLabels().forEach((name, target) -> targets.put(name, new Constant((char) (offset + target))));
+            for (var name : module.getImports()) {
+                var target = exported.get(name);
+                if (target == null) {
+                    throw new JumpLabelNotFoundException(name);
+                }
+                targets.put(name, target);
+            }
+
+            for (var instruction : module.getInstructions()) {
+                instructions.add(resolve(instruction, targets));
+            }
+            System.arraycopy(module.getInstructionLines(), 0, instructionLines, offset, module.getInstructions().size());
+        }
+        return new ObjectFile(instructions, instructionLines);
+    }
+
+    /**
+     * Method used to resolve the label of a module instruction, if any.
+     * @param instruction the module instruction
+     * @param targets the program instruction index of each label visible from the module
+     * @return the instruction itself if it does not refer to a label, or a resolved copy otherwise
+     * @throws JumpLabelNotFoundException if the label is not visible from the module
+     */
+    private static Instruction resolve(Instruction instruction, Map<String, Constant> targets)
+            throws JumpLabelNotFoundException {
+        if (!(instruction.getParam1() instanceof Label label)) {
+            return instruction;
+        }
+
+        var target = targets.get(label.getName());
+        if (target == null) {
+            throw new JumpLabelNotFoundException(label.getName());
+        }
+        var resolved = new Instruction(instruction.getType());
+        resolved.setParameters(Tuple.of(target, instruction.getParam2()));
+        return resolved;
+    }
+}
@@ -0,0 +1,78 @@
+package ro.uaic.swqual;
+
+import ro.uaic.swqual.exception.parser.ParserException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents an on-disk cache of assembled modules. <br/>
+ * Modules are stored as {@link ObjectFile ObjectFiles} in a cache directory, named after the content hash of their
+ *   source. Building a program out of several source files only re-assembles the sources whose content changed,
+ *   and identical sources share their assembled module, wherever they are located. <br/>
+ * Modules keep their register references unresolved, so the cache does not depend on a machine.
+ */
+public class ModuleLibrary {
+    /** Directory holding the assembled modules */
+    private final Path cacheDirectory;
+
+    /**
+     * Primary constructor
+     * @param cacheDirectory the directory holding the assembled modules. Created on the first write, if missing.
+     *   Can be shared with the object files of {@link Parser#parseCached cached} programs
+     */
+    public ModuleLibrary(Path cacheDirectory) {
+        assert cacheDirectory != null;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Method used to get the cache path of a module
+     * @param sourceHash the content hash of the module source
+     * @return the path of the assembled module
+     */
+    public Path pathFor(byte[] sourceHash) {
+        return ObjectFile.pathFor(cacheDirectory, ObjectFile.Kind.MODULE, sourceHash);
+    }
+
+    /**
+     * Method used to get the assembled module of a source file, assembling and caching it on a miss.
+     * @param source the path of the module source
+     * @return the module object
+     * @throws ParserException if the source cannot be read or assembled
+     */
+    public ObjectFile assemble(Path source) throws ParserException {
+        assert source != null;
+        var sourceHash = ObjectFile.hash(source);
+        var modulePath = pathFor(sourceHash);
+        var cached = ObjectFile.read(modulePath, ObjectFile.Kind.MODULE, sourceHash, Map.of());
+        if (cached != null) {
+            return cached;
+        }
+
+        var module = new Parser().parse(source.toString()).assemble();
+        try {
+            Files.createDirectories(cacheDirectory);
+            module.write(modulePath, sourceHash, Map.of());
+        } catch (IOException | ParserException exception) {
+            // The library is only a cache. Failing to write it (i.e. read-only location) does not fail the assembly.
+        }
+        return module;
+    }
+
+    /**
+     * Method used to assemble and link a program out of several source files
+     * @param sources the paths of the module sources, in program order
+     * @return the linked program. Register references are left unresolved
+     * @throws ParserException if a source cannot be read, assembled or linked
+     */
+    public ObjectFile link(List<Path> sources) throws ParserException {
+        assert sources != null;
+        var linker = new Linker();
+        sources.forEach(source -> linker.add(assemble(source)));
+        return linker.link();
+    }
+}
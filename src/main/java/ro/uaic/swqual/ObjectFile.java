@@ -0,0 +1,647 @@
+package ro.uaic.swqual;
+
+import ro.uaic.swqual.exception.ValueException;
+import ro.uaic.swqual.exception.parser.ParserException;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.AbsoluteMemoryLocation;
+import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.Label;
+import ro.uaic.swqual.model.operands.Parameter;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.model.operands.RegisterReference;
+import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
+import ro.uaic.swqual.util.Tuple;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * Represents a linked program or an assembled module in binary object form, along with the source line of each
+ *   instruction. <br/>
+ * Modules, built by {@link Parser#assemble}, keep their labels unresolved and carry the instruction index of each
+ *   label they define, as well as the labels they export and import. They are combined by a {@link Linker}. <br/>
+ * Object files are tied to the content of their source through a hash, and to the {@link InstructionType} set
+ *   through a fingerprint. They also record their {@link Kind}, so a module is never read as a linked program.
+ *   Reading an object file that does not match any of these is a cache miss, not an error. <br/>
+ * Layout, big endian:
+ * <pre>
+ *   int     magic ("CSOB")
+ *   short   format version
+ *   int     instruction set fingerprint
+ *   byte    kind
+ *   byte[32] SHA-256 of the source
+ *   int     symbol count, then each symbol as short length + UTF-8 bytes
+ *   int     instruction count, then each instruction as short opcode + two operands
+ *   int[]   source line of each instruction
+ *   int     label count, then each label as short symbol index + int instruction index
+ *   int     export count, then each export as short symbol index
+ *   int     import count, then each import as short symbol index
+ * </pre>
+ * Operands are a kind byte followed by a kind-specific payload. Registers, register references and labels refer
+ *   to the symbol table by index, so the object does not depend on the register instances of a machine.
+ */
+public class ObjectFile {
+    /**
+     * Kind of object file
+     */
+    public enum Kind {
+        /** Linked program, with resolved jump targets */
+        PROGRAM(".cso"),
+        /** Module, with unresolved labels, to be combined by a {@link Linker} */
+        MODULE(".csm");
+
+        /** Extension of the object files of this kind */
+        private final String extension;
+
+        Kind(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Getter for the extension of the object files of this kind
+         * @return the extension, including the dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /** Default directory holding the object files of {@link Parser#parseCached cached} programs */
+    public static final Path DEFAULT_CACHE_DIRECTORY =
+            Path.of(System.getProperty("java.io.tmpdir"), "swqual", "objects");
+    /** File signature */
+    private static final int MAGIC = 0x43534F42;
+    /** Format version. Must be incremented on any layout change */
+    private static final short VERSION = 3;
+    /** Size of the source hash */
+    private static final int HASH_SIZE = 32;
+    /** Fingerprint of the instruction set, invalidating objects encoded with different opcodes */
+    private static final int INSTRUCTION_SET_FINGERPRINT =
+            Arrays.stream(InstructionType.values()).map(Enum::name).toList().hashCode();
+
+    /** Opcode of an instruction without a type */
+    private static final short NO_OPCODE = -1;
+
+    /** Operand kind of an absent parameter */
+    private static final byte OPERAND_NONE = 0;
+    /** Operand kind of a {@link Constant}. Payload: char value */
+    private static final byte OPERAND_CONSTANT = 1;
+    /** Operand kind of a {@link Register}. Payload: short symbol index */
+    private static final byte OPERAND_REGISTER = 2;
+    /** Operand kind of a {@link RegisterReference}. Payload: short symbol index, int line */
+    private static final byte OPERAND_REGISTER_REFERENCE = 3;
+    /** Operand kind of a {@link Label}. Payload: short symbol index */
+    private static final byte OPERAND_LABEL = 4;
+    /** Operand kind of a {@link ConstantMemoryLocation}. Payload: char address */
+    private static final byte OPERAND_CONSTANT_ADDRESS = 5;
+    /** Operand kind of an {@link AbsoluteMemoryLocation}. Payload: operand */
+    private static final byte OPERAND_ABSOLUTE_ADDRESS = 6;
+    /** Operand kind of a {@link RelativeMemoryLocation}.
+     * Payload: byte operand count n, operand, then n - 1 times relation byte and operand */
+    private static final byte OPERAND_RELATIVE_ADDRESS = 7;
+
+    /** Relation code of {@link RelativeMemoryLocation#ADDITION} */
+    private static final byte RELATION_ADDITION = 0;
+    /** Relation code of {@link RelativeMemoryLocation#SUBTRACTION} */
+    private static final byte RELATION_SUBTRACTION = 1;
+
+    /** Whether the object is a linked program or a module */
+    private final Kind kind;
+    /** The program instructions */
+    private final List<Instruction> instructions;
+    /** The source line of each instruction */
+    private final int[] instructionLines;
+    /** Instruction index of each label defined in a module. Empty for linked programs */
+    private final Map<String, Integer> labels;
+    /** Labels exported by a module */
+    private final List<String> exports;
+    /** Labels imported by a module */
+    private final List<String> imports;
+
+    /**
+     * Constructor of a module
+     * @param instructions the program instructions
+     * @param instructionLines the source line of each instruction
+     * @param labels the instruction index of each label defined in the module
+     * @param exports the labels exported by the module
+     * @param imports the labels imported by the module
+     */
+    public ObjectFile(
+            List<Instruction> instructions,
+            int[] instructionLines,
+            Map<String, Integer> labels,
+            List<String> exports,
+            List<String> imports
+    ) {
+        assert instructions != null;
+        assert instructionLines != null;
+        assert instructions.size() == instructionLines.length;
+        assert labels != null;
+        assert exports != null;
+        assert imports != null;
+        this.kind = Kind.MODULE;
+        this.instructions = instructions;
+        this.instructionLines = instructionLines;
+        this.labels = labels;
+        this.exports = exports;
+        this.imports = imports;
+    }
+
+    /**
+     * Constructor of a linked program, without labels, exports or imports
+     * @param instructions the program instructions
+     * @param instructionLines the source line of each instruction
+     */
+    public ObjectFile(List<Instruction> instructions, int[] instructionLines) {
+        assert instructions != null;
+        assert instructionLines != null;
+        assert instructions.size() == instructionLines.length;
+        this.kind = Kind.PROGRAM;
+        this.instructions = instructions;
+        this.instructionLines = instructionLines;
+        this.labels = Map.of();
+        this.exports = List.of();
+        this.imports = List.of();
+    }
+
+    /**
+     * Getter for the kind of the object
+     * @return {@link Kind#PROGRAM} for linked programs, {@link Kind#MODULE} for modules
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Getter for the program instructions
+     * @return list of instructions
+     */
+    public List<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * Getter for the source line of each instruction
+     * @return array of line numbers, indexed by instruction index
+     */
+    public int[] getInstructionLines() {
+        return instructionLines;
+    }
+
+    /**
+     * Method used to get the mapping between the instructions and their source lines. <br/>
+     * For programs linked out of several modules, lines are relative to the source of each module.
+     * @return the source map
+     */
+    public SourceMap getSourceMap() {
+        return new SourceMap(instructionLines);
+    }
+
+    /**
+     * Getter for the labels defined in a module
+     * @return map of label name to instruction index
+     */
+    public Map<String, Integer> getLabels() {
+        return labels;
+    }
+
+    /**
+     * Getter for the labels exported by a module
+     * @return list of label names
+     */
+    public List<String> getExports() {
+        return exports;
+    }
+
+    /**
+     * Getter for the labels imported by a module
+     * @return list of label names
+     */
+    public List<String> getImports() {
+        return imports;
+    }
+
+    /**
+     * Method used to get the path of an object file in a cache directory. Object files are named after the content
+     *   hash of their source, so identical sources share their object file, wherever they are located. Each
+     *   {@link Kind} has its own extension, so the program and the module of a source can share a directory.
+     * @param cacheDirectory the directory holding the object files
+     * @param kind the kind of the object
+     * @param sourceHash the content hash of the source
+     * @return the path of the object file
+     */
+    public static Path pathFor(Path cacheDirectory, Kind kind, byte[] sourceHash) {
+        assert cacheDirectory != null;
+        assert kind != null;
+        assert sourceHash != null;
+        return cacheDirectory.resolve(HexFormat.of().formatHex(sourceHash) + kind.getExtension());
+    }
+
+    /**
+     * Method used to compute the content hash of a source file
+     * @param source the source file path
+     * @return the SHA-256 of the file content
+     * @throws ParserException if the file cannot be read
+     */
+    public static byte[] hash(Path source) throws ParserException {
+        assert source != null;
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(source));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new ParserException(e.getMessage());
+        }
+    }
+
+    /**
+     * Method used to write the object to a file. The file is replaced atomically, so concurrent readers never
+     *   observe a partially written object.
+     * @param path the object file path
+     * @param sourceHash the content hash of the source the object was built from
+     * @param registerMap the map the registers of the program were resolved with
+     * @throws ParserException if the file cannot be written, or if the program contains parameters that cannot be
+     *   encoded.
+     */
+    public void write(Path path, byte[] sourceHash, Map<String, Register> registerMap) throws ParserException {
+        assert path != null;
+        assert sourceHash != null && sourceHash.length == HASH_SIZE;
+        assert registerMap != null;
+
+        var registerNames = new IdentityHashMap<Register, String>();
+        registerMap.forEach((name, register) -> registerNames.putIfAbsent(register, name));
+        var symbols = new LinkedHashMap<String, Integer>();
+
+        try {
+            // Instructions are encoded first, since the symbol table preceding them is built while encoding
+            var body = new ByteArrayOutputStream();
+            var bodyOutput = new DataOutputStream(body);
+            for (var instruction : instructions) {
+                // unknown mnemonics are kept as a null type by the parser
+                var type = instruction.getType();
+                bodyOutput.writeShort(type == null ? NO_OPCODE : type.ordinal());
+                writeOperand(bodyOutput, instruction.getParam1(), registerNames, symbols);
+                writeOperand(bodyOutput, instruction.getParam2(), registerNames, symbols);
+            }
+
+            // Module symbols are encoded after the instruction lines, but must be part of the symbol table
+            var symbolsBody = new ByteArrayOutputStream();
+            var symbolsOutput = new DataOutputStream(symbolsBody);
+            symbolsOutput.writeInt(labels.size());
+            for (var label : labels.entrySet()) {
+                symbolsOutput.writeShort(symbolIndex(symbols, label.getKey()));
+                symbolsOutput.writeInt(label.getValue());
+            }
+            for (var names : List.of(exports, imports)) {
+                symbolsOutput.writeInt(names.size());
+                for (var name : names) {
+                    symbolsOutput.writeShort(symbolIndex(symbols, name));
+                }
+            }
+
+            if (symbols.size() > Character.MAX_VALUE + 1) {
+                throw new ParserException("Cannot encode more than " + (Character.MAX_VALUE + 1) + " symbols");
+            }
+
+            var temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeShort(VERSION);
+                output.writeInt(INSTRUCTION_SET_FINGERPRINT);
+                output.writeByte(kind.ordinal());
+                output.write(sourceHash);
+                output.writeInt(symbols.size());
+                for (var symbol : symbols.keySet()) {
+                    var bytes = symbol.getBytes(StandardCharsets.UTF_8);
+                    output.writeShort(bytes.length);
+                    output.write(bytes);
+                }
+                output.writeInt(instructions.size());
+                body.writeTo(output);
+                for (var line : instructionLines) {
+                    output.writeInt(line);
+                }
+                symbolsBody.writeTo(output);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ParserException(e.getMessage());
+        }
+    }
+
+    /**
+     * Method used to encode a single operand
+     * @param output where to encode to
+     * @param parameter the operand to encode. Can be null
+     * @param registerNames name of each known register
+     * @param symbols symbol table, extended with any new symbol
+     * @throws IOException if writing fails
+     * @throws ParserException if the parameter cannot be encoded
+     */
+    private static void writeOperand(
+            DataOutputStream output,
+            Parameter parameter,
+            Map<Register, String> registerNames,
+            Map<String, Integer> symbols
+    ) throws IOException, ParserException {
+        switch (parameter) {
+            case null -> output.writeByte(OPERAND_NONE);
+            case Constant constant -> {
+                output.writeByte(OPERAND_CONSTANT);
+                output.writeChar(constant.getValue());
+            }
+            case RegisterReference reference -> {
+                output.writeByte(OPERAND_REGISTER_REFERENCE);
+                output.writeShort(symbolIndex(symbols, reference.getName()));
+                output.writeInt(reference.getReferencedAtLine());
+            }
+            case Label label -> {
+                output.writeByte(OPERAND_LABEL);
+                output.writeShort(symbolIndex(symbols, label.getName()));
+            }
+            case ConstantMemoryLocation location -> {
+                output.writeByte(OPERAND_CONSTANT_ADDRESS);
+                output.writeChar(location.getValue());
+            }
+            case AbsoluteMemoryLocation location -> {
+                output.writeByte(OPERAND_ABSOLUTE_ADDRESS);
+                writeOperand(output, location.getLocation(), registerNames, symbols);
+            }
+            case RelativeMemoryLocation location -> {
+                var parameters = location.getParameters();
+                var relations = location.getRelations();
+                if (parameters.size() > Byte.MAX_VALUE) {
+                    throw new ParserException("Cannot encode address expression of " + parameters.size() + " terms");
+                }
+                output.writeByte(OPERAND_RELATIVE_ADDRESS);
+                output.writeByte(parameters.size());
+                writeOperand(output, parameters.getFirst(), registerNames, symbols);
+                for (var index = 0; index < relations.size(); ++index) {
+                    output.writeByte(relationCode(relations.get(index)));
+                    writeOperand(output, parameters.get(index + 1), registerNames, symbols);
+                }
+            }
+            // Checked after the subclasses above, since FlagRegister extends Register and is never part of a map
+            case Register register when registerNames.containsKey(register) -> {
+                output.writeByte(OPERAND_REGISTER);
+                output.writeShort(symbolIndex(symbols, registerNames.get(register)));
+            }
+            default -> throw new ParserException("Cannot encode parameter: " + parameter);
+        }
+    }
+
+    /**
+     * Method used to get the code of an address expression relation
+     * @param relation the relation
+     * @return the relation code
+     * @throws ParserException if the relation is not one of the known relations
+     */
+    private static byte relationCode(BinaryOperator<Character> relation) throws ParserException {
+        if (relation == RelativeMemoryLocation.ADDITION) {
+            return RELATION_ADDITION;
+        }
+        if (relation == RelativeMemoryLocation.SUBTRACTION) {
+            return RELATION_SUBTRACTION;
+        }
+        throw new ParserException("Cannot encode unknown address expression relation");
+    }
+
+    /**
+     * Method used to get the index of a symbol, adding it to the symbol table if not present
+     * @param symbols the symbol table
+     * @param symbol the symbol
+     * @return the index of the symbol
+     */
+    private static int symbolIndex(Map<String, Integer> symbols, String symbol) {
+        return symbols.computeIfAbsent(symbol, key -> symbols.size());
+    }
+
+    /**
+     * Method used to read an object file.
+     * @param path the object file path
+     * @param kind the expected kind of the object
+     * @param sourceHash the content hash of the current source
+     * @param registerMap the map to resolve registers with
+     * @return the read object, or null if the file is missing or cannot be read, is of another kind, was built from
+     *   a different source, uses a different format or instruction set, is corrupted, or refers to registers not
+     *   part of the map.
+     */
+    public static ObjectFile read(Path path, Kind kind, byte[] sourceHash, Map<String, Register> registerMap) {
+        assert path != null;
+        assert kind != null;
+        assert sourceHash != null;
+        assert registerMap != null;
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer, kind, sourceHash, registerMap);
+        } catch (IOException e) {
+            // missing or unreadable object. It is only a cache, so the source is assembled instead
+            return null;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            // corrupted or truncated object
+            return null;
+        }
+    }
+
+    /**
+     * Method used to decode a mapped object file
+     * @param buffer the mapped file content
+     * @param kind the expected kind of the object
+     * @param sourceHash the content hash of the current source
+     * @param registerMap the map to resolve registers with
+     * @return the decoded object, or null if not decodable or of another kind
+     */
+    private static ObjectFile decode(
+            ByteBuffer buffer,
+            Kind kind,
+            byte[] sourceHash,
+            Map<String, Register> registerMap
+    ) {
+        if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION
+                || buffer.getInt() != INSTRUCTION_SET_FINGERPRINT || buffer.get() != kind.ordinal()) {
+            return null;
+        }
+
+        var hash = new byte[HASH_SIZE];
+        buffer.get(hash);
+        if (!MessageDigest.isEqual(hash, sourceHash)) {
+            return null;
+        }
+
+        // Counts are validated against the remaining size before allocating anything
+        var symbolCount = buffer.getInt();
+        if (symbolCount < 0 || symbolCount > buffer.remaining() / Short.BYTES) {
+            return null;
+        }
+        var symbols = new String[symbolCount];
+        for (var index = 0; index < symbolCount; ++index) {
+            var bytes = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(bytes);
+            symbols[index] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        var instructionCount = buffer.getInt();
+        if (instructionCount < 0 || instructionCount > buffer.remaining() / (Short.BYTES + 2)) {
+            return null;
+        }
+        var types = InstructionType.values();
+        var instructions = new ArrayList<Instruction>(instructionCount);
+        for (var index = 0; index < instructionCount; ++index) {
+            var opcode = buffer.getShort();
+            var type = opcode == NO_OPCODE ? null : types[opcode];
+            var instruction = new Instruction(type);
+            instruction.setParameters(Tuple.of(
+                    readOperand(buffer, symbols, registerMap),
+                    readOperand(buffer, symbols, registerMap)
+            ));
+            instructions.add(instruction);
+        }
+
+        var instructionLines = new int[instructionCount];
+        buffer.asIntBuffer().get(instructionLines);
+        buffer.position(buffer.position() + instructionCount * Integer.BYTES);
+
+        var labelCount = buffer.getInt();
+        if (labelCount < 0 || labelCount > buffer.remaining() / (Short.BYTES + Integer.BYTES)) {
+            return null;
+        }
+        var labels = new LinkedHashMap<String, Integer>();
+        for (var index = 0; index < labelCount; ++index) {
+            var name = symbols[buffer.getShort() & 0xFFFF];
+            var target = buffer.getInt();
+            // a label may refer to the end of the module, but never past it
+            if (target < 0 || target > instructionCount) {
+                return null;
+            }
+            labels.put(name, target);
+        }
+        var exports = readSymbolList(buffer, symbols);
+        var imports = readSymbolList(buffer, symbols);
+        if (exports == null || imports == null) {
+            return null;
+        }
+        return kind == Kind.MODULE
+                ? new ObjectFile(instructions, instructionLines, labels, exports, imports)
+                : new ObjectFile(instructions, instructionLines);
+    }
+
+    /**
+     * Method used to decode a list of symbols, such as module exports
+     * @param buffer where to decode from
+     * @param symbols the symbol table
+     * @return the list of symbols, or null if not decodable
+     */
+    private static List<String> readSymbolList(ByteBuffer buffer, String[] symbols) {
+        var count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / Short.BYTES) {
+            return null;
+        }
+        var names = new ArrayList<String>(count);
+        for (var index = 0; index < count; ++index) {
+            names.add(symbols[buffer.getShort() & 0xFFFF]);
+        }
+        return names;
+    }
+
+    /**
+     * Method used to decode a single operand
+     * @param buffer where to decode from
+     * @param symbols the symbol table
+     * @param registerMap the map to resolve registers with
+     * @return the decoded operand. Can be null
+     * @throws IllegalArgumentException if the operand is not decodable
+     */
+    private static Parameter readOperand(ByteBuffer buffer, String[] symbols, Map<String, Register> registerMap)
+            throws IllegalArgumentException {
+        var kind = buffer.get();
+        return switch (kind) {
+            case OPERAND_NONE -> null;
+            case OPERAND_CONSTANT -> new Constant(buffer.getChar());
+            case OPERAND_REGISTER -> {
+                var register = registerMap.get(symbols[buffer.getShort() & 0xFFFF]);
+                if (register == null) {
+                    throw new IllegalArgumentException("Unknown register in object file");
+                }
+                yield register;
+            }
+            case OPERAND_REGISTER_REFERENCE -> {
+                var name = symbols[buffer.getShort() & 0xFFFF];
+                yield new RegisterReference(buffer.getInt(), name);
+            }
+            case OPERAND_LABEL -> new Label(symbols[buffer.getShort() & 0xFFFF]);
+            case OPERAND_CONSTANT_ADDRESS -> new ConstantMemoryLocation(buffer.getChar());
+            case OPERAND_ABSOLUTE_ADDRESS ->
+                    new AbsoluteMemoryLocation(readRequiredOperand(buffer, symbols, registerMap));
+            case OPERAND_RELATIVE_ADDRESS -> {
+                var count = buffer.get();
+                if (count <= 0) {
+                    throw new IllegalArgumentException("Invalid address expression in object file");
+                }
+                var parameters = new ArrayList<Parameter>(count);
+                var relations = new ArrayList<BinaryOperator<Character>>(count - 1);
+                parameters.add(readRequiredOperand(buffer, symbols, registerMap));
+                for (var index = 1; index < count; ++index) {
+                    relations.add(switch (buffer.get()) {
+                        case RELATION_ADDITION -> RelativeMemoryLocation.ADDITION;
+                        case RELATION_SUBTRACTION -> RelativeMemoryLocation.SUBTRACTION;
+                        default -> throw new IllegalArgumentException("Invalid relation in object file");
+                    });
+                    parameters.add(readRequiredOperand(buffer, symbols, registerMap));
+                }
+                try {
+                    yield new RelativeMemoryLocation(parameters, relations);
+                } catch (ValueException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+            default -> throw new IllegalArgumentException("Invalid operand kind in object file: " + kind);
+        };
+    }
+
+    /**
+     * Method used to decode a single operand that must be present
+     * @param buffer where to decode from
+     * @param symbols the symbol table
+     * @param registerMap the map to resolve registers with
+     * @return the decoded operand
+     * @throws IllegalArgumentException if the operand is absent or not decodable
+     */
+    private static Parameter readRequiredOperand(
+            ByteBuffer buffer,
+            String[] symbols,
+            Map<String, Register> registerMap
+    ) throws IllegalArgumentException {
+        var operand = readOperand(buffer, symbols, registerMap);
+        if (operand == null) {
+            throw new IllegalArgumentException("Missing operand in object file");
+        }
+        return operand;
+    }
+}
@@ -7,6 +7,7 @@ import ro.uaic.swqual.exception.parser.ParserException;
 import ro.uaic.swqual.exception.parser.UndefinedReferenceException;
 import ro.uaic.swqual.model.Instruction;
 import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.PackedProgram;
 import ro.uaic.swqual.model.operands.Constant;
 import ro.uaic.swqual.model.operands.Label;
 import ro.uaic.swqual.model.operands.MemoryLocation;
@@ -14,35 +15,73 @@ import ro.uaic.swqual.model.operands.Parameter;
 import ro.uaic.swqual.model.operands.Register;
 import ro.uaic.swqual.model.operands.RegisterReference;
 import ro.uaic.swqual.util.Tuple;
+import ro.uaic.swqual.util.Tuple2;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Represents the base assembly code parser object.
  */
 public class Parser {
     /** List of {@link Instruction Instructions} from the current ongoing parse & link */
-    private final List<Instruction> instructions = new ArrayList<>();
+    private final ArrayList<Instruction> instructions = new ArrayList<>();
+    /** Source line of each instruction in {@link Parser#instructions}, by instruction index */
+    private int[] instructionLines = new int[64];
+    /** Minimum amount of bytes a chunk holds in a {@link Parser#parseParallel parallel parse}.
+     * Smaller files are parsed as a single chunk. */
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 1 << 16;
     /** Map from label string to instruction addresses.
      * Used to replace labels with actual address values in jump instructions. */
     private final Map<String, Constant> jumpMap = new HashMap<>();
+    /** Labels made visible to other modules through the {@link Parser#EXPORT_DIRECTIVE export directive} */
+    private final Set<String> exports = new LinkedHashSet<>();
+    /** Labels defined by other modules, declared through the {@link Parser#IMPORT_DIRECTIVE import directive} */
+    private final Set<String> imports = new LinkedHashSet<>();
+    /** Whether lines are parsed in place, out of the source text. Extensions may override how lines and
+     * instructions are parsed, so they get each line as a string instead. */
+    private final boolean inPlace = getClass() == Parser.class;
+    /** Bounds of the operand tokens of the instruction being parsed, as pairs of begin and end indices in its line */
+    private int[] operandBounds = new int[8];
+    /** Address expressions of the instruction being parsed that span several tokens, by operand index, with their
+     * inner whitespace dropped. Null for the operands parsed from their line bounds */
+    private String[] operandCompounds = new String[4];
+    /** Number of operand tokens of the instruction being parsed */
+    private int operandCount;
+    /** Directive exporting a label of the module, i.e. '.export @label;' */
+    public static final String EXPORT_DIRECTIVE = ".export";
+    /** Directive importing a label of another module, i.e. '.import @label;' */
+    public static final String IMPORT_DIRECTIVE = ".import";
 
     /**
-     * Method used to reset the parser state. It will clear {@link Parser#instructions} and {@link Parser#jumpMap}
+     * Method used to reset the parser state. It will clear {@link Parser#instructions}, {@link Parser#jumpMap} and
+     *   the declared exports and imports
      */
     public void clear() {
         instructions.clear();
         jumpMap.clear();
+        exports.clear();
+        imports.clear();
     }
 
     /**
@@ -53,6 +92,67 @@ public class Parser {
         return instructions;
     }
 
+    /**
+     * Getter for the source line of each currently parsed instruction.
+     * @return array of line numbers, indexed by instruction index
+     */
+    public int[] getInstructionLines() {
+        return Arrays.copyOf(instructionLines, instructions.size());
+    }
+
+    /**
+     * Method used to get the mapping between the currently parsed instructions and their source lines. <br/>
+     * Neither {@link Parser#link} nor {@link Parser#resolveReferences} move instructions, so the map holds for the
+     *   linked and resolved program as well.
+     * @return the source map
+     */
+    public SourceMap getSourceMap() {
+        return new SourceMap(getInstructionLines());
+    }
+
+    /**
+     * Method used to ensure {@link Parser#instructionLines} can hold the lines of a number of added instructions
+     * @param added the number of instructions about to be added
+     */
+    private void reserveInstructionLines(int added) {
+        var required = instructions.size() + added;
+        if (required > instructionLines.length) {
+            instructionLines = Arrays.copyOf(instructionLines, Math.max(instructionLines.length * 2, required));
+        }
+    }
+
+    /**
+     * Method used to make room for a number of instructions at once, instead of growing along the parse
+     * @param count the expected number of added instructions
+     */
+    private void reserveInstructions(int count) {
+        instructions.ensureCapacity(instructions.size() + count);
+        reserveInstructionLines(count);
+    }
+
+    /**
+     * Method used to append an instruction along with its source line
+     * @param instruction the instruction to append
+     * @param line the source line of the instruction
+     */
+    private void addInstruction(Instruction instruction, int line) {
+        reserveInstructionLines(1);
+        instructionLines[instructions.size()] = line;
+        instructions.add(instruction);
+    }
+
+    /**
+     * Method used to append instructions along with their source lines
+     * @param addedInstructions the instructions to append
+     * @param addedLines the source line of each appended instruction
+     */
+    private void addInstructions(List<Instruction> addedInstructions, int[] addedLines) {
+        assert addedInstructions.size() == addedLines.length;
+        reserveInstructionLines(addedLines.length);
+        System.arraycopy(addedLines, 0, instructionLines, instructions.size(), addedLines.length);
+        instructions.addAll(addedInstructions);
+    }
+
     /**
      * Method used to parse a single line with a known line number
      * @param line the line to parse
@@ -60,23 +160,175 @@ public class Parser {
      */
     protected void parseLine(String line, int lineIdx) {
         assert line != null;
+        parseLine(line, 0, line.length(), lineIdx);
+    }
+
+    /**
+     * Method used to parse a single line with a known line number, out of the text holding it. <br/>
+     * Instruction lines are parsed in place when {@link Parser#inPlace} allows it. The other lines are copied out.
+     * @param text the text holding the line
+     * @param begin index of the first character of the line
+     * @param end index after the last character of the line
+     * @param lineIdx the line number
+     */
+    private void parseLine(String text, int begin, int end, int lineIdx) {
+        var trimmedBegin = trimBegin(text, begin, end);
+        var trimmedEnd = trimEnd(text, trimmedBegin, end);
         // skip empty / comment lines
-        if (line.trim().isEmpty() || line.trim().startsWith("//")) {
+        if (trimmedBegin == trimmedEnd || trimmedEnd - trimmedBegin >= 2 && text.charAt(trimmedBegin) == '/'
+                && text.charAt(trimmedBegin + 1) == '/') {
             return;
         }
-        // if not a label line, parse instruction
-        if (!line.trim().startsWith("@")) {
-            parseInstruction(lineIdx, line);
+        var first = text.charAt(trimmedBegin);
+        if (first == '.') {
+            parseDirective(text.substring(trimmedBegin, trimmedEnd));
+        } else if (first != '@') {
+            // if not a label or directive line, parse instruction
+            if (inPlace) {
+                parseInstruction(lineIdx, text, trimmedBegin, trimmedEnd);
+            } else {
+                parseInstruction(lineIdx, text.substring(begin, end));
+            }
         } else {
-            // otherwise, store label location in the jump map
-            var labelKey = line.trim().substring(0, line.length() - 1);
-            if (jumpMap.containsKey(labelKey)) {
-                throw new DuplicateJumpTargetException(line);
+            // otherwise, store label location in the jump map, keyed the same way as labelKey over the line
+            var keyEnd = trimmedBegin + (end - begin) - 1;
+            var labelKey = keyEnd <= trimmedEnd
+                    ? text.substring(trimmedBegin, keyEnd)
+                    // out of the trimmed line, which labelKey fails on
+                    : labelKey(text.substring(trimmedBegin, trimmedEnd), text.substring(begin, end));
+            if (jumpMap.putIfAbsent(labelKey, new Constant((char) instructions.size())) != null) {
+                throw new DuplicateJumpTargetException(text.substring(begin, end));
             }
-            jumpMap.put(labelKey, new Constant((char) instructions.size()));
         }
     }
 
+    /**
+     * Method used to parse a module directive, declaring an exported or imported label
+     * @param trimmed the trimmed directive line
+     * @throws ParserException if the directive is unknown or malformed
+     */
+    private void parseDirective(String trimmed) throws ParserException {
+        if (!trimmed.endsWith(";")) {
+            throw new ParserException("Error at line " + trimmed + ": expected ';'");
+        }
+
+        var bodyEnd = trimmed.length() - 1;
+        var directiveEnd = 0;
+        while (directiveEnd < bodyEnd && !isSeparator(trimmed.charAt(directiveEnd))) {
+            ++directiveEnd;
+        }
+        var directive = trimmed.substring(0, directiveEnd);
+        var operandsBegin = trimBegin(trimmed, directiveEnd, bodyEnd);
+        tokenizeOperands(trimmed, operandsBegin, trimEnd(trimmed, directiveEnd, bodyEnd), operandsBegin);
+        if (operandCount != 1 || !operand(trimmed, 0).startsWith("@")) {
+            throw new ParserException("Error at line " + trimmed + ": expected a single label");
+        }
+        switch (directive) {
+            case EXPORT_DIRECTIVE -> exports.add(operand(trimmed, 0));
+            case IMPORT_DIRECTIVE -> imports.add(operand(trimmed, 0));
+            default -> throw new ParserException("Error at line " + trimmed + ": unknown directive " + directive);
+        }
+    }
+
+    /**
+     * Method used to assemble the current parse as a module, to be combined with other modules by a {@link Linker}.
+     * <br/>
+     * Unlike {@link Parser#link}, labels are kept unresolved, and the object records every label defined in the
+     *   module along with the exported and imported labels.
+     * @return the module object
+     * @throws JumpLabelNotFoundException if a label is neither defined in the module nor imported, or if an
+     *   exported label is not defined in the module
+     * @throws DuplicateJumpTargetException if a label is both defined in the module and imported
+     */
+    public ObjectFile assemble() throws JumpLabelNotFoundException, DuplicateJumpTargetException {
+        var labels = new LinkedHashMap<String, Integer>();
+        jumpMap.forEach((name, target) -> labels.put(name, (int) target.getValue()));
+        for (var name : imports) {
+            if (labels.containsKey(name)) {
+                throw new DuplicateJumpTargetException(name);
+            }
+        }
+        for (var name : exports) {
+            if (!labels.containsKey(name)) {
+                throw new JumpLabelNotFoundException(name);
+            }
+        }
+        for (var instruction : instructions) {
+            if (instruction.getParam1() instanceof Label label
+                    && !labels.containsKey(label.getName()) && !imports.contains(label.getName())) {
+                throw new JumpLabelNotFoundException(label.getName());
+            }
+        }
+        return new ObjectFile(
+                new ArrayList<>(instructions),
+                getInstructionLines(),
+                labels,
+                List.copyOf(exports),
+                List.copyOf(imports)
+        );
+    }
+
+    /**
+     * Method used to parse, resolve and link a source file, going through its {@link ObjectFile} when up to date. <br/>
+     * On a miss, the source is {@link Parser#parse(String) parsed}, {@link Parser#resolveReferences resolved} and
+     *   {@link Parser#link linked}, then the object file is written to the cache directory.
+     * @param path the path of the source file
+     * @param registerMap a map associating register assembly labels to actual {@link Register} objects.
+     * @param cacheDirectory the directory holding the object files, such as {@link ObjectFile#DEFAULT_CACHE_DIRECTORY}.
+     *   Created on the first write, if missing
+     * @return instance to self for chained operations
+     */
+    public Parser parseCached(String path, Map<String, Register> registerMap, Path cacheDirectory) {
+        assert path != null;
+        assert registerMap != null;
+        assert cacheDirectory != null;
+        var source = Path.of(path);
+        var sourceHash = ObjectFile.hash(source);
+        var objectPath = ObjectFile.pathFor(cacheDirectory, ObjectFile.Kind.PROGRAM, sourceHash);
+        var cached = ObjectFile.read(objectPath, ObjectFile.Kind.PROGRAM, sourceHash, registerMap);
+        if (cached != null) {
+            clear();
+            addInstructions(cached.getInstructions(), cached.getInstructionLines());
+            return this;
+        }
+
+        parse(path).resolveReferences(registerMap).link();
+        try {
+            Files.createDirectories(cacheDirectory);
+            new ObjectFile(instructions, getInstructionLines()).write(objectPath, sourceHash, registerMap);
+        } catch (IOException | ParserException exception) {
+            // The object file is only a cache. Failing to write it (i.e. read-only location) does not fail the parse.
+        }
+        return this;
+    }
+
+    /**
+     * Method used to build a program out of several module source files, through a {@link ModuleLibrary}. <br/>
+     * Only the modules whose source changed since they were last assembled are parsed again. The program is linked,
+     *   but its register references are left to {@link Parser#resolveReferences}.
+     * @param paths the paths of the module sources, in program order
+     * @param library the library caching the assembled modules
+     * @return instance to self for chained operations
+     */
+    public Parser parseModules(List<String> paths, ModuleLibrary library) {
+        assert paths != null;
+        assert library != null;
+        clear();
+        var program = library.link(paths.stream().map(Path::of).toList());
+        addInstructions(program.getInstructions(), program.getInstructionLines());
+        return this;
+    }
+
+    /**
+     * Method used to extract the jump map key out of a label line
+     * @param trimmed the trimmed label line
+     * @param line the original label line
+     * @return the label key
+     */
+    static String labelKey(String trimmed, String line) {
+        return trimmed.substring(0, line.length() - 1);
+    }
+
     /**
      * Method used to parse a source file from a given path
      * @param path the path of the file to use
@@ -86,38 +338,404 @@ public class Parser {
         assert path != null;
         // clear the previous parse
         clear();
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            var lineIndex = 0;
-            String line;
-            while ((line = br.readLine()) != null) {
-                // parse each line in the dedicated method until exhaustion.
-                parseLine(line, ++lineIndex);
+        var text = readSource(path);
+        // each line holds at most one instruction
+        reserveInstructions(countLines(text));
+        // parse each line in the dedicated method until exhaustion.
+        if (inPlace) {
+            forEachLine(text, (begin, end, lineIndex) -> parseLine(text, begin, end, lineIndex));
+        } else {
+            forEachLine(text, (begin, end, lineIndex) -> parseLine(text.substring(begin, end), lineIndex));
+        }
+        return this;
+    }
+
+    /**
+     * Method used to read a whole source file
+     * @param path the path of the file to read
+     * @return the text of the file, decoded with the default charset
+     * @throws ParserException if the file cannot be read
+     */
+    private static String readSource(String path) {
+        // opened first, so that a missing or unreadable file is reported the same way as before
+        try (var input = new FileInputStream(path)) {
+            try {
+                // read without copying the bytes, as long as they are well-formed
+                return Files.readString(Path.of(path), Charset.defaultCharset());
+            } catch (CharacterCodingException e) {
+                // otherwise, decoded at once, replacing malformed input the same way as a FileReader
+                return new String(input.readAllBytes(), Charset.defaultCharset());
+            }
+        } catch (IOException e) {
+            throw new ParserException(e.getMessage());
+        }
+    }
+
+    /**
+     * Method used to parse a source file from a given path, splitting it in chunks parsed in parallel. <br/>
+     * The file is memory-mapped and split at line boundaries. Each chunk is parsed into a partial instruction list
+     *   and label table, which are then merged in order, with labels offset to their global instruction index. <br/>
+     * The result, including the first error raised, is the same as the one of {@link Parser#parse(String)}. <br/>
+     * Only the base syntax is parsed in parallel: extensions overriding {@link Parser#parseLine} are used for
+     *   the merged result only, and should use {@link Parser#parse(String)} instead. <br/>
+     * Splitting and merging cost about a third more than {@link Parser#parse(String)} on a single core, so this is
+     *   only worth it for large files on several cores, and is never chosen by default.
+     * @param path the path of the file to use
+     * @return instance to self for chained operations
+     * @throws ParserException if the file cannot be read, or is too large to be mapped.
+     */
+    public Parser parseParallel(String path) {
+        assert path != null;
+        // clear the previous parse
+        clear();
+        List<String> chunkTexts;
+        try (var channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new ParserException("Source file too large: " + path);
             }
-            return this;
+            var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            chunkTexts = splitChunks(mapped, (int) size);
         } catch (IOException e) {
             throw new ParserException(e.getMessage());
         }
+
+        // Line numbers are global, so lines are split before parsing to know where each chunk starts.
+        var chunkLines = chunkTexts.parallelStream().map(Parser::splitLines).toList();
+        var chunkFirstLines = new int[chunkLines.size()];
+        for (var index = 1; index < chunkFirstLines.length; ++index) {
+            chunkFirstLines[index] = chunkFirstLines[index - 1] + chunkLines.get(index - 1).size();
+        }
+
+        var chunks = IntStream.range(0, chunkLines.size()).parallel()
+                .mapToObj(index -> ChunkParser.parse(chunkLines.get(index), chunkFirstLines[index]))
+                .toList();
+
+        for (var chunk : chunks) {
+            var offset = instructions.size();
+            // Labels were recorded up to the first error of the chunk, so they all come before it in the source.
+            for (var label : chunk.labels) {
+                var line = label.getFirst();
+                var labelKey = labelKey(line.trim(), line);
+                if (jumpMap.containsKey(labelKey)) {
+                    throw new DuplicateJumpTargetException(line);
+                }
+                jumpMap.put(labelKey, new Constant((char) (offset + label.getSecond())));
+            }
+
+            if (chunk.failure != null) {
+                throw chunk.failure;
+            }
+            // the declarations are private to Parser, hence not members of the ChunkParser type
+            Parser chunkParser = chunk;
+            exports.addAll(chunkParser.exports);
+            imports.addAll(chunkParser.imports);
+            addInstructions(chunk.getInstructions(), chunk.getInstructionLines());
+        }
+        return this;
     }
 
     /**
-     * Method used to group address expressions (e.g. [r0 + 24]), since they are split beforehand.
-     * @param tokens list of tokens that were previously whitespace spearated.
-     * @return the new list of tokens, after merging the address tokens.
+     * Method used to split a mapped file in chunks of text, at line boundaries.
+     * @param mapped the mapped file content
+     * @param size the file size
+     * @return the list of chunk texts, in file order
      */
-    private List<String> mergeAddressParameters(List<String> tokens) {
-        assert tokens != null;
-        var newList = new ArrayList<String>();
+    private static List<String> splitChunks(ByteBuffer mapped, int size) {
+        var chunkCount = Math.max(1, Math.min(
+                Runtime.getRuntime().availableProcessors() * 4,
+                size / MIN_PARALLEL_CHUNK_SIZE
+        ));
+
+        var chunkTexts = new ArrayList<String>(chunkCount);
+        var charset = Charset.defaultCharset();
+        var begin = 0;
+        for (var index = 1; index <= chunkCount && begin < size; ++index) {
+            var end = (int) ((long) size * index / chunkCount);
+            // move the end after the next '\n'. Safe for any ascii-compatible charset, since it never appears inside
+            // a multibyte sequence.
+            while (end < size && end > begin && mapped.get(end - 1) != '\n') {
+                ++end;
+            }
+            if (end <= begin) {
+                continue;
+            }
+
+            var bytes = new byte[end - begin];
+            mapped.get(begin, bytes);
+            chunkTexts.add(new String(bytes, charset));
+            begin = end;
+        }
+        return chunkTexts;
+    }
+
+    /**
+     * Method used to split a text in lines. Lines are split the same way as {@link BufferedReader#readLine}.
+     * @param text the text to split
+     * @return the list of lines, without terminators
+     */
+    private static List<String> splitLines(String text) {
+        var lines = new ArrayList<String>();
+        forEachLine(text, (begin, end, lineIndex) -> lines.add(text.substring(begin, end)));
+        return lines;
+    }
+
+    /**
+     * Method used to count the lines of a text. Lines ending with a lone '\r' are not told apart, so this is only
+     *   exact for '\n' and "\r\n" terminated lines.
+     * @param text the text to count the lines of
+     * @return the number of lines
+     */
+    private static int countLines(String text) {
+        var count = 1;
+        for (var index = text.indexOf('\n'); index >= 0; index = text.indexOf('\n', index + 1)) {
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Method used to go through the lines of a text, in order. Lines are split the same way as
+     *   {@link BufferedReader#readLine}.
+     * @param text the text to split
+     * @param action the action to run for each line, without terminators
+     */
+    private static void forEachLine(String text, LineAction action) {
+        var lineIndex = 0;
+        var begin = 0;
+        if (text.indexOf('\r') < 0) {
+            // without carriage returns, each line ends at the next '\n', found by the faster String#indexOf
+            for (var index = text.indexOf('\n'); index >= 0; index = text.indexOf('\n', begin)) {
+                action.accept(begin, index, ++lineIndex);
+                begin = index + 1;
+            }
+        } else {
+            for (var index = 0; index < text.length(); ++index) {
+                var character = text.charAt(index);
+                if (character != '\n' && character != '\r') {
+                    continue;
+                }
+
+                action.accept(begin, index, ++lineIndex);
+                if (character == '\r' && index + 1 < text.length() && text.charAt(index + 1) == '\n') {
+                    ++index;
+                }
+                begin = index + 1;
+            }
+        }
+
+        if (begin < text.length()) {
+            action.accept(begin, text.length(), ++lineIndex);
+        }
+    }
+
+    /**
+     * Action run for each line of a text, by {@link Parser#forEachLine}
+     */
+    @FunctionalInterface
+    private interface LineAction {
+        /**
+         * @param begin index of the first character of the line in the text
+         * @param end index after the last character of the line, before its terminator
+         * @param lineIndex the line number in the text
+         */
+        void accept(int begin, int end, int lineIndex);
+    }
+
+    /**
+     * Parser of a single chunk of a {@link Parser#parseParallel parallel parse}. <br/>
+     * Records the label lines in order, along with their local instruction index, and stores the first error
+     *   instead of throwing it.
+     */
+    private static class ChunkParser extends Parser {
+        /** Label lines, in parse order, along with the chunk-local index of the instruction they refer to */
+        private final List<Tuple2<String, Integer>> labels = new ArrayList<>();
+        /** First error raised while parsing the chunk, if any */
+        private RuntimeException failure;
+
+        /**
+         * Method used to parse the lines of a chunk
+         * @param lines the lines of the chunk
+         * @param firstLine the number of lines in the file before the chunk
+         * @return the parser of the chunk
+         */
+        static ChunkParser parse(List<String> lines, int firstLine) {
+            var parser = new ChunkParser();
+            try {
+                var lineIndex = firstLine;
+                for (var line : lines) {
+                    parser.parseLine(line, ++lineIndex);
+                }
+            } catch (RuntimeException exception) {
+                parser.failure = exception;
+            }
+            return parser;
+        }
+
+        @Override
+        protected void parseLine(String line, int lineIdx) {
+            var localIndex = getInstructions().size();
+            super.parseLine(line, lineIdx);
+            var trimmed = line.trim();
+            if (trimmed.startsWith("@")) {
+                labels.add(Tuple.of(line, localIndex));
+            }
+        }
+    }
+
+    /**
+     * Method used to check whether a character separates tokens. Same set as the regex '\s' class.
+     * @param character the character to check
+     * @return true if whitespace, false otherwise
+     */
+    private static boolean isSeparator(char character) {
+        // all separators are at most ' ', which rejects most characters at once
+        return character <= ' ' && (character == ' ' || character == '\t' || character == '\n'
+                || character == '\u000B' || character == '\f' || character == '\r');
+    }
+
+    /**
+     * Method used to get the index of the first character of a range kept by {@link String#trim}
+     * @param text the text holding the range
+     * @param begin index of the first character of the range
+     * @param end index after the last character of the range
+     * @return index of the first character of the trimmed range
+     */
+    private static int trimBegin(String text, int begin, int end) {
+        while (begin < end && text.charAt(begin) <= ' ') {
+            ++begin;
+        }
+        return begin;
+    }
+
+    /**
+     * Method used to get the index after the last character of a range kept by {@link String#trim}
+     * @param text the text holding the range
+     * @param begin index of the first character of the range
+     * @param end index after the last character of the range
+     * @return index after the last character of the trimmed range
+     */
+    private static int trimEnd(String text, int begin, int end) {
+        while (end > begin && text.charAt(end - 1) <= ' ') {
+            --end;
+        }
+        return end;
+    }
+
+    /**
+     * Method used to record an operand token of the instruction being parsed
+     * @param begin index of the first character of the token
+     * @param end index after the last character of the token
+     * @param compound the address expression spanning several tokens, null if none
+     */
+    private void addOperand(int begin, int end, String compound) {
+        if (operandCount == operandCompounds.length) {
+            operandBounds = Arrays.copyOf(operandBounds, operandBounds.length * 2);
+            operandCompounds = Arrays.copyOf(operandCompounds, operandCompounds.length * 2);
+        }
+        operandBounds[2 * operandCount] = begin;
+        operandBounds[2 * operandCount + 1] = end;
+        operandCompounds[operandCount++] = compound;
+    }
+
+    /**
+     * Method used to get the text of an operand token of the instruction being parsed
+     * @param text the text the operands were split from
+     * @param index the index of the operand
+     * @return the operand token
+     */
+    private String operand(String text, int index) {
+        var compound = operandCompounds[index];
+        return compound != null ? compound : text.substring(operandBounds[2 * index], operandBounds[2 * index + 1]);
+    }
+
+    /**
+     * Method used to copy a range of text without its whitespace
+     * @param text the text holding the range
+     * @param begin index of the first character of the range
+     * @param end index after the last character of the range
+     * @return the range, without {@link Parser#isSeparator separators}
+     */
+    private static String compact(String text, int begin, int end) {
+        var compacted = new StringBuilder(end - begin);
+        for (var index = begin; index < end; ++index) {
+            var character = text.charAt(index);
+            if (!isSeparator(character)) {
+                compacted.append(character);
+            }
+        }
+        return compacted.toString();
+    }
+
+    /**
+     * Method used to split the operands of an instruction in a single pass, into {@link Parser#operandBounds},
+     *   {@link Parser#operandCompounds} and {@link Parser#operandCount}. <br/>
+     * Tokens are whitespace separated, and the leading mnemonic tokens are skipped. <br/>
+     * Address expressions (e.g. [r0 + 24]) are grouped into a single token, with their inner whitespace dropped
+     *   ([r0+24]). These are only copied out of the text when whitespace separates two tokens of a term
+     *   ([r0 + 2 4]), as whitespace around the terms is stripped when parsed.
+     * @param text the text holding the instruction code.
+     * @param begin index of the first character of the instruction code, trimmed and without its terminator.
+     * @param end index after the last character of the instruction code.
+     * @param skippedEnd index after the first token if it is already known to be a mnemonic, begin otherwise.
+     * @throws ParserException if the address expression brackets are not balanced.
+     */
+    private void tokenizeOperands(String text, int begin, int end, int skippedEnd) {
+        assert text != null;
+        operandCount = 0;
+        if (begin == end) {
+            // An empty instruction has a single, empty, operand
+            addOperand(begin, end, null);
+            return;
+        }
+
+        var skippingMnemonics = true;
         // keep in mind if we are currently inside an address identification field ([...])
-        boolean inAddress = false;
-        StringBuilder addressCompound = new StringBuilder();
-        for (var token : tokens) {
-            if (token.startsWith("[") && token.endsWith("]")) {
+        var inAddress = false;
+        var addressBegin = 0;
+        // whether dropping the inner whitespace of the current address group can change its parse
+        var compactionNeeded = false;
+        var previousEnd = 0;
+        var index = skippedEnd;
+        while (index < end && isSeparator(text.charAt(index))) {
+            ++index;
+        }
+        while (index < end) {
+            var start = index;
+            while (index < end && !isSeparator(text.charAt(index))) {
+                ++index;
+            }
+            var tokenEnd = index;
+            while (index < end && isSeparator(text.charAt(index))) {
+                ++index;
+            }
+
+            if (skippingMnemonics) {
+                if (InstructionType.fromLabel(text, start, tokenEnd) != null) {
+                    continue;
+                }
+                skippingMnemonics = false;
+            }
+
+            var opensAddress = text.charAt(start) == '[';
+            var closesAddress = text.charAt(tokenEnd - 1) == ']';
+            if (inAddress && !opensAddress) {
+                // whitespace next to a relation, or to a bare bracket, only surrounds a term, and is stripped anyway
+                var previous = text.charAt(previousEnd - 1);
+                var next = text.charAt(start);
+                compactionNeeded |= previous != '+' && previous != '-' && next != '+' && next != '-'
+                        && !(previousEnd - addressBegin == 1)
+                        && !(closesAddress && tokenEnd - start == 1);
+            }
+            previousEnd = tokenEnd;
+
+            if (opensAddress && closesAddress && tokenEnd - start > 1) {
                 // if token is just an isolated address ([r0]), check the current state.
                 if (inAddress) {
                     throw new ParserException("In address identifier, unexpected '[");
                 }
-                newList.add(token);
-            } else if (token.startsWith("[")) {
+                addOperand(start, tokenEnd, null);
+            } else if (opensAddress) {
                 // otherwise, if in start of address group ([r0...)
                 if (inAddress) {
                     throw new ParserException("In address identifier, unexpected '['");
@@ -125,25 +743,20 @@ public class Parser {
 
                 inAddress = true;
                 // start a compounding operation
-                addressCompound = new StringBuilder(token);
-            } else if (token.endsWith("]")) {
+                addressBegin = start;
+                compactionNeeded = false;
+            } else if (closesAddress) {
                 // if reached an end of an address group (... + 24])
                 if (!inAddress) {
                     throw new ParserException("Not in address identifier, unexpected ']'");
                 }
 
                 inAddress = false;
-                // end the compounding operation
-                addressCompound.append(token);
-                // add the compound to the list
-                newList.add(addressCompound.toString());
-                addressCompound = new StringBuilder();
-            } else if (inAddress) {
-                // keep compounding if we are in [ ... token ... ].
-                addressCompound.append(token);
-            } else {
-                // if not in address, add token as-is
-                newList.add(token);
+                // end the compounding operation and add the compound to the list
+                addOperand(addressBegin, tokenEnd, compactionNeeded ? compact(text, addressBegin, tokenEnd) : null);
+            } else if (!inAddress) {
+                // if not in address, add token as-is. Otherwise, the token is part of the [ ... token ... ] group.
+                addOperand(start, tokenEnd, null);
             }
         }
 
@@ -151,8 +764,6 @@ public class Parser {
         if (inAddress) {
             throw new ParserException("In address identifier that was never terminated");
         }
-
-        return newList;
     }
 
     /**
@@ -163,39 +774,56 @@ public class Parser {
      */
     public Parser parseInstruction(int lineIndex, String line) {
         assert line != null;
-        line = line.trim();
+        parseInstruction(lineIndex, line, 0, line.length());
+        return this;
+    }
+
+    /**
+     * Method used to parse a definite instruction out of the text holding it. <br/>
+     * The text is read in place: only register and label names, and address expressions spanning several tokens,
+     *   are copied out of it.
+     * @param lineIndex the line number
+     * @param text the text holding the instruction code
+     * @param lineBegin index of the first character of the instruction code
+     * @param lineEnd index after the last character of the instruction code
+     */
+    private void parseInstruction(int lineIndex, String text, int lineBegin, int lineEnd) {
+        var begin = trimBegin(text, lineBegin, lineEnd);
+        var end = trimEnd(text, begin, lineEnd);
         // ensure presence of ';'
-        if (!line.endsWith(";") && !line.endsWith(":")) {
-            throw new ParserException("Error at line " + line + ": expected ';' or ':'");
+        var terminator = begin == end ? 0 : text.charAt(end - 1);
+        if (terminator != ';' && terminator != ':') {
+            throw new ParserException("Error at line " + text.substring(begin, end) + ": expected ';' or ':'");
         }
 
-        line = line.substring(0, line.length() - 1);
-        // split by whitespace and construct the instruction
-        var parsed = line.split("\\s+");
-        var instruction = new Instruction();
-        var parameterList = new ArrayList<Parameter>();
+        var bodyEnd = end - 1;
+        // first token is the instruction type
+        var typeEnd = begin;
+        while (typeEnd < bodyEnd && !isSeparator(text.charAt(typeEnd))) {
+            ++typeEnd;
+        }
+        var type = InstructionType.fromLabel(text, begin, typeEnd);
+        var instruction = new Instruction(type);
 
+        // remaining tokens are the parameters, the first two being kept.
+        tokenizeOperands(text, begin, bodyEnd, type != null ? typeEnd : begin);
         try {
-            // first token is the instruction type
-            instruction.setType(InstructionType.fromLabel(parsed[0]));
-            // remaining tokens are the parameters.
-            mergeAddressParameters(
-                    Arrays.stream(parsed).dropWhile(str -> InstructionType.fromLabel(str) != null).toList()
-            ).forEach(
-                    param -> parameterList.add(Parameter.parse(lineIndex, param))
-            );
+            for (var index = 0; index < operandCount; ++index) {
+                var compound = operandCompounds[index];
+                var parameter = compound != null
+                        ? Parameter.parse(lineIndex, compound)
+                        : Parameter.parse(lineIndex, text, operandBounds[2 * index], operandBounds[2 * index + 1]);
+                if (index == 0) {
+                    instruction.setParam1(parameter);
+                } else if (index == 1) {
+                    instruction.setParam2(parameter);
+                }
+            }
         } catch (ParameterException exception) {
             throw new ParserException(exception);
         }
 
-        // add the parameters, if present
-        instruction.setParameters(Tuple.of(
-                parameterList.isEmpty() ? null : parameterList.get(0),
-                parameterList.size() <= 1 ? null : parameterList.get(1)
-        ));
-
-        instructions.add(instruction);
-        return this;
+        addInstruction(instruction, lineIndex);
     }
 
     /**
@@ -255,4 +883,21 @@ public class Parser {
         });
         return this;
     }
+
+    /**
+     * Method used to build a machine-independent image of the linked program, through {@link PackedProgram#image}.
+     * <br/>
+     * Unlike {@link Parser#resolveReferences}, the instructions are not modified: register references are stored
+     *   as register file indices, bound to the registers of a machine only when it runs the image. The same image
+     *   can then be shared by all machines running the program, instead of parsing it once per machine.
+     * @param registerNames the assembly names of the registers, in register file order, such as
+     *   {@link ro.uaic.swqual.proc.CentralProcessingUnit#REGISTER_NAMES}
+     * @return the packed image
+     * @throws UndefinedReferenceException if a {@link RegisterReference} does not name a register
+     * @throws ParameterException if the program is not linked, or holds registers of a specific machine
+     */
+    public PackedProgram image(List<String> registerNames) throws UndefinedReferenceException, ParameterException {
+        assert registerNames != null;
+        return PackedProgram.image(instructions, registerNames);
+    }
 }
@@ -0,0 +1,89 @@
+package ro.uaic.swqual;
+
+import java.util.Arrays;
+
+/**
+ * Represents the mapping between program counters and source lines of a parsed program. <br/>
+ * Both directions are dense int tables: one entry per instruction, and one entry per source line up to the last
+ *   line holding an instruction. Used by tools needing to locate instructions in the source, such as breakpoints,
+ *   profilers or the highlighting of the current instruction.
+ */
+public class SourceMap {
+    /** Value of lines that do not hold an instruction, in {@link SourceMap#lineToPc} */
+    public static final int NO_PROGRAM_COUNTER = -1;
+
+    /** Source line of each instruction, indexed by program counter */
+    private final int[] pcToLine;
+    /** Program counter of the first instruction of each line, indexed by line number */
+    private final int[] lineToPc;
+
+    /**
+     * Primary constructor
+     * @param pcToLine the source line of each instruction, indexed by program counter. Lines start at 1
+     */
+    public SourceMap(int[] pcToLine) {
+        assert pcToLine != null;
+        this.pcToLine = pcToLine;
+        var lastLine = 0;
+        for (var line : pcToLine) {
+            lastLine = Math.max(lastLine, line);
+        }
+        lineToPc = new int[lastLine + 1];
+        Arrays.fill(lineToPc, NO_PROGRAM_COUNTER);
+        // iterated backwards, so that lines holding several instructions map to the first
+        for (var pc = pcToLine.length - 1; pc >= 0; --pc) {
+            if (pcToLine[pc] >= 0) {
+                lineToPc[pcToLine[pc]] = pc;
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of mapped instructions
+     * @return the instruction count
+     */
+    public int size() {
+        return pcToLine.length;
+    }
+
+    /**
+     * Method used to get the source line of an instruction
+     * @param pc the program counter of the instruction
+     * @return the line number, or 0 if the program counter is outside the program
+     */
+    public int getLine(int pc) {
+        return pc >= 0 && pc < pcToLine.length ? pcToLine[pc] : 0;
+    }
+
+    /**
+     * Method used to get the first instruction of a source line
+     * @param line the line number
+     * @return the program counter, or {@link SourceMap#NO_PROGRAM_COUNTER} if the line holds no instruction
+     */
+    public int getProgramCounter(int line) {
+        return line >= 0 && line < lineToPc.length ? lineToPc[line] : NO_PROGRAM_COUNTER;
+    }
+
+    /**
+     * Method used to get the first instruction at or after a source line. Used to place breakpoints on lines
+     *   that hold no instruction, such as labels or comments.
+     * @param line the line number
+     * @return the program counter, or {@link SourceMap#NO_PROGRAM_COUNTER} if no instruction follows the line
+     */
+    public int getNextProgramCounter(int line) {
+        for (var current = Math.max(line, 0); current < lineToPc.length; ++current) {
+            if (lineToPc[current] != NO_PROGRAM_COUNTER) {
+                return lineToPc[current];
+            }
+        }
+        return NO_PROGRAM_COUNTER;
+    }
+
+    /**
+     * Getter for the source line of each instruction
+     * @return array of line numbers, indexed by program counter
+     */
+    public int[] getPcToLine() {
+        return Arrays.copyOf(pcToLine, pcToLine.length);
+    }
+}
@@ -79,7 +79,17 @@ public class RandomAccessMemory implements ReadableWriteableMemoryUnit {
     @Override
     public char read(MemoryLocation location) {
         assert location != null;
-        var address = location.getValue();
+        return readDirect(location.getValue());
+    }
+
+    /**
+     * Method used to read a value located at a given address, without going through a {@link MemoryLocation}. <br/>
+     * Behaves the same as {@link RandomAccessMemory#read}, raising {@link FlagRegister#SEG_FLAG} on out-of-range
+     *   addresses.
+     * @param address address of the value to read.
+     * @return read value.
+     */
+    public char readDirect(char address) {
         if (address + 1 >= bytes.length) {
             flagRegister.set(FlagRegister.SEG_FLAG);
             return 0;
@@ -105,7 +115,17 @@ public class RandomAccessMemory implements ReadableWriteableMemoryUnit {
     @Override
     public void write(MemoryLocation location, char value) {
         assert location != null;
-        var address = location.getValue();
+        writeDirect(location.getValue(), value);
+    }
+
+    /**
+     * Method used to write a value at a given address, without going through a {@link MemoryLocation}. <br/>
+     * Behaves the same as {@link RandomAccessMemory#write}, raising {@link FlagRegister#SEG_FLAG} on out-of-range
+     *   addresses.
+     * @param address address to store to.
+     * @param value value to store at address.
+     */
+    public void writeDirect(char address, char value) {
         if (address + 1 >= bytes.length) {
             flagRegister.set(FlagRegister.SEG_FLAG);
             return;
@@ -120,4 +140,18 @@ public class RandomAccessMemory implements ReadableWriteableMemoryUnit {
         bytes[address] = b0;
         bytes[address + 1] = b1;
     }
+
+    /**
+     * Method used to copy a range of raw bytes out of the memory, without going through the addressing logic. <br/>
+     * Bytes of the destination that fall outside the memory are left untouched, and no flag is raised.
+     * @param address address of the first byte to copy
+     * @param destination array to copy into. Its length is the number of bytes copied
+     */
+    public void copyTo(char address, byte[] destination) {
+        assert destination != null;
+        var length = Math.min(destination.length, bytes.length - address);
+        if (length > 0) {
+            System.arraycopy(bytes, address, destination, 0, length);
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package ro.uaic.swqual.mem;
+
+/**
+ * Represents a watched range of addresses. <br/>
+ * When registered to a {@link ro.uaic.swqual.proc.MemoryManagementUnit MemoryManagementUnit}, any read or write
+ *   that touches the range will notify the {@link Watchpoint.Listener Listener} received at construction. <br/>
+ * Since a read/write request accesses two bytes at once, an access at address A hits the range if either A or A + 1
+ *   is part of it.
+ */
+public class Watchpoint {
+    /** Kind of memory access a {@link Watchpoint} reacts to */
+    public enum Access {
+        /** Reacts to reads only */
+        READ,
+        /** Reacts to writes only */
+        WRITE,
+        /** Reacts to both reads and writes */
+        READ_WRITE
+    }
+
+    /** Interface called upon each access hitting a {@link Watchpoint} */
+    public interface Listener {
+        /**
+         * Method called upon each access hitting a {@link Watchpoint}
+         * @param watchpoint the watchpoint that was hit
+         * @param access the kind of access. Either {@link Access#READ} or {@link Access#WRITE}
+         * @param address the accessed address
+         * @param value the value read from or written to the address
+         */
+        void onHit(Watchpoint watchpoint, Access access, char address, char value);
+    }
+
+    /** First watched address, inclusive */
+    private final char begin;
+    /** Last watched address, inclusive */
+    private final char end;
+    /** Kind of access to react to */
+    private final Access access;
+    /** Listener to notify on hit */
+    private final Listener listener;
+
+    /**
+     * Primary constructor
+     * @param begin the first watched address
+     * @param size the number of watched bytes, starting from begin. Must not be 0
+     * @param access the kind of access to react to
+     * @param listener the listener to notify on hit
+     */
+    public Watchpoint(char begin, char size, Access access, Listener listener) {
+        assert size != 0;
+        assert access != null;
+        assert listener != null;
+        this.begin = begin;
+        // ranges going over the address space are truncated to its end
+        this.end = (char) Math.min(begin + size - 1, Character.MAX_VALUE);
+        this.access = access;
+        this.listener = listener;
+    }
+
+    /**
+     * Getter for the first watched address
+     * @return address value
+     */
+    public char getBegin() {
+        return begin;
+    }
+
+    /**
+     * Getter for the last watched address
+     * @return address value
+     */
+    public char getEnd() {
+        return end;
+    }
+
+    /**
+     * Getter for the kind of access the watchpoint reacts to
+     * @return the access kind
+     */
+    public Access getAccess() {
+        return access;
+    }
+
+    /**
+     * Method used to check whether a two-byte access at a given address touches the watched range.
+     * @param address the accessed address
+     * @return true if address or address + 1 is watched, false otherwise
+     */
+    public boolean covers(char address) {
+        return address <= end && address + 1 >= begin;
+    }
+
+    /**
+     * Method used to notify the listener of an access. Will only notify if the kind of access is watched.
+     * @param accessKind the kind of access. Either {@link Access#READ} or {@link Access#WRITE}
+     * @param address the accessed address
+     * @param value the value read from or written to the address
+     */
+    public void hit(Access accessKind, char address, char value) {
+        if (access == Access.READ_WRITE || access == accessKind) {
+            listener.onHit(this, accessKind, address, value);
+        }
+    }
+}
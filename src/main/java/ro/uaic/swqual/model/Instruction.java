@@ -19,6 +19,8 @@ public class Instruction {
     private Parameter param1;
     /** Second parameter */
     private Parameter param2;
+    /** Whether the status flags produced by the instruction can be observed. Not part of the instruction's identity */
+    private boolean flagsObserved = true;
 
     /**
      * Default constructor. Does not explicitly set any values beyond the default nulls.
@@ -124,6 +126,22 @@ public class Instruction {
         return Tuple.of(param1, param2);
     }
 
+    /**
+     * Getter for whether the status flags produced by the instruction can be observed
+     * @return false if the instruction can skip producing its status flags, true otherwise
+     */
+    public boolean areFlagsObserved() {
+        return flagsObserved;
+    }
+
+    /**
+     * Setter for whether the status flags produced by the instruction can be observed
+     * @param flagsObserved false to allow the instruction to skip producing its status flags
+     */
+    public void setFlagsObserved(boolean flagsObserved) {
+        this.flagsObserved = flagsObserved;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
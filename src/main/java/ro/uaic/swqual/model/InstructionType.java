@@ -69,6 +69,10 @@ public enum InstructionType {
     IPU_CALL("call"),
     /** ret; - allows returning from a function. Will acquire the return address from the stack value that was pushed at call. */
     IPU_RET("ret"),
+    /** hlt; - stops executing instructions until the processor is reset. Used to end a program. */
+    IPU_HLT("hlt"),
+    /** wfi; - waits for an interrupt, such as input arrival, before executing the next instruction. */
+    IPU_WFI("wfi"),
 
     /** Dummy Op, used in parsing jump point placeholders (labels). */
     LABEL("@");
@@ -78,6 +82,13 @@ public enum InstructionType {
 
     /** Map linking Assembly code representation to actual InstructionType values */
     private static final Map<String, InstructionType> BY_LABEL = new HashMap<>();
+    /** Length of the longest label. Longer representations are rejected without a look-up */
+    private static final int MAX_LABEL_LENGTH = 4;
+    /** Open-addressed table of the {@link InstructionType#labelKey label keys}, 0 marking free slots. Used to look up
+     *  labels within a string */
+    private static final long[] LABEL_KEYS = new long[1 << 6];
+    /** Value of each slot of {@link InstructionType#LABEL_KEYS} */
+    private static final InstructionType[] BY_LABEL_KEY = new InstructionType[LABEL_KEYS.length];
 
     /**
      * Method used to validate whether an instruction is correspondent to a range of instructions - [begin, end].
@@ -124,7 +135,17 @@ public enum InstructionType {
      *   {@link ro.uaic.swqual.proc.InstructionProcessingUnit InstructionProcessingUnit} instruction, false otherwise
      */
     public static boolean isIpuInstruction(InstructionType instruction) {
-        return isInRange(instruction, IPU_JMP, IPU_RET);
+        return isInRange(instruction, IPU_JMP, IPU_WFI);
+    }
+
+    /**
+     * Method used to verify whether received {@link InstructionType} corresponds to a conditional jump, reading the
+     *   status flags, such as {@link InstructionType#IPU_JEQ jeq}.
+     * @param instruction currently checked instruction type
+     * @return true if the instruction in question is a conditional jump, false otherwise
+     */
+    public static boolean isConditionalJump(InstructionType instruction) {
+        return isInRange(instruction, IPU_JEQ, IPU_JGE);
     }
 
     /**
@@ -145,10 +166,74 @@ public enum InstructionType {
         return BY_LABEL.get(label);
     }
 
+    /**
+     * Method used to acquire the {@link InstructionType} from an assembly code representation found within a string,
+     *   without copying it. Same as {@link InstructionType#fromLabel(String)} over the substring between begin and end.
+     * @param text string holding the assembly code representation
+     * @param begin index of the first character of the representation
+     * @param end index after the last character of the representation
+     * @return identified {@link InstructionType}, null if none found.
+     */
+    public static InstructionType fromLabel(String text, int begin, int end) {
+        assert text != null;
+        var key = labelKey(text, begin, end);
+        if (key == 0) {
+            return null;
+        }
+        var mask = LABEL_KEYS.length - 1;
+        for (var slot = slotOf(key); LABEL_KEYS[slot] != 0; slot = (slot + 1) & mask) {
+            if (LABEL_KEYS[slot] == key) {
+                return BY_LABEL_KEY[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method used to pack a possible label into a single number, compared at once instead of character by character.
+     *   Labels are short and ascii, so each character takes a byte after a leading 1 bit, which keeps the length.
+     * @param text string holding the label
+     * @param begin index of the first character of the label
+     * @param end index after the last character of the label
+     * @return the key of the label, 0 if it cannot be a label
+     */
+    private static long labelKey(String text, int begin, int end) {
+        if (begin == end || end - begin > MAX_LABEL_LENGTH) {
+            return 0;
+        }
+        var key = 1L;
+        for (var index = begin; index < end; ++index) {
+            var character = text.charAt(index);
+            if (character > 0x7F) {
+                return 0;
+            }
+            key = key << 8 | character;
+        }
+        return key;
+    }
+
+    /**
+     * Method used to compute the first slot of a label key in {@link InstructionType#LABEL_KEYS}
+     * @param key the {@link InstructionType#labelKey label key}
+     * @return the slot index
+     */
+    private static int slotOf(long key) {
+        // the top 6 bits of a multiplicative hash, one value per slot
+        return (int) (key * 0x9E3779B97F4A7C15L >>> (Long.SIZE - 6));
+    }
+
     static {
         // Initialize the map linking assembly code representations to InstructionType values.
         for (var type : InstructionType.values()) {
             BY_LABEL.put(type.label, type);
+            var key = labelKey(type.label, 0, type.label.length());
+            assert key != 0;
+            var slot = slotOf(key);
+            while (LABEL_KEYS[slot] != 0) {
+                slot = (slot + 1) & (LABEL_KEYS.length - 1);
+            }
+            LABEL_KEYS[slot] = key;
+            BY_LABEL_KEY[slot] = type;
         }
     }
 }
@@ -0,0 +1,368 @@
+package ro.uaic.swqual.model;
+
+import ro.uaic.swqual.exception.ParameterException;
+import ro.uaic.swqual.exception.ValueException;
+import ro.uaic.swqual.model.operands.AbsoluteMemoryLocation;
+import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.Parameter;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
+import ro.uaic.swqual.util.Tuple;
+import ro.uaic.swqual.util.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/*
+ * Implementation detail - instruction encoding
+ *   An instruction is a sequence of 16-bit words: a header, followed by the payload of each operand.
+ *   Header:  [ opcode : 8 ][ kind of operand 1 : 4 ][ kind of operand 2 : 4 ]
+ *     The opcode is the InstructionType ordinal + 1, so that zeroed memory never decodes as a valid instruction.
+ *   Operand payloads, by kind:
+ *     NONE              -
+ *     REGISTER          register index
+ *     CONSTANT          value
+ *     CONSTANT_ADDRESS  address                                  ([0x200])
+ *     REGISTER_ADDRESS  register index                           ([r0])
+ *     RELATIVE_ADDRESS  term count | register term mask << 8,    ([r0 + 4 - r1])
+ *                       subtraction relation mask,
+ *                       one word per term (register index or value)
+ *   Registers are encoded as their index in a register file, given when encoding and decoding.
+ */
+
+/**
+ * Utility class providing the 16-bit machine code encoding of {@link Instruction Instructions}.
+ */
+public class MachineCode {
+    /** Maximum number of terms of an encodable address expression */
+    public static final int MAX_ADDRESS_TERMS = 8;
+    /** Maximum number of words an instruction is encoded on */
+    public static final int MAX_INSTRUCTION_WORDS = 1 + 2 * (2 + MAX_ADDRESS_TERMS);
+
+    /** Kind of an absent operand */
+    private static final int KIND_NONE = 0;
+    /** Kind of a {@link Register} operand */
+    private static final int KIND_REGISTER = 1;
+    /** Kind of a {@link Constant} operand */
+    private static final int KIND_CONSTANT = 2;
+    /** Kind of a {@link ConstantMemoryLocation} operand */
+    private static final int KIND_CONSTANT_ADDRESS = 3;
+    /** Kind of an {@link AbsoluteMemoryLocation} operand over a {@link Register} */
+    private static final int KIND_REGISTER_ADDRESS = 4;
+    /** Kind of a {@link RelativeMemoryLocation} operand */
+    private static final int KIND_RELATIVE_ADDRESS = 5;
+
+    /** Marker for operands that cannot be decoded */
+    private static final Parameter INVALID = new Constant((char) 0);
+
+    /**
+     * Private constructor ensuring that this remains a utility class
+     */
+    private MachineCode() {}
+
+    /**
+     * Method used to compute the number of words an instruction is encoded on
+     * @param instruction the instruction
+     * @return number of words
+     * @throws ParameterException if the instruction is not encodable
+     */
+    public static int length(Instruction instruction) throws ParameterException {
+        assert instruction != null;
+        return 1 + operandLength(instruction.getParam1()) + operandLength(instruction.getParam2());
+    }
+
+    /**
+     * Method used to compute the number of payload words of an operand
+     * @param parameter the operand
+     * @return number of words
+     * @throws ParameterException if the operand is not encodable
+     */
+    private static int operandLength(Parameter parameter) throws ParameterException {
+        return switch (kindOf(parameter)) {
+            case KIND_NONE -> 0;
+            case KIND_RELATIVE_ADDRESS -> 2 + ((RelativeMemoryLocation) parameter).getParameters().size();
+            default -> 1;
+        };
+    }
+
+    /**
+     * Method used to identify the encoding kind of an operand
+     * @param parameter the operand
+     * @return the operand kind
+     * @throws ParameterException if the operand is not encodable
+     */
+    private static int kindOf(Parameter parameter) throws ParameterException {
+        return switch (parameter) {
+            case null -> KIND_NONE;
+            case Constant ignored -> KIND_CONSTANT;
+            case ConstantMemoryLocation ignored -> KIND_CONSTANT_ADDRESS;
+            case AbsoluteMemoryLocation location when location.getLocation() instanceof Register ->
+                    KIND_REGISTER_ADDRESS;
+            case AbsoluteMemoryLocation location when location.getLocation() instanceof Constant ->
+                    KIND_CONSTANT_ADDRESS;
+            case RelativeMemoryLocation location -> {
+                var terms = location.getParameters();
+                if (terms.size() > MAX_ADDRESS_TERMS) {
+                    throw new ParameterException("Cannot encode address expression of " + terms.size() + " terms");
+                }
+                for (var term : terms) {
+                    if (!(term instanceof Register) && !(term instanceof Constant)) {
+                        throw new ParameterException("Cannot encode address expression term: " + term);
+                    }
+                }
+                yield KIND_RELATIVE_ADDRESS;
+            }
+            case Register ignored -> KIND_REGISTER;
+            default -> throw new ParameterException("Cannot encode parameter: " + parameter);
+        };
+    }
+
+    /**
+     * Method used to get the index of a register in a register file
+     * @param registerFile the register file
+     * @param register the register
+     * @return the register index
+     * @throws ParameterException if the register is not part of the register file
+     */
+    private static char registerIndex(List<Register> registerFile, Parameter register) throws ParameterException {
+        // by identity: Register::equals compares values
+        for (var index = 0; index < registerFile.size(); ++index) {
+            if (registerFile.get(index) == register) {
+                return (char) index;
+            }
+        }
+        throw new ParameterException("Cannot encode register not part of the register file: " + register);
+    }
+
+    /**
+     * Method used to encode an instruction
+     * @param instruction the instruction to encode
+     * @param registerFile the registers that can be referenced, by index
+     * @param destination where to encode to
+     * @param offset index of the first word to write in the destination
+     * @return number of words written
+     * @throws ParameterException if the instruction is not encodable
+     */
+    public static int encode(Instruction instruction, List<Register> registerFile, char[] destination, int offset)
+            throws ParameterException {
+        assert instruction != null;
+        assert registerFile != null;
+        assert destination != null;
+        var type = instruction.getType();
+        if (type == null || type == InstructionType.LABEL) {
+            throw new ParameterException("Cannot encode instruction: " + instruction);
+        }
+
+        var param1 = instruction.getParam1();
+        var param2 = instruction.getParam2();
+        destination[offset] = (char) ((type.ordinal() + 1) << 8 | kindOf(param1) << 4 | kindOf(param2));
+        var position = offset + 1;
+        position = encodeOperand(param1, registerFile, destination, position);
+        position = encodeOperand(param2, registerFile, destination, position);
+        return position - offset;
+    }
+
+    /**
+     * Method used to encode the payload of an operand
+     * @param parameter the operand
+     * @param registerFile the registers that can be referenced, by index
+     * @param destination where to encode to
+     * @param position index of the first word to write in the destination
+     * @return index following the last written word
+     * @throws ParameterException if the operand is not encodable
+     */
+    private static int encodeOperand(Parameter parameter, List<Register> registerFile, char[] destination, int position)
+            throws ParameterException {
+        switch (kindOf(parameter)) {
+            case KIND_NONE -> {
+                return position;
+            }
+            case KIND_REGISTER -> destination[position] = registerIndex(registerFile, parameter);
+            case KIND_REGISTER_ADDRESS -> destination[position] =
+                    registerIndex(registerFile, ((AbsoluteMemoryLocation) parameter).getLocation());
+            case KIND_RELATIVE_ADDRESS -> {
+                var location = (RelativeMemoryLocation) parameter;
+                var terms = location.getParameters();
+                var relations = location.getRelations();
+                var registerMask = 0;
+                var subtractionMask = 0;
+                for (var index = 0; index < terms.size(); ++index) {
+                    var term = terms.get(index);
+                    if (term instanceof Register) {
+                        registerMask |= 1 << index;
+                        destination[position + 2 + index] = registerIndex(registerFile, term);
+                    } else {
+                        destination[position + 2 + index] = term.getValue();
+                    }
+                }
+                for (var index = 0; index < relations.size(); ++index) {
+                    var relation = relations.get(index);
+                    if (relation == RelativeMemoryLocation.SUBTRACTION) {
+                        subtractionMask |= 1 << index;
+                    } else if (relation != RelativeMemoryLocation.ADDITION) {
+                        throw new ParameterException("Cannot encode unknown address expression relation");
+                    }
+                }
+                destination[position] = (char) (terms.size() | registerMask << 8);
+                destination[position + 1] = (char) subtractionMask;
+                return position + 2 + terms.size();
+            }
+            // constants and constant addresses
+            default -> destination[position] = parameter.getValue();
+        }
+        return position + 1;
+    }
+
+    /**
+     * Method used to encode a linked program to be placed at a given address. <br/>
+     * Jump and call targets are instruction indices in a linked program. Constant targets are relocated to the
+     *   address of the instruction they refer to. The received instructions are not modified.
+     * @param program the linked program
+     * @param base the address the program will be placed at
+     * @param registerFile the registers that can be referenced, by index
+     * @return the encoded program
+     * @throws ParameterException if an instruction is not encodable, or if a jump target is outside the program
+     */
+    public static char[] encode(List<Instruction> program, char base, List<Register> registerFile)
+            throws ParameterException {
+        assert program != null;
+        assert registerFile != null;
+        // offsets[i] = word offset of instruction i. offsets[size] = program length, for labels at the end
+        var offsets = new int[program.size() + 1];
+        for (var index = 0; index < program.size(); ++index) {
+            offsets[index + 1] = offsets[index] + length(program.get(index));
+        }
+
+        var words = new char[offsets[program.size()]];
+        for (var index = 0; index < program.size(); ++index) {
+            var instruction = program.get(index);
+            if (InstructionType.isIpuInstruction(instruction.getType())
+                    && instruction.getParam1() instanceof Constant target) {
+                if (target.getValue() >= offsets.length) {
+                    throw new ParameterException("Jump target outside of program: " + (int) target.getValue());
+                }
+                var relocated = new Instruction(instruction.getType());
+                relocated.setParameters(Tuple.of(
+                        new Constant((char) (base + offsets[target.getValue()] * 2)),
+                        instruction.getParam2()
+                ));
+                instruction = relocated;
+            }
+            encode(instruction, registerFile, words, offsets[index]);
+        }
+        return words;
+    }
+
+    /**
+     * Method used to decode an instruction
+     * @param memory provides the word at a given address
+     * @param address the address of the instruction
+     * @param registerFile the registers that can be referenced, by index
+     * @return the decoded instruction and the number of words it was encoded on, or null if the words at the address
+     *   are not a valid instruction
+     */
+    public static Tuple2<Instruction, Integer> decode(IntUnaryOperator memory, char address, List<Register> registerFile) {
+        assert memory != null;
+        assert registerFile != null;
+        var types = InstructionType.values();
+        var header = memory.applyAsInt(address);
+        var opcode = header >>> 8;
+        if (opcode == 0 || opcode > types.length || types[opcode - 1] == InstructionType.LABEL) {
+            return null;
+        }
+
+        var instruction = new Instruction(types[opcode - 1]);
+        var words = new int[] {1};
+        var param1 = decodeOperand(header >>> 4 & 0xF, memory, address, words, registerFile);
+        var param2 = decodeOperand(header & 0xF, memory, address, words, registerFile);
+        if (param1 == INVALID || param2 == INVALID) {
+            return null;
+        }
+        instruction.setParameters(Tuple.of(param1, param2));
+        return Tuple.of(instruction, words[0]);
+    }
+
+    /**
+     * Method used to decode the payload of an operand
+     * @param kind the operand kind
+     * @param memory provides the word at a given address
+     * @param address the address of the instruction
+     * @param words number of words decoded so far, updated with the words of the operand
+     * @param registerFile the registers that can be referenced, by index
+     * @return the decoded operand, null if absent, or {@link MachineCode#INVALID} if not decodable
+     */
+    private static Parameter decodeOperand(
+            int kind,
+            IntUnaryOperator memory,
+            char address,
+            int[] words,
+            List<Register> registerFile
+    ) {
+        IntUnaryOperator word = index -> memory.applyAsInt((char) (address + (words[0] + index) * 2));
+        IntUnaryOperator register = index -> index < registerFile.size() ? index : -1;
+        Parameter decoded;
+        switch (kind) {
+            case KIND_NONE -> {
+                return null;
+            }
+            case KIND_REGISTER, KIND_REGISTER_ADDRESS -> {
+                var index = register.applyAsInt(word.applyAsInt(0));
+                if (index < 0) {
+                    return INVALID;
+                }
+                decoded = kind == KIND_REGISTER
+                        ? registerFile.get(index)
+                        : new AbsoluteMemoryLocation(registerFile.get(index));
+                words[0] += 1;
+            }
+            case KIND_CONSTANT -> {
+                decoded = new Constant((char) word.applyAsInt(0));
+                words[0] += 1;
+            }
+            case KIND_CONSTANT_ADDRESS -> {
+                decoded = new ConstantMemoryLocation((char) word.applyAsInt(0));
+                words[0] += 1;
+            }
+            case KIND_RELATIVE_ADDRESS -> {
+                var descriptor = word.applyAsInt(0);
+                var count = descriptor & 0xFF;
+                var registerMask = descriptor >>> 8;
+                var subtractionMask = word.applyAsInt(1);
+                if (count == 0 || count > MAX_ADDRESS_TERMS) {
+                    return INVALID;
+                }
+
+                var terms = new ArrayList<Parameter>(count);
+                var relations = new ArrayList<BinaryOperator<Character>>(count - 1);
+                for (var index = 0; index < count; ++index) {
+                    var value = word.applyAsInt(2 + index);
+                    if ((registerMask & 1 << index) == 0) {
+                        terms.add(new Constant((char) value));
+                    } else if (register.applyAsInt(value) < 0) {
+                        return INVALID;
+                    } else {
+                        terms.add(registerFile.get(value));
+                    }
+                    if (index > 0) {
+                        relations.add((subtractionMask & 1 << (index - 1)) == 0
+                                ? RelativeMemoryLocation.ADDITION
+                                : RelativeMemoryLocation.SUBTRACTION);
+                    }
+                }
+                try {
+                    decoded = new RelativeMemoryLocation(terms, relations);
+                } catch (ValueException e) {
+                    return INVALID;
+                }
+                words[0] += 2 + count;
+            }
+            default -> {
+                return INVALID;
+            }
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,437 @@
+package ro.uaic.swqual.model;
+
+import ro.uaic.swqual.exception.ParameterException;
+import ro.uaic.swqual.exception.ValueException;
+import ro.uaic.swqual.exception.parser.UndefinedReferenceException;
+import ro.uaic.swqual.model.operands.AbsoluteMemoryLocation;
+import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.DisplacedMemoryLocation;
+import ro.uaic.swqual.model.operands.Parameter;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.model.operands.RegisterReference;
+import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
+import ro.uaic.swqual.util.Tuple;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BinaryOperator;
+import java.util.function.ToIntFunction;
+
+/*
+ * Implementation detail - packed layout
+ *   Instruction i is stored across parallel arrays:
+ *     opcodes[i]               InstructionType ordinal
+ *     kinds[2 * i + operand]   kind of each operand
+ *     payloads[2 * i + operand] payload of each operand, by kind:
+ *       NONE               -
+ *       REGISTER           register index
+ *       CONSTANT           value
+ *       CONSTANT_ADDRESS   address                                     ([0x200])
+ *       REGISTER_ADDRESS   register index                              ([r0])
+ *       DISPLACED_ADDRESS  register index | displacement << 16         ([r0 + 4], as compiled)
+ *       EXPRESSION_ADDRESS expression id: offset in the expression pool ([r0 + 4 - r1])
+ *   Expressions follow the address expression layout of MachineCode:
+ *     term count | register term mask << 8, subtraction relation mask, one word per term (register index or value)
+ *   Registers are stored as their index in a register file, given when packing and when reading operands.
+ *   Images are packed with register references resolved by name instead, to the index of the name in a list of
+ *   register names. Any register file following the same order can then run them.
+ */
+
+/**
+ * Immutable struct-of-arrays representation of a linked program. <br/>
+ * Instead of a list of {@link Instruction} objects, each pointing to its {@link Parameter} objects, a packed program
+ *   holds the opcode, operand kinds and operand payloads of all instructions in parallel primitive arrays.
+ *   Registers are referred to by their index in a register file. <br/>
+ * Large programs are held in a fraction of the memory of their instruction lists. Machines run them through
+ *   {@link ro.uaic.swqual.proc.InstructionProcessingUnit#setPackedProgram}, which only decodes and prepares the
+ *   instructions that are executed. The {@link PackedProgram#asList view} decodes the instructions on demand, to
+ *   inspect the program. Operands can also be read in place through {@link PackedProgram#getKind},
+ *   {@link PackedProgram#getPayload} and {@link PackedProgram#address}. <br/>
+ * As registers are only referred to by index, a packed program is not tied to the machine it was packed for.
+ *   An {@link PackedProgram#image image} packed straight from the parsed program, without resolving its register
+ *   references, can be shared read-only by any number of machines, each running it against its own register file.
+ */
+public final class PackedProgram {
+    /** Kind of an absent operand */
+    public static final int KIND_NONE = 0;
+    /** Kind of a {@link Register} operand */
+    public static final int KIND_REGISTER = 1;
+    /** Kind of a {@link Constant} operand */
+    public static final int KIND_CONSTANT = 2;
+    /** Kind of a {@link ConstantMemoryLocation} operand */
+    public static final int KIND_CONSTANT_ADDRESS = 3;
+    /** Kind of an {@link AbsoluteMemoryLocation} operand over a {@link Register} */
+    public static final int KIND_REGISTER_ADDRESS = 4;
+    /** Kind of a {@link DisplacedMemoryLocation} operand */
+    public static final int KIND_DISPLACED_ADDRESS = 5;
+    /** Kind of a {@link RelativeMemoryLocation} operand */
+    public static final int KIND_EXPRESSION_ADDRESS = 6;
+
+    /** Instruction types, indexed by the packed opcodes */
+    private static final InstructionType[] TYPES = InstructionType.values();
+
+    /** {@link InstructionType} ordinal of each instruction */
+    private final short[] opcodes;
+    /** Kind of each operand, two per instruction */
+    private final byte[] kinds;
+    /** Payload of each operand, two per instruction */
+    private final int[] payloads;
+    /** Address expressions, referred to by their offset */
+    private final char[] expressions;
+
+    /**
+     * Private constructor. Packed programs are obtained through {@link PackedProgram#pack}.
+     */
+    private PackedProgram(short[] opcodes, byte[] kinds, int[] payloads, char[] expressions) {
+        this.opcodes = opcodes;
+        this.kinds = kinds;
+        this.payloads = payloads;
+        this.expressions = expressions;
+    }
+
+    /**
+     * Method used to pack a linked program. The received instructions are not modified.
+     * @param program the linked and resolved program
+     * @param registerFile the registers that can be referenced, by index
+     * @return the packed program
+     * @throws ParameterException if an instruction holds an operand that cannot be packed, such as an unresolved
+     *   {@link RegisterReference}, or a register not part of the register file
+     */
+    public static PackedProgram pack(List<Instruction> program, List<Register> registerFile)
+            throws ParameterException {
+        assert program != null;
+        assert registerFile != null;
+        // by identity: Register::equals compares values
+        var indices = new IdentityHashMap<Register, Integer>();
+        for (var index = 0; index < registerFile.size(); ++index) {
+            indices.putIfAbsent(registerFile.get(index), index);
+        }
+        return pack(program, register -> {
+            var index = register instanceof Register ? indices.get(register) : null;
+            if (index == null) {
+                throw new ParameterException("Cannot pack register not part of the register file: " + register);
+            }
+            return index;
+        });
+    }
+
+    /**
+     * Method used to pack a machine-independent image of a linked program, whose register references are not
+     *   resolved. The received instructions are not modified, so the same parse can be packed again or resolved. <br/>
+     * The image can be run by any machine whose register file follows the order of the given names, such as the
+     *   {@link ro.uaic.swqual.proc.CentralProcessingUnit#REGISTER_NAMES CentralProcessingUnit} register file, through
+     *   {@link ro.uaic.swqual.proc.InstructionProcessingUnit#setPackedProgram}.
+     * @param program the linked program, holding {@link RegisterReference RegisterReferences}
+     * @param registerNames the assembly names of the registers, in register file order
+     * @return the packed image
+     * @throws UndefinedReferenceException if a {@link RegisterReference} does not name a register
+     * @throws ParameterException if an instruction holds an operand that cannot be packed, such as a {@link Register}
+     *   of a specific machine
+     */
+    public static PackedProgram image(List<Instruction> program, List<String> registerNames)
+            throws UndefinedReferenceException, ParameterException {
+        assert program != null;
+        assert registerNames != null;
+        var indices = new HashMap<String, Integer>();
+        for (var index = 0; index < registerNames.size(); ++index) {
+            indices.putIfAbsent(registerNames.get(index), index);
+        }
+        return pack(program, register -> {
+            if (!(register instanceof RegisterReference reference)) {
+                throw new ParameterException("Cannot pack machine register in an image: " + register);
+            }
+            var index = indices.get(reference.getName());
+            if (index == null) {
+                throw new UndefinedReferenceException(reference);
+            }
+            return index;
+        });
+    }
+
+    /**
+     * Method used to check whether an operand refers to a register, resolved or not
+     * @param parameter the operand
+     * @return true for {@link Register} and {@link RegisterReference} operands
+     */
+    private static boolean isRegister(Parameter parameter) {
+        return parameter instanceof Register || parameter instanceof RegisterReference;
+    }
+
+    /**
+     * Method used to pack a linked program
+     * @param program the linked program
+     * @param registerIndex provides the register file index of a {@link Register} or {@link RegisterReference},
+     *   throwing if it cannot be referenced
+     * @return the packed program
+     * @throws ParameterException if an instruction holds an operand that cannot be packed
+     */
+    private static PackedProgram pack(List<Instruction> program, ToIntFunction<Parameter> registerIndex)
+            throws ParameterException {
+        var size = program.size();
+        var opcodes = new short[size];
+        var kinds = new byte[2 * size];
+        var payloads = new int[2 * size];
+        var expressions = new char[16];
+        var expressionsLength = 0;
+        for (var pc = 0; pc < size; ++pc) {
+            var instruction = program.get(pc);
+            var type = instruction.getType();
+            if (type == null || type == InstructionType.LABEL) {
+                throw new ParameterException("Cannot pack instruction: " + instruction);
+            }
+            opcodes[pc] = (short) type.ordinal();
+            var parameters = new Parameter[] {instruction.getParam1(), instruction.getParam2()};
+            for (var operand = 0; operand < 2; ++operand) {
+                var slot = 2 * pc + operand;
+                var parameter = parameters[operand];
+                switch (parameter) {
+                    case null -> kinds[slot] = KIND_NONE;
+                    case Parameter register when isRegister(register) -> {
+                        kinds[slot] = KIND_REGISTER;
+                        payloads[slot] = registerIndex.applyAsInt(register);
+                    }
+                    case Constant constant -> {
+                        kinds[slot] = KIND_CONSTANT;
+                        payloads[slot] = constant.getValue();
+                    }
+                    case ConstantMemoryLocation location -> {
+                        kinds[slot] = KIND_CONSTANT_ADDRESS;
+                        payloads[slot] = location.getValue();
+                    }
+                    case AbsoluteMemoryLocation location when isRegister(location.getLocation()) -> {
+                        kinds[slot] = KIND_REGISTER_ADDRESS;
+                        payloads[slot] = registerIndex.applyAsInt(location.getLocation());
+                    }
+                    case AbsoluteMemoryLocation location when location.getLocation() instanceof Constant constant -> {
+                        kinds[slot] = KIND_CONSTANT_ADDRESS;
+                        payloads[slot] = constant.getValue();
+                    }
+                    case DisplacedMemoryLocation location -> {
+                        kinds[slot] = KIND_DISPLACED_ADDRESS;
+                        payloads[slot] = registerIndex.applyAsInt(location.getBase()) | location.getDisplacement() << 16;
+                    }
+                    case RelativeMemoryLocation location -> {
+                        var length = 2 + location.getParameters().size();
+                        if (expressionsLength + length > expressions.length) {
+                            var capacity = Math.max(2 * expressions.length, expressionsLength + length);
+                            expressions = Arrays.copyOf(expressions, capacity);
+                        }
+                        packExpression(location, registerIndex, expressions, expressionsLength);
+                        kinds[slot] = KIND_EXPRESSION_ADDRESS;
+                        payloads[slot] = expressionsLength;
+                        expressionsLength += length;
+                    }
+                    default -> throw new ParameterException("Cannot pack parameter: " + parameter);
+                }
+            }
+        }
+        return new PackedProgram(opcodes, kinds, payloads, Arrays.copyOf(expressions, expressionsLength));
+    }
+
+    /**
+     * Method used to pack an address expression into the expression pool
+     * @param location the address expression
+     * @param registerIndex provides the register file index of a register term
+     * @param destination the expression pool
+     * @param position offset of the expression in the pool
+     * @throws ParameterException if the expression has too many terms, terms other than registers and constants, or
+     *   relations other than {@link RelativeMemoryLocation#ADDITION} and {@link RelativeMemoryLocation#SUBTRACTION}
+     */
+    private static void packExpression(
+            RelativeMemoryLocation location,
+            ToIntFunction<Parameter> registerIndex,
+            char[] destination,
+            int position
+    ) throws ParameterException {
+        var terms = location.getParameters();
+        var relations = location.getRelations();
+        if (terms.size() > MachineCode.MAX_ADDRESS_TERMS) {
+            throw new ParameterException("Cannot pack address expression of " + terms.size() + " terms");
+        }
+        var registerMask = 0;
+        var subtractionMask = 0;
+        for (var index = 0; index < terms.size(); ++index) {
+            switch (terms.get(index)) {
+                case Parameter register when isRegister(register) -> {
+                    registerMask |= 1 << index;
+                    destination[position + 2 + index] = (char) registerIndex.applyAsInt(register);
+                }
+                case Constant constant -> destination[position + 2 + index] = constant.getValue();
+                default -> throw new ParameterException("Cannot pack address expression term: " + terms.get(index));
+            }
+        }
+        for (var index = 0; index < relations.size(); ++index) {
+            var relation = relations.get(index);
+            if (relation == RelativeMemoryLocation.SUBTRACTION) {
+                subtractionMask |= 1 << index;
+            } else if (relation != RelativeMemoryLocation.ADDITION) {
+                throw new ParameterException("Cannot pack unknown address expression relation");
+            }
+        }
+        destination[position] = (char) (terms.size() | registerMask << 8);
+        destination[position + 1] = (char) subtractionMask;
+    }
+
+    /**
+     * Getter for the number of instructions
+     * @return the program size
+     */
+    public int size() {
+        return opcodes.length;
+    }
+
+    /**
+     * Getter for the type of an instruction
+     * @param pc the index of the instruction
+     * @return the instruction type
+     */
+    public InstructionType getType(int pc) {
+        return TYPES[opcodes[pc]];
+    }
+
+    /**
+     * Getter for the kind of an operand
+     * @param pc the index of the instruction
+     * @param operand 0 for the first operand, 1 for the second
+     * @return one of the KIND_ constants
+     */
+    public int getKind(int pc, int operand) {
+        return kinds[2 * pc + operand];
+    }
+
+    /**
+     * Getter for the payload of an operand
+     * @param pc the index of the instruction
+     * @param operand 0 for the first operand, 1 for the second
+     * @return the payload, as described by the kind of the operand
+     */
+    public int getPayload(int pc, int operand) {
+        return payloads[2 * pc + operand];
+    }
+
+    /**
+     * Method used to compute the address of a memory operand from the current values of the registers
+     * @param pc the index of the instruction
+     * @param operand 0 for the first operand, 1 for the second. Expected to be of an address kind
+     * @param registerFile the registers referenced by index
+     * @return the address
+     */
+    public char address(int pc, int operand, List<Register> registerFile) {
+        var payload = payloads[2 * pc + operand];
+        return switch (kinds[2 * pc + operand]) {
+            case KIND_CONSTANT_ADDRESS -> (char) payload;
+            case KIND_REGISTER_ADDRESS -> registerFile.get(payload).getValue();
+            case KIND_DISPLACED_ADDRESS -> (char) (registerFile.get(payload & 0xFFFF).getValue() + (payload >>> 16));
+            case KIND_EXPRESSION_ADDRESS -> {
+                var count = expressions[payload] & 0xFF;
+                var registerMask = expressions[payload] >>> 8;
+                var subtractionMask = expressions[payload + 1];
+                var address = 0;
+                for (var index = 0; index < count; ++index) {
+                    int term = expressions[payload + 2 + index];
+                    if ((registerMask & 1 << index) != 0) {
+                        term = registerFile.get(term).getValue();
+                    }
+                    address = index > 0 && (subtractionMask & 1 << (index - 1)) != 0 ? address - term : address + term;
+                }
+                yield (char) address;
+            }
+            default -> throw new ParameterException("Operand is not a memory location");
+        };
+    }
+
+    /**
+     * Method used to decode an operand into a new {@link Parameter}
+     * @param pc the index of the instruction
+     * @param operand 0 for the first operand, 1 for the second
+     * @param registerFile the registers referenced by index
+     * @return the decoded operand, or null if absent
+     */
+    private Parameter decodeOperand(int pc, int operand, List<Register> registerFile) {
+        var payload = payloads[2 * pc + operand];
+        return switch (kinds[2 * pc + operand]) {
+            case KIND_REGISTER -> registerFile.get(payload);
+            case KIND_CONSTANT -> new Constant((char) payload);
+            case KIND_CONSTANT_ADDRESS -> new ConstantMemoryLocation((char) payload);
+            case KIND_REGISTER_ADDRESS -> new AbsoluteMemoryLocation(registerFile.get(payload));
+            case KIND_DISPLACED_ADDRESS ->
+                    new DisplacedMemoryLocation(registerFile.get(payload & 0xFFFF), (char) (payload >>> 16));
+            case KIND_EXPRESSION_ADDRESS -> {
+                var count = expressions[payload] & 0xFF;
+                var registerMask = expressions[payload] >>> 8;
+                var subtractionMask = expressions[payload + 1];
+                var terms = new ArrayList<Parameter>(count);
+                var relations = new ArrayList<BinaryOperator<Character>>(count - 1);
+                for (var index = 0; index < count; ++index) {
+                    var value = expressions[payload + 2 + index];
+                    terms.add((registerMask & 1 << index) == 0 ? new Constant(value) : registerFile.get(value));
+                    if (index > 0) {
+                        relations.add((subtractionMask & 1 << (index - 1)) == 0
+                                ? RelativeMemoryLocation.ADDITION
+                                : RelativeMemoryLocation.SUBTRACTION);
+                    }
+                }
+                try {
+                    yield new RelativeMemoryLocation(terms, relations);
+                } catch (ValueException exception) {
+                    // terms and relations are packed from a valid expression
+                    throw new ParameterException(exception);
+                }
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Method used to decode an instruction into a new {@link Instruction}
+     * @param pc the index of the instruction
+     * @param registerFile the registers referenced by index
+     * @return the decoded instruction
+     */
+    public Instruction getInstruction(int pc, List<Register> registerFile) {
+        assert registerFile != null;
+        var instruction = new Instruction(getType(pc));
+        instruction.setParameters(Tuple.of(decodeOperand(pc, 0, registerFile), decodeOperand(pc, 1, registerFile)));
+        return instruction;
+    }
+
+    /**
+     * Method used to view the program as a list of {@link Instruction Instructions}. <br/>
+     * The view is read-only, and each access decodes a new instruction. Modifying the decoded instructions does not
+     *   change the packed program.
+     * @param registerFile the registers referenced by index
+     * @return the list view
+     */
+    public List<Instruction> asList(List<Register> registerFile) {
+        assert registerFile != null;
+        return new InstructionView(registerFile);
+    }
+
+    /**
+     * Read-only list view of the packed program, decoding instructions on access
+     */
+    private final class InstructionView extends AbstractList<Instruction> implements RandomAccess {
+        /** The registers referenced by index */
+        private final List<Register> registerFile;
+
+        private InstructionView(List<Register> registerFile) {
+            this.registerFile = registerFile;
+        }
+
+        @Override
+        public Instruction get(int index) {
+            return getInstruction(index, registerFile);
+        }
+
+        @Override
+        public int size() {
+            return PackedProgram.this.size();
+        }
+    }
+}
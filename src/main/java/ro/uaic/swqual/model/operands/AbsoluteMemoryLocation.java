@@ -28,6 +28,14 @@ public class AbsoluteMemoryLocation extends MemoryLocation {
         return location.getValue();
     }
 
+    /**
+     * Getter for the parameter providing the address
+     * @return the retained parameter
+     */
+    public Parameter getLocation() {
+        return location;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
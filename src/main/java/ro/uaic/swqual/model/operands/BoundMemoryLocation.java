@@ -0,0 +1,54 @@
+package ro.uaic.swqual.model.operands;
+
+import ro.uaic.swqual.proc.LocatingUnit;
+
+/**
+ * Represents a memory value at a constant address, bound to the memory map of a machine. <br/>
+ * The address is located once through the root {@link LocatingUnit} of the machine, on first access, and the
+ *   resulting {@link ResolvedMemory} is kept as a direct read/write handle. Locating units return the handle
+ *   instead of going through the whole locate chain again. <br/>
+ * The handle is located again on the first access after any change of the memory map of the machine, as tracked
+ *   by the {@link LocatingUnit#getMemoryMapVersion version} of the root unit. Addresses that do not locate to a {@link ResolvedMemory} are never
+ *   bound, so their errors are raised on each access, as for a {@link ConstantMemoryLocation}.
+ */
+public class BoundMemoryLocation extends ConstantMemoryLocation {
+    /** Unit the address is located through. All units are expected to locate through it without an offset */
+    private final LocatingUnit root;
+    /** Memory map version the handle was located at. Not a valid version until first located */
+    private int boundVersion = -1;
+    /** Located handle. Null if the address did not locate to a {@link ResolvedMemory} */
+    private Parameter handle;
+
+    /**
+     * Primary constructor
+     * @param value address to resolve the memory to
+     * @param root the unit to locate the address through
+     */
+    public BoundMemoryLocation(char value, LocatingUnit root) {
+        super(value);
+        assert root != null;
+        this.root = root;
+    }
+
+    /**
+     * Method used to locate the handle through the root unit
+     * @param version the current memory map version
+     */
+    private void bind(int version) {
+        var located = root.locate(new ConstantMemoryLocation(value));
+        handle = located instanceof ResolvedMemory ? located : null;
+        boundVersion = version;
+    }
+
+    /**
+     * Getter for the direct read/write handle of the address, locating it again if the memory map changed.
+     * @return the handle, or null if the address does not locate to a {@link ResolvedMemory}
+     */
+    public Parameter getHandle() {
+        var version = root.getMemoryMapVersion();
+        if (version != boundVersion) {
+            bind(version);
+        }
+        return handle;
+    }
+}
@@ -0,0 +1,81 @@
+package ro.uaic.swqual.model.operands;
+
+import java.util.Map;
+
+/**
+ * Represents a memory value at the address held by a base {@link Register}, plus a constant displacement,
+ *   such as '[sp - 4]' or '[0x600 + r6]'. <br/>
+ * Compiled form of a {@link RelativeMemoryLocation}, see {@link RelativeMemoryLocation#compile}.
+ *   Evaluated with a single register read and addition.
+ */
+public class DisplacedMemoryLocation extends MemoryLocation {
+    /** Register holding the base address */
+    private final Register base;
+    /** Displacement added to the base address, wrapping around on 16 bits */
+    private final char displacement;
+
+    /**
+     * Primary constructor
+     * @param base register holding the base address
+     * @param displacement displacement added to the base address
+     */
+    public DisplacedMemoryLocation(Register base, char displacement) {
+        assert base != null;
+        this.base = base;
+        this.displacement = displacement;
+    }
+
+    /**
+     * Getter for the base register
+     * @return reference to the register
+     */
+    public Register getBase() {
+        return base;
+    }
+
+    /**
+     * Getter for the displacement
+     * @return the displacement added to the base address
+     */
+    public char getDisplacement() {
+        return displacement;
+    }
+
+    /**
+     * Getter for address.
+     * @return the base register value plus the displacement.
+     */
+    @Override
+    public char getValue() {
+        return (char) (base.getValue() + displacement);
+    }
+
+    /**
+     * Method overridden as base requirement. Does not do anything, as the base is already a {@link Register}.
+     * @param registerMap unused
+     */
+    @Override
+    public void resolveInnerReferences(Map<String, Register> registerMap) {
+        // nothing to resolve
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DisplacedMemoryLocation that = (DisplacedMemoryLocation) o;
+        return base == that.base && displacement == that.displacement;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + base + " + 0x" + Integer.toString(displacement, 16) + "] (=0x"
+                + Integer.toString(getValue(), 16) + ")";
+    }
+
+    // HashCode is intentionally NOT overridden here.
+    // Reason: take a memory location for example:
+    //  [r0] -> AbsMemLoc over Register
+    //  If Register value changes, hashCode would change if overridden
+    //  We do not want this.
+}
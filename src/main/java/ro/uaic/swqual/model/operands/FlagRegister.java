@@ -6,7 +6,11 @@ import ro.uaic.swqual.util.Tuple2;
 import java.util.stream.Stream;
 
 /**
- * Extended register type, allowing for enabling/disabling specific bits (as flags).
+ * Extended register type, allowing for enabling/disabling specific bits (as flags). <br/>
+ * Status flags of ALU operations are evaluated lazily by default: only the kind of the last operation and its
+ *   result or operands are recorded, and {@link FlagRegister#ZERO_FLAG}, {@link FlagRegister#OVERFLOW_FLAG},
+ *   {@link FlagRegister#EQUAL_FLAG} and {@link FlagRegister#LESS_FLAG} are materialized when read.
+ *   Most results are never read before the register is cleared, so most are never materialized.
  */
 public class FlagRegister extends Register {
     /**
@@ -69,6 +73,126 @@ public class FlagRegister extends Register {
             OVERFLOW_FLAG | ZERO_FLAG | DIV_ZERO_FLAG | EQUAL_FLAG | LESS_FLAG | ILLEGAL_FLAG | SEG_FLAG
                     | MULTISTATE_FLAG;
 
+    /* Flags computed from recorded operations, materialized on read */
+    private static final char LAZY_BITMASK = OVERFLOW_FLAG | ZERO_FLAG | EQUAL_FLAG | LESS_FLAG;
+
+    /** Value of {@link FlagRegister#lastOperation} when no operation is pending materialization */
+    private static final int NO_OPERATION = 0;
+    /** Operation recorded through {@link FlagRegister#setArithmeticResult} */
+    private static final int ARITHMETIC_OPERATION = 1;
+    /** Operation recorded through {@link FlagRegister#setComparison} */
+    private static final int COMPARE_OPERATION = 2;
+
+    /** Kind of the last recorded operation, pending materialization */
+    private int lastOperation = NO_OPERATION;
+    /** Compound result of the last arithmetic operation, or operands of the last comparison */
+    private int lastOperands;
+    /** Whether recorded operations are materialized on read, or right away */
+    private boolean lazyEvaluation = true;
+
+    /**
+     * Method used to compute the status flags of the compound result of an ALU operation. <br/>
+     *   - {@link FlagRegister#ZERO_FLAG} if the result is a pure zero <br/>
+     *   - {@link FlagRegister#OVERFLOW_FLAG} if the higher 16 bits are not zero
+     * @param compound the result in the lower 16 bits, and the overflow in the higher 16 bits
+     * @return the flags of the result
+     */
+    public static char arithmeticFlags(int compound) {
+        if (compound == 0) {
+            return ZERO_FLAG;
+        }
+        return (compound & 0xFFFF0000) != 0 ? OVERFLOW_FLAG : 0;
+    }
+
+    /**
+     * Method used to compute the status flags of a comparison. <br/>
+     *   - {@link FlagRegister#EQUAL_FLAG} if the values are equal <br/>
+     *   - {@link FlagRegister#LESS_FLAG} if the first value is less than the second
+     * @param s0 the first compared value
+     * @param s1 the second compared value
+     * @return the flags of the comparison
+     */
+    public static char comparisonFlags(char s0, char s1) {
+        if (s0 == s1) {
+            return EQUAL_FLAG;
+        }
+        return s0 < s1 ? LESS_FLAG : 0;
+    }
+
+    /**
+     * Method used to record the result of an arithmetic or logic operation. Raises the flags given by
+     *   {@link FlagRegister#arithmeticFlags}, once read.
+     * @param compound the result in the lower 16 bits, and the overflow in the higher 16 bits
+     */
+    public void setArithmeticResult(int compound) {
+        record(ARITHMETIC_OPERATION, compound);
+    }
+
+    /**
+     * Method used to record a comparison. Raises the flags given by {@link FlagRegister#comparisonFlags}, once read.
+     * @param s0 the first compared value
+     * @param s1 the second compared value
+     */
+    public void setComparison(char s0, char s1) {
+        record(COMPARE_OPERATION, s0 << 16 | s1);
+    }
+
+    /**
+     * Method used to record an operation, materializing the previously recorded one, as flags are accumulated.
+     * @param operation the kind of the operation
+     * @param operands the compound result or operands of the operation
+     */
+    private void record(int operation, int operands) {
+        materialize();
+        lastOperation = operation;
+        lastOperands = operands;
+        if (!lazyEvaluation) {
+            materialize();
+        }
+    }
+
+    /**
+     * Method used to raise the flags of the last recorded operation, if any.
+     */
+    private void materialize() {
+        switch (lastOperation) {
+            case ARITHMETIC_OPERATION -> value |= arithmeticFlags(lastOperands);
+            case COMPARE_OPERATION -> value |= comparisonFlags((char) (lastOperands >>> 16), (char) lastOperands);
+            default -> { return; }
+        }
+        lastOperation = NO_OPERATION;
+    }
+
+    /**
+     * Method used to enable or disable the lazy evaluation of the operation flags. Observed values are the same
+     *   in both modes.
+     * @param lazyEvaluation true to materialize flags on read, false to materialize them when recorded
+     */
+    public void setLazyEvaluation(boolean lazyEvaluation) {
+        materialize();
+        this.lazyEvaluation = lazyEvaluation;
+    }
+
+    /**
+     * Getter for the flag values, materializing the flags of the last recorded operation
+     * @return the flag values
+     */
+    @Override
+    public char getValue() {
+        materialize();
+        return value;
+    }
+
+    /**
+     * Value setter, discarding the last recorded operation
+     * @param value new value to be set
+     */
+    @Override
+    public void setValue(char value) {
+        lastOperation = NO_OPERATION;
+        this.value = value;
+    }
+
     /**
      * Asserting method for validating that the current value contains only valid flags.
      */
@@ -107,7 +231,20 @@ public class FlagRegister extends Register {
      * @return true if flag is set, false otherwise
      */
     public boolean isSet(char flag) {
-        return (getValue() & flag) != 0;
+        // error flags are never recorded lazily, so checking them does not need a materialization
+        if ((flag & LAZY_BITMASK) != 0) {
+            materialize();
+        }
+        return (value & flag) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof FlagRegister other) {
+            materialize();
+            other.materialize();
+        }
+        return super.equals(o);
     }
 
     @Override
@@ -0,0 +1,79 @@
+package ro.uaic.swqual.model.operands;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Represents a memory value at an address computed as a sum of {@link Register} values and a constant
+ *   displacement, such as '[r0 + 50 - r3]'. <br/>
+ * Compiled form of a {@link RelativeMemoryLocation}, see {@link RelativeMemoryLocation#compile}.
+ *   Evaluated over register arrays, without boxing.
+ */
+public class LinearMemoryLocation extends MemoryLocation {
+    /** Registers added to the address */
+    private final Register[] added;
+    /** Registers subtracted from the address */
+    private final Register[] subtracted;
+    /** Displacement added to the address, wrapping around on 16 bits */
+    private final char displacement;
+
+    /**
+     * Primary constructor
+     * @param added registers added to the address
+     * @param subtracted registers subtracted from the address
+     * @param displacement displacement added to the address
+     */
+    public LinearMemoryLocation(Register[] added, Register[] subtracted, char displacement) {
+        assert added != null;
+        assert subtracted != null;
+        this.added = added;
+        this.subtracted = subtracted;
+        this.displacement = displacement;
+    }
+
+    /**
+     * Getter for address. Will evaluate the sum.
+     * @return the address currently resolved from the registers.
+     */
+    @Override
+    public char getValue() {
+        var address = (int) displacement;
+        for (var register : added) {
+            address += register.getValue();
+        }
+        for (var register : subtracted) {
+            address -= register.getValue();
+        }
+        return (char) address;
+    }
+
+    /**
+     * Method overridden as base requirement. Does not do anything, as all terms are already {@link Register Registers}.
+     * @param registerMap unused
+     */
+    @Override
+    public void resolveInnerReferences(Map<String, Register> registerMap) {
+        // nothing to resolve
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LinearMemoryLocation that = (LinearMemoryLocation) o;
+        return displacement == that.displacement
+                && Arrays.equals(added, that.added, (a, b) -> a == b ? 0 : 1)
+                && Arrays.equals(subtracted, that.subtracted, (a, b) -> a == b ? 0 : 1);
+    }
+
+    @Override
+    public String toString() {
+        return "[<linear-location>] (=0x" + Integer.toString(getValue(), 16) + ")";
+    }
+
+    // HashCode is intentionally NOT overridden here.
+    // Reason: take a memory location for example:
+    //  [r0] -> AbsMemLoc over Register
+    //  If Register value changes, hashCode would change if overridden
+    //  We do not want this.
+}
@@ -5,29 +5,20 @@ import ro.uaic.swqual.exception.ValueException;
 
 import java.util.ArrayList;
 import java.util.function.BinaryOperator;
-import java.util.regex.Pattern;
 
 /**
  * Represents an abstract value that can be part of an {@link ro.uaic.swqual.model.Instruction Instruction}
  */
 public abstract class Parameter {
-    /** {@link Pattern} matching a base 2 integral constant */
-    private static final Pattern CONSTANT_BASE_2_PATTERN = Pattern.compile("#?0[bB]([0-1]+)");
-    /** {@link Pattern} matching a base 8 integral constant */
-    private static final Pattern CONSTANT_BASE_8_PATTERN = Pattern.compile("#?0([0-7]+)");
-    /** {@link Pattern} matching a base 10 integral constant */
-    private static final Pattern CONSTANT_BASE_10_PATTERN = Pattern.compile("#?(0|[1-9]\\d*)");
-    /** {@link Pattern} matching a base 16 integral constant */
-    private static final Pattern CONSTANT_BASE_16_PATTERN = Pattern.compile("#?0[xX]([0-9a-fA-F]+)");
-    /** {@link Pattern} matching an identifier */
-    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[_a-zA-Z]\\w*");
-
     /**
      * Base value for any parameter. These should be unsigned short by rule (16 bit unsigned).
      * As it happens, char = unsigned short.
      **/
     protected char value;
 
+    /** Names of the last parsed identifiers, by hash. See {@link Parameter#identifier} */
+    private static final String[] IDENTIFIERS = new String[64];
+
     /**
      * Default value getter. Will return default value unless overridden
      * @return {@link Parameter#value}
@@ -64,75 +55,188 @@ public abstract class Parameter {
     }
 
     /**
-     * Method used to attempt to create a {@link Constant} from a {@link String}.
-     * @param constantStr where to extract from
+     * Method used to attempt to create a {@link Constant} from a range of a {@link String}.
+     * Accepted forms, all with an optional '#' prefix: 0b... / 0B... (base 2), 0... (base 8), decimal (base 10)
+     *   and 0x... / 0X... (base 16).
+     * @param text where to extract from
+     * @param begin index of the first character of the constant
+     * @param end index after the last character of the constant
      * @return Newly created {@link Constant}, if parse resulted in a valid {@link Constant}. Otherwise, null
+     * @throws NumberFormatException if the value does not fit in an int, same as {@link Integer#parseInt}.
      */
-    private static Constant identifyConstant(String constantStr) {
-        var b2Match = CONSTANT_BASE_2_PATTERN.matcher(constantStr);
-        var b8Match = CONSTANT_BASE_8_PATTERN.matcher(constantStr);
-        var b10Match = CONSTANT_BASE_10_PATTERN.matcher(constantStr);
-        var b16Match = CONSTANT_BASE_16_PATTERN.matcher(constantStr);
+    private static Constant identifyConstant(String text, int begin, int end) {
+        var first = begin < end && text.charAt(begin) == '#' ? begin + 1 : begin;
+        var length = end - first;
+        if (length <= 0) {
+            return null;
+        }
 
-        if (b2Match.matches()) {
-            return new Constant((char) Integer.parseInt(b2Match.group(1), 2));
+        var lead = text.charAt(first);
+        if (lead != '0') {
+            // base 10, without leading zeroes
+            return lead >= '1' && lead <= '9' ? parseDigits(text, first, end, 10) : null;
         }
 
-        if (b8Match.matches()) {
-            return new Constant((char) Integer.parseInt(b8Match.group(1), 8));
+        if (length == 1) {
+            return new Constant((char) 0);
         }
 
-        if (b10Match.matches()) {
-            return new Constant((char) Integer.parseInt(b10Match.group(1), 10));
+        return switch (text.charAt(first + 1)) {
+            case 'b', 'B' -> parseDigits(text, first + 2, end, 2);
+            case 'x', 'X' -> parseDigits(text, first + 2, end, 16);
+            default -> parseDigits(text, first + 1, end, 8);
+        };
+    }
+
+    /**
+     * Method used to convert a range of characters of a {@link String} to a {@link Constant} of a given base.
+     * @param text where to extract from
+     * @param begin index of the first digit
+     * @param end index after the last digit
+     * @param radix base of the digits
+     * @return Newly created {@link Constant} if there is at least one digit and all characters are valid digits.
+     *   Otherwise, null
+     * @throws NumberFormatException if the value does not fit in an int, same as {@link Integer#parseInt}.
+     */
+    private static Constant parseDigits(String text, int begin, int end, int radix) {
+        if (begin >= end) {
+            return null;
         }
 
-        if (b16Match.matches()) {
-            return new Constant((char) Integer.parseInt(b16Match.group(1), 16));
+        var value = 0L;
+        var overflow = false;
+        for (var index = begin; index < end; ++index) {
+            // Character.digit would also accept non-ascii digits, which are not valid here
+            var character = text.charAt(index);
+            int digit;
+            if (character >= '0' && character <= '9') {
+                digit = character - '0';
+            } else if (character >= 'a' && character <= 'f') {
+                digit = character - 'a' + 10;
+            } else if (character >= 'A' && character <= 'F') {
+                digit = character - 'A' + 10;
+            } else {
+                return null;
+            }
+
+            if (digit >= radix) {
+                return null;
+            }
+            value = value * radix + digit;
+            if (value > Integer.MAX_VALUE) {
+                // keep validating the remaining characters: an invalid one means this is not a constant at all
+                overflow = true;
+                value = 0;
+            }
+        }
+
+        if (overflow) {
+            // Rare path, only used to raise the same exception as Integer.parseInt
+            return new Constant((char) Integer.parseInt(text.substring(begin, end), radix));
+        }
+        return new Constant((char) value);
+    }
+
+    /**
+     * Method used to get the name of an identifier ([_a-zA-Z][_a-zA-Z0-9]*) found in a range of a {@link String},
+     *   sharing the {@link String} of the last identifier parsed with the same hash, if equal. <br/>
+     * Programs only use a handful of register names, so their references share a few strings instead of each
+     *   holding a copy. The table is not synchronized: entries are immutable strings, so parses running on several
+     *   threads can only replace each other's entries.
+     * @param text where to extract from
+     * @param begin index of the first character of the range
+     * @param end index after the last character of the range
+     * @return the identifier name, null if the range is not an identifier
+     */
+    private static String identifier(String text, int begin, int end) {
+        if (begin >= end) {
+            return null;
+        }
+
+        // validated and hashed in the same pass
+        var hash = 0;
+        for (var index = begin; index < end; ++index) {
+            var character = text.charAt(index);
+            if (character != '_'
+                    && !(character >= 'a' && character <= 'z')
+                    && !(character >= 'A' && character <= 'Z')
+                    && !(index > begin && character >= '0' && character <= '9')) {
+                return null;
+            }
+            hash = 31 * hash + character;
+        }
+        var slot = (hash ^ hash >>> 16) & (IDENTIFIERS.length - 1);
+        var cached = IDENTIFIERS[slot];
+        if (cached != null && cached.length() == end - begin) {
+            // compared in place, as identifiers are too short for String#startsWith to pay off
+            var index = 0;
+            while (index < cached.length() && cached.charAt(index) == text.charAt(begin + index)) {
+                ++index;
+            }
+            if (index == cached.length()) {
+                return cached;
+            }
         }
 
-        return null;
+        var name = text.substring(begin, end);
+        IDENTIFIERS[slot] = name;
+        return name;
     }
 
     /**
-     * Method used to parse a {@link MemoryLocation} from a {@link String}.
+     * Method used to parse a {@link MemoryLocation} from a range of a {@link String}.
      * @param lineIndex line location (optional)
      * @param text where to extract from
+     * @param begin index of the first character of the address expression, inside the brackets
+     * @param end index after the last character of the address expression, inside the brackets
      * @return Newly created {@link MemoryLocation} of appropriate instance, if parse resulted in a concrete
      * {@link MemoryLocation}. Otherwise, null.
      * @throws ParameterException when cannot resolve a {@link MemoryLocation}
      */
-    private static Parameter parseAddress(int lineIndex, String text) throws ParameterException {
+    private static Parameter parseAddress(int lineIndex, String text, int begin, int end) throws ParameterException {
         // Memory Locations are parameters and relations:
         // [r0 + 24 - r1] is:
         // - paramList: r0, 24, r1.
         // - relList: sum, sub.
-        var paramList = new ArrayList<Parameter>();
-        var relList = new ArrayList<BinaryOperator<Character>>();
-
-        // TODO: come up with a better way. This only covers +-, and cannot be expanded with operator precedence or braces.
-        // Preserve delimiters, so split with them included
-        for (var token : text.splitWithDelimiters("[+-]", Integer.MAX_VALUE)) {
-            token = token.strip();
-            // Mutate operator to appropriate BinaryOperator interface
-            // If no appropriate operator matches, it is a parameter, not a relation.
-            if (token.equals("+")) {
-                relList.add((a, b) -> (char)(a + b));
-            } else if (token.equals("-")) {
-                relList.add((a, b) -> (char)(a - b));
-            } else {
-                paramList.add(parse(lineIndex, token));
+        var relationCount = 0;
+        for (var index = begin; index < end; ++index) {
+            var character = text.charAt(index);
+            if (character == '+' || character == '-') {
+                ++relationCount;
             }
         }
 
         // If there are no relations, this either a constant ([0x200]) or an absolute ([r0]) memory location
-        if (paramList.size() == 1) {
-            var param = paramList.getFirst();
+        if (relationCount == 0) {
+            var param = parseTerm(lineIndex, text, begin, end);
             if (param instanceof Constant con) {
                 return new ConstantMemoryLocation(con.getValue());
             }
             return new AbsoluteMemoryLocation(param);
         }
 
+        var paramList = new ArrayList<Parameter>(relationCount + 1);
+        var relList = new ArrayList<BinaryOperator<Character>>(relationCount);
+
+        // TODO: come up with a better way. This only covers +-, and cannot be expanded with operator precedence or braces.
+        var tokenStart = begin;
+        for (var index = begin; index <= end; ++index) {
+            var atEnd = index == end;
+            var character = atEnd ? 0 : text.charAt(index);
+            if (!atEnd && character != '+' && character != '-') {
+                continue;
+            }
+
+            paramList.add(parseTerm(lineIndex, text, tokenStart, index));
+            // Mutate operator to appropriate BinaryOperator interface
+            if (character == '+') {
+                relList.add(RelativeMemoryLocation.ADDITION);
+            } else if (character == '-') {
+                relList.add(RelativeMemoryLocation.SUBTRACTION);
+            }
+            tokenStart = index + 1;
+        }
+
         // Otherwise, it must be a relative memory location ([r0 + 0x200]).
         try {
             return new RelativeMemoryLocation(paramList, relList);
@@ -142,6 +246,25 @@ public abstract class Parameter {
         }
     }
 
+    /**
+     * Method used to parse a term of an address expression, stripped the same way as {@link String#strip}.
+     * @param lineIndex line location (optional)
+     * @param text where to extract from
+     * @param begin index of the first character of the term, before stripping
+     * @param end index after the last character of the term, before stripping
+     * @return Newly created {@link Parameter} of the term
+     * @throws ParameterException when cannot resolve a {@link Parameter}
+     */
+    private static Parameter parseTerm(int lineIndex, String text, int begin, int end) throws ParameterException {
+        while (begin < end && Character.isWhitespace(text.charAt(begin))) {
+            ++begin;
+        }
+        while (end > begin && Character.isWhitespace(text.charAt(end - 1))) {
+            --end;
+        }
+        return parse(lineIndex, text, begin, end);
+    }
+
     /**
      * Method used to attempt to create a {@link Parameter} from a {@link String} of the appropriate instance.
      * It also allows tracking the line index of the string (for any {@link Parameter} objects making use of the line index).
@@ -152,32 +275,48 @@ public abstract class Parameter {
      */
     public static Parameter parse(int lineIdx, String string) throws ParameterException {
         assert string != null;
+        return parse(lineIdx, string, 0, string.length());
+    }
+
+    /**
+     * Method used to attempt to create a {@link Parameter} out of a range of a {@link String}, without copying the
+     *   range. Same as {@link Parameter#parse(int, String)} over the substring between begin and end.
+     * @param lineIdx current line index in a multi-line context.
+     * @param text where to extract a from
+     * @param begin index of the first character of the parameter
+     * @param end index after the last character of the parameter
+     * @return Newly created {@link Parameter}, if parse resulted in a valid {@link Parameter}. Otherwise, null
+     * @throws ParameterException when we cannot create any {@link Parameter} object from the given range
+     */
+    public static Parameter parse(int lineIdx, String text, int begin, int end) throws ParameterException {
+        assert text != null;
+        assert 0 <= begin && begin <= end && end <= text.length();
         // Identify Parameter extractor.
 
         // If [...], attempt to parse MemoryLocation
-        if (string.startsWith("[") && string.endsWith("]")) {
-            return parseAddress(lineIdx, string.substring(1, string.length() - 1));
+        if (begin < end && text.charAt(begin) == '[' && text.charAt(end - 1) == ']') {
+            return parseAddress(lineIdx, text, begin + 1, end - 1);
         }
 
         // If matching identifier, create a RegisterReference parameter
-        var idMatcher = IDENTIFIER_PATTERN.matcher(string);
-        if (idMatcher.matches()) {
-            return new RegisterReference(lineIdx, idMatcher.group(0));
+        var identifier = identifier(text, begin, end);
+        if (identifier != null) {
+            return new RegisterReference(lineIdx, identifier);
         }
 
         // If starting with label identifier, create a Label parameter
-        if (string.startsWith("@")) {
-            return new Label(string);
+        if (begin < end && text.charAt(begin) == '@') {
+            return new Label(text.substring(begin, end));
         }
 
         // Otherwise, attempt to locate a Constant.
-        var asConstant = identifyConstant(string);
+        var asConstant = identifyConstant(text, begin, end);
         if (asConstant != null) {
             return asConstant;
         }
 
         // If nothing matches, throw
-        throw new ParameterException("Unknown parameter: " + string);
+        throw new ParameterException("Unknown parameter: " + text.substring(begin, end));
     }
 
     /**
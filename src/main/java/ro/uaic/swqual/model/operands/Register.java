@@ -25,7 +25,7 @@ public class Register extends Parameter {
         if (value < Character.MIN_VALUE || value > Character.MAX_VALUE) {
             throw new ValueException("Constant value '" + value + "' out of range for register range");
         }
-        this.value = (char) value;
+        setValue((char) value);
     }
 
     @Override
@@ -2,6 +2,7 @@ package ro.uaic.swqual.model.operands;
 
 import ro.uaic.swqual.exception.ValueException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -11,6 +12,11 @@ import java.util.function.BinaryOperator;
  * Represents a memory value at an address identified by an expression. Will evaluate the expression when the address is requested.
  */
 public class RelativeMemoryLocation extends MemoryLocation {
+    /** Relation adding two values, wrapping around on 16 bits */
+    public static final BinaryOperator<Character> ADDITION = (a, b) -> (char)(a + b);
+    /** Relation subtracting two values, wrapping around on 16 bits */
+    public static final BinaryOperator<Character> SUBTRACTION = (a, b) -> (char)(a - b);
+
     /** The parameters involved in the expression */
     private List<Parameter> parameters;
     /** The relations between the parameters */
@@ -38,6 +44,22 @@ public class RelativeMemoryLocation extends MemoryLocation {
         }
     }
 
+    /**
+     * Getter for the parameters involved in the expression
+     * @return the parameter list
+     */
+    public List<Parameter> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Getter for the relations between the parameters
+     * @return the relation list
+     */
+    public List<BinaryOperator<Character>> getRelations() {
+        return relations;
+    }
+
     /**
      * Getter for address. Will evaluate expression
      * @return the address currently resolved from the expression.
@@ -51,6 +73,50 @@ public class RelativeMemoryLocation extends MemoryLocation {
         return resolved;
     }
 
+    /**
+     * Method used to compile the expression into a primitive form, once all its terms are resolved. <br/>
+     * Constants are folded into a single displacement. The result is: <br/>
+     *  - a {@link ConstantMemoryLocation}, if no register is involved, i.e. '[0x600 + 4]' <br/>
+     *  - a {@link DisplacedMemoryLocation}, if a single register is added, i.e. '[sp - 4]' <br/>
+     *  - a {@link LinearMemoryLocation} otherwise, i.e. '[r0 + 50 - r3]' <br/>
+     * Expressions using relations other than {@link RelativeMemoryLocation#ADDITION} and
+     *   {@link RelativeMemoryLocation#SUBTRACTION}, or terms other than {@link Constant Constants} and
+     *   {@link Register Registers}, are not compiled.
+     * @return the compiled location, or this location if it cannot be compiled.
+     */
+    public MemoryLocation compile() {
+        var added = new ArrayList<Register>();
+        var subtracted = new ArrayList<Register>();
+        var displacement = 0;
+        for (var index = 0; index < parameters.size(); ++index) {
+            var relation = index == 0 ? ADDITION : relations.get(index - 1);
+            if (relation != ADDITION && relation != SUBTRACTION) {
+                return this;
+            }
+
+            var term = parameters.get(index);
+            if (term instanceof Constant constant) {
+                displacement += relation == ADDITION ? constant.getValue() : -constant.getValue();
+            } else if (term instanceof Register register) {
+                (relation == ADDITION ? added : subtracted).add(register);
+            } else {
+                return this;
+            }
+        }
+
+        if (added.isEmpty() && subtracted.isEmpty()) {
+            return new ConstantMemoryLocation((char) displacement);
+        }
+        if (added.size() == 1 && subtracted.isEmpty()) {
+            return new DisplacedMemoryLocation(added.getFirst(), (char) displacement);
+        }
+        return new LinearMemoryLocation(
+                added.toArray(Register[]::new),
+                subtracted.toArray(Register[]::new),
+                (char) displacement
+        );
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
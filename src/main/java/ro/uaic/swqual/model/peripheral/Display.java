@@ -57,6 +57,16 @@ public class Display implements WriteablePeripheral {
         // do nothing
     }
 
+    /**
+     * Getter for the clock divider of the peripheral. Not ticked by a
+     *   {@link ro.uaic.swqual.proc.ClockScheduler ClockScheduler}, as there is nothing to do on ticks.
+     * @return 0
+     */
+    @Override
+    public long getClockPeriod() {
+        return 0;
+    }
+
     /**
      * Getter for actual displayed text. Should be used outside any processing unit.
      * @return Displayed contents.
@@ -10,6 +10,9 @@ import java.util.concurrent.LinkedTransferQueue;
  * later via {@link Keyboard#read} later. Each read call pops from the queue.
  */
 public class Keyboard extends LinkedTransferQueue<Character> implements ReadablePeripheral {
+    /** Callback run after each {@link Keyboard#press}, on the pressing thread. Null if none. */
+    private transient volatile Runnable pressListener;
+
     /**
      * Method used to read the character at the front of the queue.
      * @param location unused, present for interface reasons. Keyboard is a single-address peripheral.
@@ -33,6 +36,16 @@ public class Keyboard extends LinkedTransferQueue<Character> implements Readable
         // do nothing
     }
 
+    /**
+     * Getter for the clock divider of the peripheral. Not ticked by a
+     *   {@link ro.uaic.swqual.proc.ClockScheduler ClockScheduler}, as there is nothing to do on ticks.
+     * @return 0
+     */
+    @Override
+    public long getClockPeriod() {
+        return 0;
+    }
+
     /**
      * Method used to push a character to the queue. Should be used outside any processing unit.
      * @param character value to be pushed.
@@ -40,5 +53,18 @@ public class Keyboard extends LinkedTransferQueue<Character> implements Readable
     public void press(Character character) {
         assert character != null;
         this.put(character);
+        var listener = pressListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Setter for the callback run after each {@link Keyboard#press}, such as waking up a processor waiting for
+     *   input. Run on the thread pressing the key, so it is expected to only signal the processor.
+     * @param pressListener the callback. Null to remove it.
+     */
+    public void setPressListener(Runnable pressListener) {
+        this.pressListener = pressListener;
     }
 }
@@ -0,0 +1,163 @@
+package ro.uaic.swqual.proc;
+
+import ro.uaic.swqual.model.operands.FlagRegister;
+
+/**
+ * Primitive kernels of the {@link ArithmeticLogicUnit} operations, one per opcode. <br/>
+ * Each kernel computes over primitive values only, returning a compound int result: <br/>
+ *   - the lower 16 bits hold the result of the operation <br/>
+ *   - the higher 16 bits hold the overflow of the operation, or the remainder for divisions <br/>
+ * The status flags of a compound result are obtained through {@link ArithmeticLogicKernels#flags}.
+ */
+public final class ArithmeticLogicKernels {
+    private ArithmeticLogicKernels() {}
+
+    /**
+     * Method used to extract the result of an operation from its compound result
+     * @param compound the compound result
+     * @return the lower 16 bits
+     */
+    public static char result(int compound) {
+        return (char) compound;
+    }
+
+    /**
+     * Method used to extract the overflow of an operation from its compound result
+     * @param compound the compound result
+     * @return the higher 16 bits
+     */
+    public static char overflow(int compound) {
+        return (char) (compound >>> 16);
+    }
+
+    /**
+     * Method used to compute the status flags of a compound result, as given by
+     *   {@link FlagRegister#arithmeticFlags}.
+     * @param compound the compound result
+     * @return the flags to raise
+     */
+    public static char flags(int compound) {
+        return FlagRegister.arithmeticFlags(compound);
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_ADD add}
+     * @param s0 the first operand
+     * @param s1 the second operand
+     * @return the compound result
+     */
+    public static int add(char s0, char s1) {
+        return s0 + s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_SUB sub}
+     * @param s0 the first operand
+     * @param s1 the second operand
+     * @return the compound result
+     */
+    public static int sub(char s0, char s1) {
+        return s0 - s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_UMUL umul}
+     * @param s0 the first operand
+     * @param s1 the second operand
+     * @return the compound result
+     */
+    public static int umul(char s0, char s1) {
+        return s0 * s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_SMUL smul}. Operands are read as signed values.
+     * @param s0 the first operand
+     * @param s1 the second operand
+     * @return the compound result
+     */
+    public static int smul(char s0, char s1) {
+        return (short) s0 * (short) s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_UDIV udiv}
+     * @param s0 the dividend
+     * @param s1 the divisor, not zero
+     * @return the compound result, holding the remainder as overflow
+     */
+    public static int udiv(char s0, char s1) {
+        return (s0 % s1) << 16 | s0 / s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_SDIV sdiv}. Operands are read as signed values.
+     * @param s0 the dividend
+     * @param s1 the divisor, not zero
+     * @return the compound result, holding the remainder as overflow
+     */
+    public static int sdiv(char s0, char s1) {
+        // halves are composed bitwise, as negative halves would otherwise spill over each other
+        return (short) s0 % (short) s1 << 16 | (short) s0 / (short) s1 & 0xFFFF;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_OR or}
+     * @param s0 the first operand
+     * @param s1 the second operand
+     * @return the compound result
+     */
+    public static int or(char s0, char s1) {
+        return s0 | s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_AND and}
+     * @param s0 the first operand
+     * @param s1 the second operand
+     * @return the compound result
+     */
+    public static int and(char s0, char s1) {
+        return s0 & s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_XOR xor}
+     * @param s0 the first operand
+     * @param s1 the second operand
+     * @return the compound result
+     */
+    public static int xor(char s0, char s1) {
+        return s0 ^ s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_SHL shl}. Shifted out bits are discarded, and the
+     *   shift count is taken modulo 32.
+     * @param s0 the value to shift
+     * @param s1 the shift count
+     * @return the compound result
+     */
+    public static int shl(char s0, char s1) {
+        return s0 << s1 & 0xFFFF;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_SHR shr}. The shift count is taken modulo 32.
+     * @param s0 the value to shift
+     * @param s1 the shift count
+     * @return the compound result
+     */
+    public static int shr(char s0, char s1) {
+        return s0 >>> s1;
+    }
+
+    /**
+     * Kernel of {@link ro.uaic.swqual.model.InstructionType#ALU_NOT not}
+     * @param s0 the operand
+     * @return the compound result
+     */
+    public static int not(char s0) {
+        return ~s0 & 0xFFFF;
+    }
+}
@@ -4,13 +4,20 @@ import ro.uaic.swqual.exception.InstructionException;
 import ro.uaic.swqual.exception.ParameterException;
 import ro.uaic.swqual.model.Instruction;
 import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.BoundMemoryLocation;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
 import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.operands.Parameter;
 import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
+import ro.uaic.swqual.util.Tuple;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
 
 /**
@@ -30,9 +37,17 @@ public class CentralProcessingUnit extends DelegatingUnit {
     /** Stack pointer, holding the address of the top of the stack */
     private final Register stackPointer = new Register();
 
+    /** Registers referable by index in machine code: data registers, then stack pointer and program counter */
+    private final List<Register> registerFile;
+    /** Assembly names of the registers, in {@link CentralProcessingUnit#registerFile} order */
+    public static final List<String> REGISTER_NAMES = List.of("r0", "r1", "r2", "r3", "r4", "r5", "r6", "r7", "sp", "pc");
+
     /** Map providing association from assembly code registry name to actual {@link Register} instances */
     private final Map<String, Register> registryReferenceMap = new HashMap<>();
 
+    /** Whether {@link CentralProcessingUnit#bind} elides the status flags that are never observed */
+    private boolean flagElision = false;
+
     /**
      * Method used to reset {@link CentralProcessingUnit#flagRegister} before executing an instruction.
      * Will skip this step if next instruction
@@ -59,6 +74,8 @@ public class CentralProcessingUnit extends DelegatingUnit {
 
         registryReferenceMap.put("sp", stackPointer);
         registryReferenceMap.put("pc", programCounter);
+
+        registerFile = REGISTER_NAMES.stream().map(registryReferenceMap::get).toList();
     }
 
     /**
@@ -75,9 +92,120 @@ public class CentralProcessingUnit extends DelegatingUnit {
     public void execute(Instruction instruction) throws InstructionException, ParameterException {
         assert instruction != null;
         prepareStateBefore(instruction.getType());
+        if (instruction instanceof SpecializedInstruction specialized) {
+            specialized.getHandler().execute();
+            return;
+        }
         super.execute(instruction);
     }
 
+    /**
+     * Method used to bind the instructions of a program to handlers specialized for their operands, as obtained
+     *   from the units they are routed to through {@link DelegatingUnit#specialize}. <br/>
+     * Expected to be called on a {@link CentralProcessingUnit#bind bound} program, after all units are registered.
+     *   Instructions are not modified: the specialized ones are replaced with {@link SpecializedInstruction copies}.
+     * @param program the bound program
+     * @return the program, with specialized instructions where available
+     */
+    public List<Instruction> specialize(List<Instruction> program) {
+        assert program != null;
+        var specialized = new ArrayList<Instruction>(program.size());
+        for (var instruction : program) {
+            specialized.add(specialized(instruction));
+        }
+        return specialized;
+    }
+
+    /**
+     * Method used to bind an instruction to a handler specialized for its operands, if available
+     * @param instruction the bound instruction
+     * @return the {@link SpecializedInstruction specialized copy}, or the instruction itself if not specialized
+     */
+    private Instruction specialized(Instruction instruction) {
+        var handler = instruction instanceof SpecializedInstruction ? null : specialize(instruction);
+        return handler == null ? instruction : new SpecializedInstruction(instruction, handler);
+    }
+
+    /**
+     * Method used to bind the memory operands of a program to this unit. <br/>
+     * Address expressions are {@link RelativeMemoryLocation#compile compiled}, folding their constants.
+     *   Each constant address, written as such or folded, is then replaced with a {@link BoundMemoryLocation}
+     *   located through this unit, so executing the instruction skips the locate chain. Handles follow changes of
+     *   the memory map. <br/>
+     * If {@link CentralProcessingUnit#setFlagElision flag elision} is enabled, ALU instructions whose status flags
+     *   are never observed by a conditional jump, as found by {@link FlagLiveness}, skip producing them. <br/>
+     * Instructions are not modified: the ones with bound or compiled memory operands, or elided flags, are copied.
+     * @param program the linked and resolved program
+     * @return the bound program
+     */
+    public List<Instruction> bind(List<Instruction> program) {
+        assert program != null;
+        var binder = binder(program);
+        var bound = new ArrayList<Instruction>(program.size());
+        for (var pc = 0; pc < program.size(); ++pc) {
+            bound.add(binder.apply(pc));
+        }
+        return bound;
+    }
+
+    /**
+     * Method used to prepare the instructions of a program one at a time, for engines preparing them on their
+     *   first execution, such as the {@link InstructionProcessingUnit#setPackedProgram packed execution}. <br/>
+     * Each instruction is {@link CentralProcessingUnit#bind bound} and {@link CentralProcessingUnit#specialize
+     *   specialized} the same as in the whole prepared program.
+     * @param program the linked and resolved program. Read when the preparer is obtained, for the flag liveness,
+     *   then on each call, for the prepared instruction
+     * @return the preparer of the instruction at a given index of the program
+     */
+    public IntFunction<Instruction> preparer(List<Instruction> program) {
+        assert program != null;
+        var binder = binder(program);
+        return pc -> specialized(binder.apply(pc));
+    }
+
+    /**
+     * Method used to bind the instructions of a program one at a time, see {@link CentralProcessingUnit#bind}
+     * @param program the linked and resolved program
+     * @return the binder of the instruction at a given index of the program
+     */
+    private IntFunction<Instruction> binder(List<Instruction> program) {
+        // share the bound location of each address, so that each address is located once
+        var locations = new HashMap<Character, BoundMemoryLocation>();
+        UnaryOperator<Parameter> binder = parameter -> {
+            var compiled = parameter instanceof RelativeMemoryLocation relative ? relative.compile() : parameter;
+            if (compiled instanceof ConstantMemoryLocation location && !(location instanceof BoundMemoryLocation)) {
+                return locations.computeIfAbsent(location.getValue(), address -> new BoundMemoryLocation(address, this));
+            }
+            return compiled;
+        };
+
+        var flagsObserved = flagElision ? FlagLiveness.analyze(program) : null;
+        return pc -> {
+            var instruction = program.get(pc);
+            var param1 = binder.apply(instruction.getParam1());
+            var param2 = binder.apply(instruction.getParam2());
+            var elided = flagsObserved != null && !flagsObserved[pc]
+                    && InstructionType.isAluInstruction(instruction.getType());
+            if (param1 == instruction.getParam1() && param2 == instruction.getParam2() && !elided) {
+                return instruction;
+            }
+            var copy = new Instruction(instruction.getType());
+            copy.setParameters(Tuple.of(param1, param2));
+            copy.setFlagsObserved(instruction.areFlagsObserved() && !elided);
+            return copy;
+        };
+    }
+
+    /**
+     * Setter for whether {@link CentralProcessingUnit#bind} elides the status flags that are never observed
+     *   by the program. Elided flags are not visible to tools either, so elision is expected to be disabled while
+     *   inspecting the flag register.
+     * @param flagElision true to elide unobserved flags, false to always produce them
+     */
+    public void setFlagElision(boolean flagElision) {
+        this.flagElision = flagElision;
+    }
+
     /**
      * Method used to raise an error directly to {@link CentralProcessingUnit#flagRegister}.
      * @param value flag value to raise.
@@ -118,6 +246,14 @@ public class CentralProcessingUnit extends DelegatingUnit {
         return dataRegisters;
     }
 
+    /**
+     * Getter for {@link CentralProcessingUnit#registerFile}
+     * @return reference to the unmodifiable list of registers referable by index
+     */
+    public List<Register> getRegisterFile() {
+        return registerFile;
+    }
+
     /**
      * Getter for {@link CentralProcessingUnit#registryReferenceMap}
      * @return reference to the register reference map
@@ -8,4 +8,13 @@ public interface ClockListener {
      * Method to be called on each clock tick.
      */
     void onTick();
+
+    /**
+     * Getter for the clock divider of the listener, used by a {@link ClockScheduler}: the listener is ticked once
+     *   every period cycles. Listeners ticked directly through {@link ClockListener#onTick} still get every tick.
+     * @return the number of cycles between ticks, or 0 if the listener has no work to do on ticks. Default is 1.
+     */
+    default long getClockPeriod() {
+        return 1;
+    }
 }
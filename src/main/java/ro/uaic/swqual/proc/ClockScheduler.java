@@ -0,0 +1,182 @@
+package ro.uaic.swqual.proc;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Represents a central clock, ticking each {@link ClockListener} only when it is due, instead of fanning every tick
+ *   out through all the {@link DelegatingUnit DelegatingUnits}. <br/>
+ * Listeners are scheduled either: <br/>
+ *   - periodically, once every {@link ClockListener#getClockPeriod period} cycles (a clock divider) <br/>
+ *   - once, at a given deadline cycle. Such listeners can schedule themselves again when ticked. <br/>
+ * Listeners with no work on ticks are not scheduled at all. While nothing is due, a {@link ClockScheduler#tick tick}
+ *   only advances the cycle counter. Listeners due on the same cycle are ticked in the order they were scheduled.
+ */
+public class ClockScheduler {
+    /**
+     * Scheduled listener
+     * @param listener the listener to tick
+     * @param deadline cycle of the next tick
+     * @param period cycles between ticks, or 0 for a single tick
+     * @param order scheduling order, keeping ticks on the same cycle deterministic
+     */
+    private record Entry(ClockListener listener, long deadline, long period, long order) {}
+
+    /** Scheduled listeners, by deadline */
+    private final PriorityQueue<Entry> entries = new PriorityQueue<>(
+            (first, second) -> first.deadline() != second.deadline()
+                    ? Long.compare(first.deadline(), second.deadline())
+                    : Long.compare(first.order(), second.order())
+    );
+    /** Number of cycles elapsed */
+    private long cycle = 0;
+    /** Deadline of the first scheduled listener. {@link Long#MAX_VALUE} if none */
+    private long nextDeadline = Long.MAX_VALUE;
+    /** Number of listeners scheduled so far */
+    private long scheduled = 0;
+
+    /**
+     * Method used to add an entry, updating the {@link ClockScheduler#nextDeadline}
+     * @param listener the listener to tick
+     * @param deadline cycle of the next tick
+     * @param period cycles between ticks, or 0 for a single tick
+     */
+    private void add(ClockListener listener, long deadline, long period) {
+        entries.add(new Entry(listener, deadline, period, scheduled++));
+        nextDeadline = entries.peek().deadline();
+    }
+
+    /**
+     * Method used to tick a listener periodically, starting with the next period
+     * @param listener the listener to tick
+     * @param period number of cycles between ticks. 1 ticks the listener on every cycle
+     */
+    public void schedule(ClockListener listener, long period) {
+        assert listener != null;
+        assert period > 0;
+        add(listener, cycle + period, period);
+    }
+
+    /**
+     * Method used to tick a listener once, at a given cycle
+     * @param listener the listener to tick
+     * @param deadline the cycle to tick the listener at. Deadlines already passed are due on the next cycle
+     */
+    public void scheduleAt(ClockListener listener, long deadline) {
+        assert listener != null;
+        add(listener, Math.max(deadline, cycle + 1), 0);
+    }
+
+    /**
+     * Method used to remove all scheduled ticks of a listener
+     * @param listener the listener
+     */
+    public void cancel(ClockListener listener) {
+        entries.removeIf(entry -> entry.listener() == listener);
+        nextDeadline = entries.isEmpty() ? Long.MAX_VALUE : entries.peek().deadline();
+    }
+
+    /**
+     * Method used to schedule all the listeners a unit would pass its ticks to, with their own
+     *   {@link ClockListener#getClockPeriod period}. {@link DelegatingUnit DelegatingUnits} only pass ticks along,
+     *   so they are not scheduled themselves: their listeners are, recursively. Listeners reachable through several
+     *   units are scheduled once.
+     * @param root the unit whose listeners to schedule
+     */
+    public void scheduleListenersOf(DelegatingUnit root) {
+        assert root != null;
+        var visited = Collections.newSetFromMap(new IdentityHashMap<ClockListener, Boolean>());
+        visited.add(root);
+        root.clockListeners.forEach(listener -> collect(listener, visited));
+    }
+
+    /**
+     * Method used to schedule a listener, or the listeners of a {@link DelegatingUnit}
+     * @param listener the listener
+     * @param visited listeners already collected
+     */
+    private void collect(ClockListener listener, Set<ClockListener> visited) {
+        if (!visited.add(listener)) {
+            return;
+        }
+        if (listener instanceof DelegatingUnit unit) {
+            unit.clockListeners.forEach(inner -> collect(inner, visited));
+            return;
+        }
+        var period = listener.getClockPeriod();
+        if (period > 0) {
+            schedule(listener, period);
+        }
+    }
+
+    /**
+     * Method used to advance the clock by one cycle, ticking the listeners that are due.
+     */
+    public void tick() {
+        if (++cycle < nextDeadline) {
+            return;
+        }
+        runDue();
+    }
+
+    /**
+     * Method used to advance the clock to a given cycle at once, ticking the listeners due on the way, each at its
+     *   own deadline cycle. Equivalent to ticking until the cycle is reached, without visiting the cycles where
+     *   nothing is due.
+     * @param target the cycle to advance to. Cycles already passed leave the clock unchanged
+     */
+    public void advanceTo(long target) {
+        while (nextDeadline <= target) {
+            cycle = nextDeadline;
+            runDue();
+        }
+        cycle = Math.max(cycle, target);
+    }
+
+    /**
+     * Method used to advance the clock directly to the next deadline, ticking the listeners due at it. Used to skip
+     *   the cycles in which the processor is idle.
+     * @return the number of cycles skipped. 0 if nothing is scheduled, leaving the clock unchanged
+     */
+    public long skipToNextDeadline() {
+        if (nextDeadline == Long.MAX_VALUE) {
+            return 0;
+        }
+        var start = cycle;
+        advanceTo(nextDeadline);
+        return cycle - start;
+    }
+
+    /**
+     * Method used to tick all listeners due at the current cycle, rescheduling the periodic ones
+     */
+    private void runDue() {
+        while (!entries.isEmpty() && entries.peek().deadline() <= cycle) {
+            var entry = entries.poll();
+            if (entry.period() > 0) {
+                var deadline = entry.deadline() + entry.period();
+                entries.add(new Entry(entry.listener(), deadline, entry.period(), entry.order()));
+            }
+            entry.listener().onTick();
+        }
+        nextDeadline = entries.isEmpty() ? Long.MAX_VALUE : entries.peek().deadline();
+    }
+
+    /**
+     * Getter for the number of cycles elapsed
+     * @return the cycle counter
+     */
+    public long getCycle() {
+        return cycle;
+    }
+
+    /**
+     * Getter for the cycle the next listener is due at
+     * @return the deadline, or {@link Long#MAX_VALUE} if nothing is scheduled
+     */
+    public long getNextDeadline() {
+        return nextDeadline;
+    }
+}
@@ -3,6 +3,7 @@ package ro.uaic.swqual.proc;
 import ro.uaic.swqual.exception.InstructionException;
 import ro.uaic.swqual.exception.ParameterException;
 import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.operands.BoundMemoryLocation;
 import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
 import ro.uaic.swqual.model.operands.FlagRegister;
 import ro.uaic.swqual.model.operands.MemoryLocation;
@@ -16,6 +17,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 /**
@@ -37,6 +39,13 @@ public abstract class DelegatingUnit implements ProcessingUnit, LocatingUnit, Cl
     /** Default sink for memory that could not be located. <br/>
      * Returned when requested locate of memory not in this unit's address space. */
     protected final UnresolvedMemory unresolvedSink;
+    /** Unit owning the memory map version of the machine this unit is part of. Units linked as locators share the
+     *  same root. Itself until linked to another unit. */
+    private DelegatingUnit memoryMapRoot = this;
+    /** Version of the memory map of the machine, if this unit is its root. Incremented on any change of a locator,
+     *  hardware unit or watchpoint of the machine, so that {@link BoundMemoryLocation BoundMemoryLocations} locate
+     *  their handle again. */
+    private final AtomicInteger memoryMapVersion = new AtomicInteger();
 
     /**
      * Default constructor. <br/>
@@ -84,6 +93,61 @@ public abstract class DelegatingUnit implements ProcessingUnit, LocatingUnit, Cl
         return acceptingUnits.getFirst();
     }
 
+    /**
+     * Getter for the unit owning the memory map version of the machine this unit is part of
+     * @return the root unit
+     */
+    private DelegatingUnit getMemoryMapRoot() {
+        var root = memoryMapRoot;
+        while (root.memoryMapRoot != root) {
+            root = root.memoryMapRoot;
+        }
+        memoryMapRoot = root;
+        return root;
+    }
+
+    /**
+     * Method used to link the memory map of another unit to the one of this unit, so that both share one version.
+     *   The version moves past both previous versions, so handles bound through either unit are located again.
+     * @param unit the unit to link
+     */
+    private void joinMemoryMap(DelegatingUnit unit) {
+        var root = getMemoryMapRoot();
+        var otherRoot = unit.getMemoryMapRoot();
+        if (root == otherRoot) {
+            return;
+        }
+        otherRoot.memoryMapRoot = root;
+        var latest = Math.max(root.memoryMapVersion.get(), otherRoot.memoryMapVersion.get());
+        root.memoryMapVersion.set(latest == Integer.MAX_VALUE ? 0 : latest + 1);
+    }
+
+    /**
+     * Getter for the version of the memory map of the machine this unit is part of
+     * @return the current version. Never negative
+     */
+    @Override
+    public int getMemoryMapVersion() {
+        return getMemoryMapRoot().memoryMapVersion.get();
+    }
+
+    /**
+     * Method used to signal a change of the memory map of a unit, invalidating all memory handles bound so far
+     *   through the units of its machine
+     */
+    protected void memoryMapChanged() {
+        getMemoryMapRoot().memoryMapVersion.updateAndGet(version -> version == Integer.MAX_VALUE ? 0 : version + 1);
+    }
+
+    /**
+     * Method used to get the direct handle of a {@link BoundMemoryLocation}, skipping the locate chain
+     * @param parameterOrLocation the parameter to locate
+     * @return the handle, or null if the parameter is not bound, or its address could not be bound
+     */
+    protected static Parameter boundHandle(Parameter parameterOrLocation) {
+        return parameterOrLocation instanceof BoundMemoryLocation bound ? bound.getHandle() : null;
+    }
+
     /**
      * Method used to register an {@link ProcessingUnit executor} with a custom {@link Instruction} filter.
      * @param unit the unit to be registered
@@ -119,6 +183,10 @@ public abstract class DelegatingUnit implements ProcessingUnit, LocatingUnit, Cl
         assert offset != null;
         assert addressSpaceValidator != null;
         locatingUnits.add(Tuple.of(unit, offset, addressSpaceValidator));
+        if (unit instanceof DelegatingUnit delegatingUnit) {
+            joinMemoryMap(delegatingUnit);
+        }
+        memoryMapChanged();
     }
 
     /**
@@ -145,6 +213,10 @@ public abstract class DelegatingUnit implements ProcessingUnit, LocatingUnit, Cl
      */
     public void registerLocator(LocatingUnit unit) {
         locatingUnits.add(Tuple.of(unit, (char) 0, location -> true));
+        if (unit instanceof DelegatingUnit delegatingUnit) {
+            joinMemoryMap(delegatingUnit);
+        }
+        memoryMapChanged();
     }
 
     /**
@@ -195,6 +267,12 @@ public abstract class DelegatingUnit implements ProcessingUnit, LocatingUnit, Cl
             return parameterOrLocation;
         }
 
+        // If bound to the memory map, skip the locate chain
+        var handle = boundHandle(location);
+        if (handle != null) {
+            return handle;
+        }
+
         // Identify which LocatingUnit matches the requested location
         var locatorAndOffset = getUnitAndOffsetForLocation(locatingUnits, location);
         if (locatorAndOffset == null) {
@@ -228,6 +306,24 @@ public abstract class DelegatingUnit implements ProcessingUnit, LocatingUnit, Cl
                 .forEach(unit -> unit.execute(instruction));
     }
 
+    /**
+     * Method used to obtain a specialized handler for a given instruction. <br/>
+     * Given the nature of the {@link DelegatingUnit}, it will delegate to the unit the instruction would be
+     *   routed to. Instructions routed to several units are not specialized.
+     * @param instruction the linked and resolved instruction
+     * @return the specialized handler, or null if the instruction is to be executed through
+     *   {@link DelegatingUnit#execute}
+     */
+    @Override
+    public InstructionHandler specialize(Instruction instruction) {
+        assert instruction != null;
+        var units = executorUnits.stream()
+                .filter(executorValidatorTuple -> executorValidatorTuple.getSecond().test(instruction))
+                .map(Tuple2::getFirst)
+                .toList();
+        return units.size() == 1 ? units.getFirst().specialize(instruction) : null;
+    }
+
     /**
      * Method used to acquire a filtering interface for instructions. Validates whether the current
      *   unit can execute an {@link Instruction}. <br/>
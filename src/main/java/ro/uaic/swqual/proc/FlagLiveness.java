@@ -0,0 +1,72 @@
+package ro.uaic.swqual.proc;
+
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.Constant;
+
+import java.util.List;
+
+/**
+ * Dataflow analysis finding the instructions whose status flags can be observed by a conditional jump. <br/>
+ * The {@link CentralProcessingUnit} clears the flags before each instruction that is not an
+ *   {@link InstructionProcessingUnit} instruction, so flags only survive through a chain of jumps. This includes
+ *   {@link InstructionType#IPU_CALL call} and {@link InstructionType#IPU_RET ret}, which clear the flags by pushing or
+ *   popping through the {@link CentralProcessingUnit}. Flags entering an instruction are observed if: <br/>
+ *   - the instruction is a conditional jump <br/>
+ *   - the instruction is a {@link InstructionType#IPU_JMP jmp} to a constant address whose flags are observed <br/>
+ *   - the instruction is a {@link InstructionType#IPU_JMP jmp} to a computed address, conservatively <br/>
+ *   - the instruction is a {@link InstructionType#IPU_WFI wfi} whose next instruction observes them <br/>
+ * A {@link InstructionType#IPU_HLT hlt} is only resumed by a reset, so flags entering it are not observed. <br/>
+ * Past the end of the program, the {@link InstructionProcessingUnit} runs its
+ *   {@link InstructionProcessingUnit#defaultInstruction default} {@code jmp 0}, which keeps the flags. Flags
+ *   reaching the end of the program, or jumping past it, are then observed if the first instruction observes them.
+ */
+public final class FlagLiveness {
+    private FlagLiveness() {}
+
+    /**
+     * Method used to compute whether the flags produced by each instruction can be observed by a later instruction
+     * @param program the linked program, with jump targets resolved to instruction indices
+     * @return array holding, for each program counter, whether the flags left by the instruction are observed
+     */
+    public static boolean[] analyze(List<Instruction> program) {
+        assert program != null;
+        var size = program.size();
+        // observed on entry, with one extra entry for the end of the program
+        var observed = new boolean[size + 1];
+        for (var pc = 0; pc < size; ++pc) {
+            var instruction = program.get(pc);
+            observed[pc] = InstructionType.isConditionalJump(instruction.getType())
+                    || instruction.getType() == InstructionType.IPU_JMP && !(instruction.getParam1() instanceof Constant);
+        }
+
+        // propagate along unconditional jumps and waits until stable. Values only change from false to true.
+        var changed = true;
+        while (changed) {
+            changed = false;
+            // the end of the program warm-resets with a jmp 0
+            if (!observed[size] && observed[0]) {
+                observed[size] = true;
+                changed = true;
+            }
+            for (var pc = 0; pc < size; ++pc) {
+                var instruction = program.get(pc);
+                var type = instruction.getType();
+                if (observed[pc] || type != InstructionType.IPU_JMP && type != InstructionType.IPU_WFI) {
+                    continue;
+                }
+                // a wait leaves the flags to the next instruction. Any address past the program is its end
+                var target = type == InstructionType.IPU_WFI ? pc + 1 : (int) instruction.getParam1().getValue();
+                if (observed[Math.min(target, size)]) {
+                    observed[pc] = true;
+                    changed = true;
+                }
+            }
+        }
+
+        // flags left by an instruction enter the next one
+        var observedAfter = new boolean[size];
+        System.arraycopy(observed, 1, observedAfter, 0, size);
+        return observedAfter;
+    }
+}
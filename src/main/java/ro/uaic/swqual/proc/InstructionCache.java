@@ -0,0 +1,157 @@
+package ro.uaic.swqual.proc;
+
+import ro.uaic.swqual.exception.ParameterException;
+import ro.uaic.swqual.mem.Watchpoint;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.MachineCode;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.Register;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the decoded-instruction cache used by the {@link InstructionProcessingUnit} to execute code placed in
+ *   memory. <br/>
+ * Instructions are decoded through a {@link MemoryManagementUnit} on their first fetch, then kept by address. <br/>
+ * Each page an instruction was decoded from is watched for writes with a {@link Watchpoint}. A write drops the
+ *   cached instructions overlapping the written bytes, so self-loading and self-modifying programs are decoded
+ *   again on their next fetch, while unmodified code is never decoded twice.
+ */
+public class InstructionCache {
+    /** Size of a watched code page, in bytes */
+    private static final int PAGE_SIZE = 1 << MemoryManagementUnit.WATCH_PAGE_SHIFT;
+    /** Maximum size of an instruction, in bytes */
+    private static final int MAX_INSTRUCTION_BYTES = MachineCode.MAX_INSTRUCTION_WORDS * 2;
+
+    /** Unit used to read and write code */
+    private final MemoryManagementUnit memoryManagementUnit;
+    /** Registers referable by index in machine code */
+    private final List<Register> registerFile;
+    /** Decoded instructions, by address. Null if not decoded */
+    private final Instruction[] decoded = new Instruction[Character.MAX_VALUE + 1];
+    /** Size in bytes of the decoded instructions, by address */
+    private final byte[] decodedSizes = new byte[Character.MAX_VALUE + 1];
+    /** Write watchpoints of the code pages, by page. Null if the page holds no decoded instruction */
+    private final Watchpoint[] pageWatchpoints = new Watchpoint[(Character.MAX_VALUE + 1) / PAGE_SIZE];
+
+    /**
+     * Primary constructor
+     * @param memoryManagementUnit the unit used to read and write code
+     * @param registerFile the registers referable by index in machine code
+     */
+    public InstructionCache(MemoryManagementUnit memoryManagementUnit, List<Register> registerFile) {
+        assert memoryManagementUnit != null;
+        assert registerFile != null;
+        this.memoryManagementUnit = memoryManagementUnit;
+        this.registerFile = registerFile;
+    }
+
+    /**
+     * Method used to read a word of code
+     * @param address the address of the word
+     * @return the word value
+     */
+    private int readWord(int address) {
+        return memoryManagementUnit.locate(new ConstantMemoryLocation((char) address)).getValue();
+    }
+
+    /**
+     * Method used to place a linked program in memory, through the {@link MemoryManagementUnit}. <br/>
+     * Jump and call targets are relocated to the load address, see {@link MachineCode#encode(List, char, List)}.
+     * @param program the linked program
+     * @param address the address to place the program at
+     * @return the address following the program
+     * @throws ParameterException if an instruction of the program cannot be encoded
+     */
+    public char load(List<Instruction> program, char address) throws ParameterException {
+        assert program != null;
+        var words = MachineCode.encode(program, address, registerFile);
+        for (var index = 0; index < words.length; ++index) {
+            memoryManagementUnit.locate(new ConstantMemoryLocation((char) (address + index * 2))).setValue(words[index]);
+        }
+        return (char) (address + words.length * 2);
+    }
+
+    /**
+     * Method used to fetch the instruction at a given address, decoding it on a cache miss.
+     * @param address the address of the instruction
+     * @return the instruction, or null if the memory at the address does not hold a valid instruction
+     */
+    public Instruction fetch(char address) {
+        var instruction = decoded[address];
+        if (instruction != null) {
+            return instruction;
+        }
+
+        var result = MachineCode.decode(this::readWord, address, registerFile);
+        if (result == null) {
+            return null;
+        }
+
+        var size = result.getSecond() * 2;
+        // the page watchpoints are added before caching, so a write can never leave a stale entry behind
+        for (var page = address / PAGE_SIZE; page <= (address + size - 1) / PAGE_SIZE; ++page) {
+            watchPage(page % pageWatchpoints.length);
+        }
+        decoded[address] = result.getFirst();
+        decodedSizes[address] = (byte) size;
+        return result.getFirst();
+    }
+
+    /**
+     * Method used to get the size of a fetched instruction
+     * @param address the address of the instruction
+     * @return the size in bytes, or 0 if no instruction was fetched from the address
+     */
+    public int sizeAt(char address) {
+        return decodedSizes[address];
+    }
+
+    /**
+     * Method used to start watching a code page for writes
+     * @param page the page index
+     */
+    private void watchPage(int page) {
+        if (pageWatchpoints[page] != null) {
+            return;
+        }
+        var watchpoint = new Watchpoint(
+                (char) (page * PAGE_SIZE),
+                (char) PAGE_SIZE,
+                Watchpoint.Access.WRITE,
+                (hit, access, address, value) -> invalidate(address)
+        );
+        pageWatchpoints[page] = watchpoint;
+        memoryManagementUnit.addWatchpoint(watchpoint);
+    }
+
+    /**
+     * Method used to drop the cached instructions overlapping a written word.
+     * @param address the address of the written word. Both address and address + 1 are considered written.
+     */
+    public void invalidate(char address) {
+        // only instructions starting at most MAX_INSTRUCTION_BYTES before the write can overlap it
+        for (var start = address - MAX_INSTRUCTION_BYTES + 1; start <= address + 1; ++start) {
+            var index = start & Character.MAX_VALUE;
+            if (decoded[index] != null && start + decodedSizes[index] > address) {
+                decoded[index] = null;
+                decodedSizes[index] = 0;
+            }
+        }
+    }
+
+    /**
+     * Method used to drop all cached instructions and stop watching the code pages.
+     */
+    public void invalidateAll() {
+        Arrays.fill(decoded, null);
+        Arrays.fill(decodedSizes, (byte) 0);
+        for (var page = 0; page < pageWatchpoints.length; ++page) {
+            if (pageWatchpoints[page] != null) {
+                memoryManagementUnit.removeWatchpoint(pageWatchpoints[page]);
+                pageWatchpoints[page] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ro.uaic.swqual.proc;
+
+import ro.uaic.swqual.exception.InstructionException;
+import ro.uaic.swqual.exception.ParameterException;
+
+/**
+ * Represents the execution of a single instruction, specialized for the kinds of its operands. <br/>
+ * Obtained through {@link ProcessingUnit#specialize} when a program is loaded. The operands are captured directly,
+ *   so executing the handler neither routes the instruction, nor inspects its operands again. Bound addresses are
+ *   not located again either. Computed addresses are evaluated on each execution, and only located when their page
+ *   cannot be accessed directly, see {@link MemoryPages}.
+ */
+@FunctionalInterface
+public interface InstructionHandler {
+    /**
+     * Method used to execute the instruction the handler was specialized for.
+     * @throws InstructionException when the instruction cannot be processed
+     * @throws ParameterException when any operand is not readable or writeable as required
+     */
+    void execute() throws InstructionException, ParameterException;
+}
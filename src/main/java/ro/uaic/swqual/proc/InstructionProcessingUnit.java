@@ -4,6 +4,7 @@ import ro.uaic.swqual.exception.InstructionException;
 import ro.uaic.swqual.exception.ParameterException;
 import ro.uaic.swqual.model.Instruction;
 import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.PackedProgram;
 import ro.uaic.swqual.model.operands.AbsoluteMemoryLocation;
 import ro.uaic.swqual.model.operands.Constant;
 import ro.uaic.swqual.model.operands.FlagRegister;
@@ -14,6 +15,8 @@ import ro.uaic.swqual.model.operands.ResolvedMemory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Predicate;
 
 import static ro.uaic.swqual.model.InstructionType.IPU_JMP;
@@ -51,6 +54,40 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
       * (whereas the {@link CentralProcessingUnit#getStackPointer stackPointer} register
       * is the value of that address). */
     private final AbsoluteMemoryLocation stackHeadReference;
+    /** Cache used to fetch instructions from memory. Null when running the
+     *  {@link InstructionProcessingUnit#instructions list} instead. */
+    private InstructionCache instructionCache;
+    /** Packed program being executed. Null when running the {@link InstructionProcessingUnit#instructions list} or
+     *  code placed in memory instead. */
+    private PackedProgram packedProgram;
+    /** Decoding {@link PackedProgram#asList view} of the {@link InstructionProcessingUnit#packedProgram} */
+    private List<Instruction> packedView;
+    /** Preparer of the instructions of the {@link InstructionProcessingUnit#packedProgram}, by index */
+    private IntFunction<Instruction> packedPreparer;
+    /** Instructions of the {@link InstructionProcessingUnit#packedProgram} prepared so far, by index. Each is
+     *  prepared on its first execution, then kept for the next ones. */
+    private Instruction[] preparedInstructions;
+    /** Address of the first instruction of the program. The program counter is reset to it. */
+    private char entryPoint;
+    /** Stack accessed directly on {@link InstructionType#IPU_CALL call} and {@link InstructionType#IPU_RET ret}.
+     *  Null to push and pop through the delegating units instead. */
+    private StackEngine stackEngine;
+    /** Scheduler ticking the listeners that are due after each instruction. Null to pass each tick to all the
+     *  registered {@link ClockListener ClockListeners} instead. */
+    private ClockScheduler clockScheduler;
+    /** True while the processor waits for an event: ticks pass time, but execute no instruction. */
+    private boolean idle = false;
+    /** True after a {@link InstructionType#IPU_HLT hlt}: idle until reset, ignoring {@link
+     *  InstructionProcessingUnit#wake wake-ups}. */
+    private boolean halted = false;
+    /** Predicate checking whether an address reads the same value without side effects until new input arrives.
+     *  Null to disable polling loop detection. */
+    private Predicate<Character> quiescentAddress;
+    /** {@link PollingLoops Polling loops} of the instruction list, by the index of their closing jump. Null if
+     *  polling loop detection is disabled. */
+    private PollingLoops.Loop[] pollingLoops;
+    /** Polling loop the processor is idle in. Null if not idle, or idle for another reason. */
+    private PollingLoops.Loop idleLoop;
     /** Default {@link Instruction} to be used when there are no more instructions in the
       * {@link InstructionProcessingUnit#instructions list} to be run. Effectively resets the program. */
     public static final Instruction defaultInstruction = new Instruction(IPU_JMP, new Constant((char)0));
@@ -109,6 +146,19 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
         return instruction -> InstructionType.isIpuInstruction(instruction.getType());
     }
 
+    /**
+     * Method used to obtain a specialized handler for a given instruction. <br/>
+     * Jumps, calls and returns are executed by the unit itself, through {@link InstructionProcessingUnit#execute}.
+     *   They are not delegated, since the delegates route them back to this unit.
+     * @param instruction the linked and resolved instruction
+     * @return null, as the instructions of the unit are not specialized
+     */
+    @Override
+    public InstructionHandler specialize(Instruction instruction) {
+        assert instruction != null;
+        return null;
+    }
+
     /**
      * Method executing the {@link InstructionType#IPU_JMP jmp} instruction. Is also called by conditioned jumps,
      * such as {@link InstructionType#IPU_JEQ jeq} after validating the condition.
@@ -135,24 +185,50 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
      * It will request an execution of the prebuilt {@link InstructionProcessingUnit#pop} instruction through
      * the registered delegators. After this, it will update the
      *   {@link InstructionProcessingUnit#programCounter} with what was stored on the stack as the return address. <br/>
-     * In a default scenario, the prebuilt pop will route through {@link CentralProcessingUnit}.
+     * In a default scenario, the prebuilt pop will route through {@link CentralProcessingUnit}. If a
+     *   {@link InstructionProcessingUnit#setStackEngine stack engine} is set, the stack is accessed through it instead.
      */
     private void ret() {
+        if (stackEngine != null) {
+            // same as the pop routed through the CentralProcessingUnit, which clears the flags
+            flagRegister.clear();
+            stackEngine.pop();
+            programCounter.setValue(stackEngine.top());
+            return;
+        }
         super.execute(pop);
         // We also need to increment the PC by 1, since the retained PC is, in fact, the PC of the call instruction.
         // We want to go after the call point.
         programCounter.setValue(locate(stackHeadReference).getValue());
     }
 
+    /**
+     * Method executing the {@link InstructionType#IPU_HLT hlt} instruction. The processor becomes
+     *   {@link InstructionProcessingUnit#isIdle idle} until reset, and is not resumed by
+     *   {@link InstructionProcessingUnit#wake wake-ups}.
+     */
+    private void halt() {
+        idle = true;
+        halted = true;
+    }
+
     /**
      * Method executing the {@link InstructionType#IPU_CALL call} instruction. <br/>
      * It will push the current {@link InstructionProcessingUnit#programCounter} value onto the stack
      *   using the prebuilt {@link InstructionProcessingUnit#pushCallLoc} instruction through the registered delegators.
      *   After this, it will execute the jump to the requested location (function address - label). <br/>
-     * In a default scenario, the prebuilt push will route through {@link CentralProcessingUnit}.
+     * In a default scenario, the prebuilt push will route through {@link CentralProcessingUnit}. If a
+     *   {@link InstructionProcessingUnit#setStackEngine stack engine} is set, the stack is accessed through it instead.
      * @param address the location of the function to call
      */
     private void call(Parameter address) {
+        if (stackEngine != null) {
+            // same as the push routed through the CentralProcessingUnit, which clears the flags
+            flagRegister.clear();
+            stackEngine.push(programCounter.getValue());
+            jump(address);
+            return;
+        }
         pushCallLoc.setParam1(programCounter);
         super.execute(pushCallLoc);
         jump(address);
@@ -189,6 +265,8 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
             case IPU_JGE -> conditionedJumpAtP0.accept(!flagRegister.isSet(LESS_FLAG) || flagRegister.isSet(EQUAL_FLAG));
             case IPU_RET -> ret();
             case IPU_CALL -> call(p0);
+            case IPU_HLT -> halt();
+            case IPU_WFI -> idle = true;
             default -> throw new InstructionException("Unknown instruction type: " + type);
         }
     }
@@ -201,13 +279,215 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
         assert instructions != null;
         this.instructions.clear();
         this.instructions.addAll(instructions);
+        instructionCache = null;
+        releasePackedProgram();
+        entryPoint = 0;
+        if (quiescentAddress != null) {
+            pollingLoops = PollingLoops.analyze(this.instructions);
+        }
+    }
+
+    /**
+     * Method used to execute a {@link PackedProgram} instead of the instruction list, as is. <br/>
+     * Same as {@link InstructionProcessingUnit#setPackedProgram(PackedProgram, List, Function)}, with each
+     *   instruction only decoded.
+     * @param packedProgram the packed program, with jump targets resolved to instruction indices
+     * @param registerFile the registers referenced by index by the program
+     */
+    public void setPackedProgram(PackedProgram packedProgram, List<Register> registerFile) {
+        setPackedProgram(packedProgram, registerFile, program -> program::get);
+    }
+
+    /**
+     * Method used to execute a {@link PackedProgram} instead of the instruction list. <br/>
+     * The program stays packed: each instruction is decoded and prepared the first time it is executed, then kept
+     *   for the next executions, so only the executed instructions are held as {@link Instruction} objects.
+     *   Prepared instructions go through the same fast paths as the ones of a prepared list, such as the
+     *   {@link CentralProcessingUnit#preparer binding and specialization} of the {@link CentralProcessingUnit}.
+     *   Polling loops are detected the same as for instruction lists.
+     * @param packedProgram the packed program, with jump targets resolved to instruction indices
+     * @param registerFile the registers referenced by index by the program
+     * @param preparation function obtaining the preparer of the instructions of the decoded program, by index,
+     *   such as {@link CentralProcessingUnit#preparer}
+     */
+    public void setPackedProgram(
+            PackedProgram packedProgram,
+            List<Register> registerFile,
+            Function<List<Instruction>, IntFunction<Instruction>> preparation
+    ) {
+        assert packedProgram != null;
+        assert registerFile != null;
+        assert preparation != null;
+        this.packedProgram = packedProgram;
+        packedView = packedProgram.asList(registerFile);
+        packedPreparer = preparation.apply(packedView);
+        preparedInstructions = new Instruction[packedProgram.size()];
+        instructionCache = null;
+        entryPoint = 0;
+        if (quiescentAddress != null) {
+            pollingLoops = PollingLoops.analyze(packedView);
+        }
+    }
+
+    /**
+     * Method used to execute code placed in memory instead of the instruction list. <br/>
+     * In this mode, the {@link InstructionProcessingUnit#programCounter} holds the address of the next instruction,
+     *   and is advanced by the size of each executed instruction.
+     * @param instructionCache the cache to fetch instructions through
+     * @param entryPoint the address of the first instruction
+     */
+    public void setInstructionCache(InstructionCache instructionCache, char entryPoint) {
+        assert instructionCache != null;
+        this.instructionCache = instructionCache;
+        this.entryPoint = entryPoint;
+        releasePackedProgram();
+    }
+
+    /**
+     * Setter for the {@link StackEngine} used to access the stack directly on {@link InstructionType#IPU_CALL call}
+     *   and {@link InstructionType#IPU_RET ret}, instead of executing a push or pop through the delegating units.
+     *   Flags are still cleared, as by the {@link CentralProcessingUnit} before a push or pop.
+     * @param stackEngine the stack engine, usually the one of the {@link MemoryManagementUnit}. Null to delegate.
+     */
+    public void setStackEngine(StackEngine stackEngine) {
+        this.stackEngine = stackEngine;
+    }
+
+    /**
+     * Setter for the {@link ClockScheduler} ticking the listeners after each instruction. The listeners registered
+     *   so far, directly or through other units, are scheduled on it with their own
+     *   {@link ClockListener#getClockPeriod period}. Listeners registered later are expected to be scheduled on it
+     *   directly.
+     * @param clockScheduler the scheduler. Null to pass each tick to all registered listeners instead.
+     */
+    public void setClockScheduler(ClockScheduler clockScheduler) {
+        this.clockScheduler = clockScheduler;
+        if (clockScheduler != null) {
+            clockScheduler.scheduleListenersOf(this);
+        }
+    }
+
+    /**
+     * Getter for the {@link ClockScheduler} ticking the listeners
+     * @return the scheduler, or null if ticks are passed to all registered listeners
+     */
+    public ClockScheduler getClockScheduler() {
+        return clockScheduler;
+    }
+
+    /**
+     * Setter for the idle state. While idle, each tick only passes time to the listeners, executing no instruction.
+     *   Callers driving the clock may then skip directly to the next event, see
+     *   {@link ClockScheduler#skipToNextDeadline}.
+     * @param idle true to stop executing instructions until set back to false
+     */
+    public void setIdle(boolean idle) {
+        this.idle = idle;
+        halted = false;
+        idleLoop = null;
+    }
+
+    /**
+     * Method used to signal an event the processor may wait for, such as input arrival. Resumes the processor if
+     *   idle after a {@link InstructionType#IPU_WFI wfi} or in a waiting polling loop. A halted processor stays
+     *   idle.
+     */
+    public void wake() {
+        if (!halted) {
+            setIdle(false);
+        }
+    }
+
+    /**
+     * Getter for the halted state
+     * @return true if a {@link InstructionType#IPU_HLT hlt} was executed since the last reset
+     */
+    public boolean isHalted() {
+        return halted;
+    }
+
+    /**
+     * Getter for the idle state
+     * @return true if ticks execute no instruction
+     */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    /**
+     * Setter for the predicate enabling polling loop detection. When a jump closing one of the
+     *   {@link PollingLoops polling loops} of the instruction list is taken, and all the addresses read by the loop
+     *   are quiescent, each further iteration would be identical, so the processor becomes
+     *   {@link InstructionProcessingUnit#isIdle idle} at the head of the loop instead of executing them. It is
+     *   expected to be resumed when new input arrives, executing the loop again. <br/>
+     * Only applies to instruction lists, with constant memory operands bound (see
+     *   {@link CentralProcessingUnit#bind}), and to {@link InstructionProcessingUnit#setPackedProgram packed
+     *   programs}.
+     * @param quiescentAddress predicate checking whether an address reads the same value, without side effects,
+     *   until new input arrives. Null to disable detection.
+     */
+    public void setPollingLoopDetection(Predicate<Character> quiescentAddress) {
+        this.quiescentAddress = quiescentAddress;
+        if (quiescentAddress == null) {
+            pollingLoops = null;
+        } else if (packedProgram != null) {
+            pollingLoops = PollingLoops.analyze(packedView);
+        } else {
+            pollingLoops = PollingLoops.analyze(instructions);
+        }
+    }
+
+    /**
+     * Getter for the polling loop the processor is idle in
+     * @return the loop, or null if not idle in a polling loop
+     */
+    public PollingLoops.Loop getIdleLoop() {
+        return idleLoop;
+    }
+
+    /**
+     * Method used to make the processor idle if the executed instruction closed a polling loop that is waiting
+     * @param pc the index of the executed instruction
+     */
+    private void detectPollingLoop(int pc) {
+        if (pc >= pollingLoops.length || pollingLoops[pc] == null) {
+            return;
+        }
+        var loop = pollingLoops[pc];
+        if (programCounter.getValue() != loop.head()) {
+            return;
+        }
+        for (var address : loop.addresses()) {
+            if (!quiescentAddress.test(address)) {
+                return;
+            }
+        }
+        idle = true;
+        idleLoop = loop;
+    }
+
+    /**
+     * Method used to pass the tick of an executed instruction to the listeners: through the
+     *   {@link InstructionProcessingUnit#clockScheduler} if set, to all of them otherwise.
+     */
+    private void tickListeners() {
+        if (clockScheduler != null) {
+            clockScheduler.tick();
+        } else {
+            super.onTick();
+        }
     }
 
     /**
-     * Method used to reset the program. It will effectively set {@link InstructionProcessingUnit#programCounter} to 0.
+     * Method used to reset the program. It will effectively set {@link InstructionProcessingUnit#programCounter} to
+     *   the entry point: 0 for instruction lists, the code address for code placed in memory. An idle or halted
+     *   processor is resumed.
      */
     public void reset() {
-        programCounter.setValue((char) 0);
+        programCounter.setValue(entryPoint);
+        idle = false;
+        halted = false;
+        idleLoop = null;
     }
 
     /**
@@ -216,10 +496,21 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
      *   {@link InstructionProcessingUnit#instructionSubscribers}.
      *   After this, it will also increment the {@link InstructionProcessingUnit#programCounter} by 1. <br/>
      * <br/>
-     * If no next instruction exists, the {@link InstructionProcessingUnit#defaultInstruction} is run.
+     * If no next instruction exists, the {@link InstructionProcessingUnit#defaultInstruction} is run. <br/>
+     * While {@link InstructionProcessingUnit#isIdle idle}, the tick is only passed to the listeners.
      */
     @Override
     public void onTick() {
+        if (idle) {
+            tickListeners();
+            return;
+        }
+        if (instructionCache != null) {
+            onMemoryTick();
+            return;
+        }
+
+        var pc = programCounter.getValue();
         var nextInstruction = next();
         if (nextInstruction == defaultInstruction) {
             // Executing the default instruction is equivalent to a "warm-reset"
@@ -227,7 +518,32 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
         }
         instructionSubscribers.forEach(s -> s.execute(next()));
         programCounter.setValue((char)(programCounter.getValue() + 1));
-        super.onTick();
+        if (pollingLoops != null) {
+            detectPollingLoop(pc);
+        }
+        tickListeners();
+    }
+
+    /**
+     * Clock tick when executing code placed in memory. <br/>
+     * The program counter is moved to the last byte of the fetched instruction before executing it, so that jumps
+     *   and returns work the same as with instruction lists: they set the program counter one before their target,
+     *   and it is then incremented by 1. <br/>
+     * If the memory at the program counter does not hold a valid instruction, {@link FlagRegister#ILLEGAL_FLAG} is
+     *   raised and the program is warm-reset to the entry point.
+     */
+    private void onMemoryTick() {
+        var address = programCounter.getValue();
+        var instruction = instructionCache.fetch(address);
+        if (instruction == null) {
+            flagRegister.set(FlagRegister.ILLEGAL_FLAG);
+            programCounter.setValue(entryPoint);
+        } else {
+            programCounter.setValue((char) (address + instructionCache.sizeAt(address) - 1));
+            instructionSubscribers.forEach(s -> s.execute(instruction));
+            programCounter.setValue((char) (programCounter.getValue() + 1));
+        }
+        tickListeners();
     }
 
     /**
@@ -236,6 +552,15 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
      * @return the next {@link Instruction} to be run.
      */
     public Instruction next() {
+        if (instructionCache != null) {
+            var instruction = instructionCache.fetch(programCounter.getValue());
+            return instruction == null ? defaultInstruction : instruction;
+        }
+
+        if (packedProgram != null) {
+            return nextPacked(programCounter.getValue());
+        }
+
         if (programCounter.getValue() >= instructions.size()) {
             return defaultInstruction;
         }
@@ -243,4 +568,34 @@ public class InstructionProcessingUnit extends DelegatingUnit implements ClockLi
         assert instruction != null;
         return instruction;
     }
+
+    /**
+     * Method used to stop executing the {@link InstructionProcessingUnit#packedProgram}, dropping its prepared
+     *   instructions
+     */
+    private void releasePackedProgram() {
+        packedProgram = null;
+        packedView = null;
+        packedPreparer = null;
+        preparedInstructions = null;
+    }
+
+    /**
+     * Method used to acquire an instruction of the {@link InstructionProcessingUnit#packedProgram}, preparing it on
+     *   its first execution.
+     * @param pc the index of the instruction
+     * @return the prepared instruction, or the {@link InstructionProcessingUnit#defaultInstruction} past the end
+     */
+    private Instruction nextPacked(int pc) {
+        if (pc >= preparedInstructions.length) {
+            return defaultInstruction;
+        }
+        var instruction = preparedInstructions[pc];
+        if (instruction == null) {
+            instruction = packedPreparer.apply(pc);
+            assert instruction != null;
+            preparedInstructions[pc] = instruction;
+        }
+        return instruction;
+    }
 }
@@ -28,4 +28,13 @@ public interface LocatingUnit {
      *   {@link ro.uaic.swqual.model.operands.MemoryLocation MemoryLocation}, will return the parameter unchanged.
      */
     Parameter locate(Parameter parameterOrLocation);
+
+    /**
+     * Getter for the version of the memory map the unit locates through. Changes whenever a location could be
+     *   located differently, so that memory handles located through the unit are located again.
+     * @return the current version. Never negative. Default is 0, for units whose memory map never changes.
+     */
+    default int getMemoryMapVersion() {
+        return 0;
+    }
 }
@@ -3,14 +3,21 @@ package ro.uaic.swqual.proc;
 import ro.uaic.swqual.exception.InstructionException;
 import ro.uaic.swqual.exception.ParameterException;
 import ro.uaic.swqual.mem.MemoryUnit;
+import ro.uaic.swqual.mem.Watchpoint;
 import ro.uaic.swqual.model.Instruction;
 import ro.uaic.swqual.model.InstructionType;
 import ro.uaic.swqual.model.operands.AbsoluteMemoryLocation;
+import ro.uaic.swqual.model.operands.BoundMemoryLocation;
 import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.DisplacedMemoryLocation;
 import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.operands.MemoryLocation;
 import ro.uaic.swqual.model.operands.Register;
 import ro.uaic.swqual.model.operands.Parameter;
+import ro.uaic.swqual.model.operands.ResolvedMemory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -45,6 +52,21 @@ public class MemoryManagementUnit extends ProxyUnit<MemoryUnit> {
     /** Offset to increment/decrement the {@link CentralProcessingUnit#getStackPointer stackPointer} with. */
     private static final Constant STACK_POINTER_OFFSET_ON_CHANGE = new Constant((char) 2);
 
+    /** Size of a watched page, as a power of two. Pages are the granularity of the trap markers. */
+    public static final int WATCH_PAGE_SHIFT = 8;
+    /** Trap markers of the address space. Each value counts the {@link Watchpoint watchpoints} touching the page.
+     *  Accesses in pages with no markers skip all {@link Watchpoint} checks. */
+    private final int[] trappedPages = new int[(Character.MAX_VALUE + 1) >>> WATCH_PAGE_SHIFT];
+    /** List of registered {@link Watchpoint watchpoints} */
+    private final List<Watchpoint> watchpoints = new ArrayList<>();
+    /** Page table used to access computed addresses, such as the stack head, without locating them */
+    private final MemoryPages memoryPages = new MemoryPages(this);
+    /** Direct implementation of the stack */
+    private final StackEngine stackEngine;
+    /** Whether {@link InstructionType#MMU_PUSH push} and {@link InstructionType#MMU_POP pop} go through the
+     *  {@link MemoryManagementUnit#stackEngine} instead of delegating the stack pointer changes */
+    private boolean stackFastPath = false;
+
     /**
      * Primary constructor
      * @param flagRegister reference to the {@link FlagRegister} to be used for raising status and errors
@@ -65,6 +87,27 @@ public class MemoryManagementUnit extends ProxyUnit<MemoryUnit> {
             }
             return true;
         };
+        stackEngine = new StackEngine(this, stackPointer, memoryPages);
+    }
+
+    /**
+     * Getter for the {@link StackEngine} of this unit, which other units can use to access the stack directly,
+     *   such as the {@link InstructionProcessingUnit} on {@link InstructionType#IPU_CALL call} and
+     *   {@link InstructionType#IPU_RET ret}.
+     * @return the stack engine
+     */
+    public StackEngine getStackEngine() {
+        return stackEngine;
+    }
+
+    /**
+     * Setter for whether {@link InstructionType#MMU_PUSH push} and {@link InstructionType#MMU_POP pop} go through
+     *   the {@link StackEngine}. When disabled, the stack pointer changes are delegated as
+     *   {@link InstructionType#ALU_ADD add} and {@link InstructionType#ALU_SUB sub} instructions.
+     * @param stackFastPath true to use the stack engine, false to delegate
+     */
+    public void setStackFastPath(boolean stackFastPath) {
+        this.stackFastPath = stackFastPath;
     }
 
     /**
@@ -77,6 +120,113 @@ public class MemoryManagementUnit extends ProxyUnit<MemoryUnit> {
         this.flagRegister.set(value);
     }
 
+    /**
+     * Method used to update the trap markers of all pages a {@link Watchpoint} touches.
+     * An access at address A touches A and A + 1, so the address preceding the watched range is marked as well.
+     * @param watchpoint the watchpoint in question
+     * @param delta the value to add to the marker count of each page
+     */
+    private void markPages(Watchpoint watchpoint, int delta) {
+        var firstPage = Math.max(watchpoint.getBegin() - 1, 0) >>> WATCH_PAGE_SHIFT;
+        var lastPage = watchpoint.getEnd() >>> WATCH_PAGE_SHIFT;
+        for (var page = firstPage; page <= lastPage; ++page) {
+            trappedPages[page] += delta;
+        }
+    }
+
+    /**
+     * Method used to check whether accesses in a page are checked by a {@link Watchpoint}
+     * @param page the page, as the address shifted by {@link MemoryManagementUnit#WATCH_PAGE_SHIFT}
+     * @return true if the page is marked by a watchpoint
+     */
+    boolean isTrappedPage(int page) {
+        return trappedPages[page] != 0;
+    }
+
+    /**
+     * Method used to register a {@link Watchpoint}. Addresses are relative to this unit.
+     * @param watchpoint the watchpoint to be registered
+     */
+    public void addWatchpoint(Watchpoint watchpoint) {
+        assert watchpoint != null;
+        watchpoints.add(watchpoint);
+        markPages(watchpoint, 1);
+        memoryMapChanged();
+    }
+
+    /**
+     * Method used to remove a previously registered {@link Watchpoint}.
+     * @param watchpoint the watchpoint to be removed
+     */
+    public void removeWatchpoint(Watchpoint watchpoint) {
+        assert watchpoint != null;
+        if (watchpoints.remove(watchpoint)) {
+            markPages(watchpoint, -1);
+            memoryMapChanged();
+        }
+    }
+
+    /**
+     * Getter for the registered {@link Watchpoint watchpoints}
+     * @return unmodifiable view of the watchpoint list
+     */
+    public List<Watchpoint> getWatchpoints() {
+        return List.copyOf(watchpoints);
+    }
+
+    /**
+     * Method used to wrap a located memory value in trapped pages with the matching {@link Watchpoint} checks.
+     * @param address the located address
+     * @param located the located memory value
+     * @return the located memory value if no watchpoint covers the address, a checked proxy of it otherwise.
+     */
+    private Parameter watched(char address, Parameter located) {
+        var hits = watchpoints.stream().filter(watchpoint -> watchpoint.covers(address)).toList();
+        if (hits.isEmpty()) {
+            return located;
+        }
+
+        return new ResolvedMemory(
+                () -> {
+                    var value = located.getValue();
+                    hits.forEach(watchpoint -> watchpoint.hit(Watchpoint.Access.READ, address, value));
+                    return value;
+                },
+                value -> {
+                    located.setValue(value);
+                    hits.forEach(watchpoint -> watchpoint.hit(Watchpoint.Access.WRITE, address, value));
+                }
+        );
+    }
+
+    /**
+     * Method used to locate memory values. <br/>
+     * Will locate via {@link ProxyUnit#locate}. If the address is in a page marked by a {@link Watchpoint},
+     *   the located value will notify the covering watchpoints on access. Other pages are not checked at all.
+     * @param directOrLocation parameter to locate a value from.
+     * @return Identified memory location. If not given a
+     *   {@link ro.uaic.swqual.model.operands.MemoryLocation MemoryLocation}, will return the parameter unchanged.
+     */
+    @Override
+    public Parameter locate(Parameter directOrLocation) {
+        // Bound handles were located through the whole chain, watchpoints included
+        var handle = boundHandle(directOrLocation);
+        if (handle != null) {
+            return handle;
+        }
+
+        var located = super.locate(directOrLocation);
+        if (!(directOrLocation instanceof MemoryLocation location) || !(located instanceof ResolvedMemory)) {
+            return located;
+        }
+
+        var address = location.getValue();
+        if (trappedPages[address >>> WATCH_PAGE_SHIFT] == 0) {
+            return located;
+        }
+        return watched(address, located);
+    }
+
     /**
      * Method executing the {@link InstructionType#MMU_MOV mov} instruction.
      * @param dst parameter to write to
@@ -92,11 +242,16 @@ public class MemoryManagementUnit extends ProxyUnit<MemoryUnit> {
      * Method executing the {@link InstructionType#MMU_PUSH push} instruction.
      * It will effectively use {@link InstructionType#MMU_MOV mov} to copy the value onto the stack head, followed by
      *   delegating the prebuilt {@link MemoryManagementUnit#incrementStackPointer} instruction. <br/>
-     * In a default scenario, the pop prebuilt pop will route through {@link CentralProcessingUnit}.
+     * In a default scenario, the pop prebuilt pop will route through {@link CentralProcessingUnit}. <br/>
+     * With the {@link MemoryManagementUnit#setStackFastPath stack fast path}, the {@link StackEngine} is used instead.
      * @param value the value to push onto the stack.
      */
     private void push(Parameter value) {
         assert value != null;
+        if (stackFastPath) {
+            stackEngine.push(value.getValue());
+            return;
+        }
         mov(locate(stackHeadReference), value);
         super.execute(incrementStackPointer);
     }
@@ -106,10 +261,17 @@ public class MemoryManagementUnit extends ProxyUnit<MemoryUnit> {
      * It will effectively execute the prebuilt {@link MemoryManagementUnit#decrementStackPointer} by delegation,
      *   followed by a {@link InstructionType#MMU_MOV mov} to copy the value from the stack head, if an output
      *   parameter was provided. <br/>
-     * In a default scenario, the pop prebuilt pop will route through {@link CentralProcessingUnit}.
+     * In a default scenario, the pop prebuilt pop will route through {@link CentralProcessingUnit}. <br/>
+     * With the {@link MemoryManagementUnit#setStackFastPath stack fast path}, the {@link StackEngine} is used instead.
      * @param dest the writeable output parameter. Can be null, in which case, only the copy will not execute.
      */
     private void pop(Parameter dest) {
+        if (stackFastPath) {
+            if (stackEngine.pop() && dest != null) {
+                dest.setValue(stackEngine.top());
+            }
+            return;
+        }
         if (preDecrementStackPointer.get()) {
             super.execute(decrementStackPointer);
             // pop may be invoked without a destination parameter, just to remove.
@@ -120,6 +282,74 @@ public class MemoryManagementUnit extends ProxyUnit<MemoryUnit> {
         }
     }
 
+    /**
+     * Method used to get the handle of a {@link BoundMemoryLocation}, locating it through the chain if it could not
+     *   be bound, so that invalid accesses are raised the same way.
+     * @param location the bound location
+     * @return the located memory
+     */
+    private Parameter handleOf(BoundMemoryLocation location) {
+        var handle = location.getHandle();
+        return handle != null ? handle : locate(location);
+    }
+
+    /**
+     * Method used to obtain a handler for a given {@link InstructionType#MMU_MOV mov} instruction, specialized for
+     *   its operands: <br/>
+     *   - register, bound constant address or base + displacement destinations <br/>
+     *   - register, constant, bound constant address or base + displacement sources <br/>
+     * Bound addresses are accessed through their handle. Base + displacement addresses are computed on each
+     *   execution, then accessed through the {@link MemoryPages page table}: directly in the memory holding their
+     *   page when possible, located otherwise.
+     * @param instruction the linked and resolved instruction
+     * @return the specialized handler, or null if the instruction or its operands are not supported
+     */
+    @Override
+    public InstructionHandler specialize(Instruction instruction) {
+        assert instruction != null;
+        if (instruction.getType() != InstructionType.MMU_MOV) {
+            return null;
+        }
+
+        final var destination = instruction.getParam1();
+        final var source = instruction.getParam2();
+        if (destination instanceof Register to) {
+            if (source instanceof Register from) {
+                return () -> to.setValue(from.getValue());
+            }
+            if (source instanceof Constant constant) {
+                final var value = constant.getValue();
+                return () -> to.setValue(value);
+            }
+            if (source instanceof BoundMemoryLocation from) {
+                return () -> to.setValue(handleOf(from).getValue());
+            }
+            if (source instanceof DisplacedMemoryLocation from) {
+                return () -> to.setValue(memoryPages.read(from));
+            }
+        } else if (destination instanceof BoundMemoryLocation to) {
+            if (source instanceof Register from) {
+                return () -> handleOf(to).setValue(from.getValue());
+            }
+            if (source instanceof Constant constant) {
+                final var value = constant.getValue();
+                return () -> handleOf(to).setValue(value);
+            }
+            if (source instanceof BoundMemoryLocation from) {
+                return () -> handleOf(to).setValue(handleOf(from).getValue());
+            }
+        } else if (destination instanceof DisplacedMemoryLocation to) {
+            if (source instanceof Register from) {
+                return () -> memoryPages.write(to, from.getValue());
+            }
+            if (source instanceof Constant constant) {
+                final var value = constant.getValue();
+                return () -> memoryPages.write(to, value);
+            }
+        }
+        return null;
+    }
+
     /**
      * Default filter for instructions. Accepts instructions according to {@link InstructionType#isMmuInstruction}.
      * @return The filter interface in question.
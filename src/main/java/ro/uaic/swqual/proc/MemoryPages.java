@@ -0,0 +1,129 @@
+package ro.uaic.swqual.proc;
+
+import ro.uaic.swqual.mem.RandomAccessMemory;
+import ro.uaic.swqual.model.operands.MemoryLocation;
+
+import java.util.Arrays;
+
+/**
+ * Represents the page table of a {@link MemoryManagementUnit}, used to access computed addresses without locating
+ *   them on every access. <br/>
+ * Pages mapped to a single {@link RandomAccessMemory}, with no {@link ro.uaic.swqual.mem.Watchpoint} and no other
+ *   unit claiming them, are read and written straight from that memory. Pages are checked once per
+ *   {@link DelegatingUnit#getMemoryMapVersion memory map version} of the machine. Addresses anywhere else are
+ *   located through the {@link MemoryManagementUnit}, as before. Addresses are the ones of the
+ *   {@link MemoryManagementUnit}.
+ */
+class MemoryPages {
+    /** Page state: not checked since the last memory map change */
+    private static final byte PAGE_UNKNOWN = 0;
+    /** Page state: values are accessed directly in the memory of {@link MemoryPages#pageUnits} */
+    private static final byte PAGE_DIRECT = 1;
+    /** Page state: values are located through the {@link MemoryPages#memoryManagementUnit} */
+    private static final byte PAGE_LOCATED = 2;
+
+    /** The unit owning the pages. Used to check the memory map and to locate addresses outside direct pages */
+    private final MemoryManagementUnit memoryManagementUnit;
+    /** State of each page, as one of the PAGE_ constants */
+    private final byte[] pageStates = new byte[(Character.MAX_VALUE + 1) >>> MemoryManagementUnit.WATCH_PAGE_SHIFT];
+    /** Memory each direct page is mapped to */
+    private final RandomAccessMemory[] pageUnits = new RandomAccessMemory[pageStates.length];
+    /** Offset of the memory each direct page is mapped to */
+    private final char[] pageOffsets = new char[pageStates.length];
+    /** Memory map version the page states were computed at */
+    private int pagesVersion = -1;
+
+    /**
+     * Primary constructor
+     * @param memoryManagementUnit the unit owning the pages
+     */
+    MemoryPages(MemoryManagementUnit memoryManagementUnit) {
+        assert memoryManagementUnit != null;
+        this.memoryManagementUnit = memoryManagementUnit;
+    }
+
+    /**
+     * Method used to check whether all addresses of a page are mapped to the same {@link RandomAccessMemory}, and to
+     *   nothing else
+     * @param page the page to check
+     * @return {@link MemoryPages#PAGE_DIRECT} or {@link MemoryPages#PAGE_LOCATED}
+     */
+    private byte checkPage(int page) {
+        if (memoryManagementUnit.isTrappedPage(page)) {
+            return PAGE_LOCATED;
+        }
+
+        RandomAccessMemory unit = null;
+        var offset = (char) 0;
+        var first = page << MemoryManagementUnit.WATCH_PAGE_SHIFT;
+        for (var address = first; address < first + (1 << MemoryManagementUnit.WATCH_PAGE_SHIFT); ++address) {
+            var location = (char) address;
+            if (memoryManagementUnit.locatingUnits.stream().anyMatch(tuple -> tuple.getThird().test(location))) {
+                return PAGE_LOCATED;
+            }
+            var accepting = memoryManagementUnit.hardwareUnits.stream()
+                    .filter(tuple -> tuple.getThird().test(location))
+                    .toList();
+            if (accepting.size() != 1 || !(accepting.getFirst().getFirst() instanceof RandomAccessMemory memory)) {
+                return PAGE_LOCATED;
+            }
+            if (unit == null) {
+                unit = memory;
+                offset = accepting.getFirst().getSecond();
+            } else if (unit != memory || offset != accepting.getFirst().getSecond()) {
+                return PAGE_LOCATED;
+            }
+        }
+        pageUnits[page] = unit;
+        pageOffsets[page] = offset;
+        return PAGE_DIRECT;
+    }
+
+    /**
+     * Method used to get the page holding an address, checking it if needed
+     * @param address the address
+     * @return the page index
+     */
+    private int pageOf(char address) {
+        var version = memoryManagementUnit.getMemoryMapVersion();
+        if (version != pagesVersion) {
+            Arrays.fill(pageStates, PAGE_UNKNOWN);
+            Arrays.fill(pageUnits, null);
+            pagesVersion = version;
+        }
+        var page = address >>> MemoryManagementUnit.WATCH_PAGE_SHIFT;
+        if (pageStates[page] == PAGE_UNKNOWN) {
+            pageStates[page] = checkPage(page);
+        }
+        return page;
+    }
+
+    /**
+     * Method used to read the value at a location, directly if its page allows it
+     * @param location the location, evaluated once
+     * @return the read value
+     */
+    char read(MemoryLocation location) {
+        var address = location.getValue();
+        var page = pageOf(address);
+        if (pageStates[page] == PAGE_DIRECT) {
+            return pageUnits[page].readDirect((char) (address - pageOffsets[page]));
+        }
+        return memoryManagementUnit.locate(location).getValue();
+    }
+
+    /**
+     * Method used to write the value at a location, directly if its page allows it
+     * @param location the location, evaluated once
+     * @param value the value to write
+     */
+    void write(MemoryLocation location, char value) {
+        var address = location.getValue();
+        var page = pageOf(address);
+        if (pageStates[page] == PAGE_DIRECT) {
+            pageUnits[page].writeDirect((char) (address - pageOffsets[page]), value);
+            return;
+        }
+        memoryManagementUnit.locate(location).setValue(value);
+    }
+}
@@ -0,0 +1,137 @@
+package ro.uaic.swqual.proc;
+
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.Parameter;
+import ro.uaic.swqual.model.operands.Register;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analysis finding the short loops that only poll constant addresses, such as waiting for a key: <br/>
+ * <pre>
+ * {@literal @}wait:
+ *   mov r0 [0x10];
+ *   cmp r0 0;
+ *   jeq {@literal @}wait;
+ * </pre>
+ * A polling loop ends with a conditional jump back to its head. Its body only holds: <br/>
+ *   - {@link InstructionType#MMU_MOV mov} of a constant address to a register <br/>
+ *   - {@link InstructionType#ALU_CMP cmp} of registers and constants, where each register written by the loop is
+ *     written before being compared <br/>
+ * Each iteration then only depends on the values read. While the polled addresses have no side effects on read
+ *   and hold the same value, each iteration leaves the machine in the same state, and the loop can be considered
+ *   waiting instead of being executed.
+ */
+public final class PollingLoops {
+    /** Maximum number of instructions of a polling loop, including the jump */
+    public static final int MAX_LENGTH = 8;
+
+    private PollingLoops() {}
+
+    /**
+     * Polling loop
+     * @param head index of the first instruction of the loop
+     * @param length number of instructions of one iteration, including the jump
+     * @param addresses the addresses read by the loop
+     */
+    public record Loop(int head, int length, char[] addresses) {}
+
+    /**
+     * Method used to find the polling loops of a program
+     * @param program the program, with jump targets resolved to instruction indices and constant memory operands
+     *   as {@link ConstantMemoryLocation ConstantMemoryLocations}
+     * @return array holding, for each program counter, the loop closed by the jump at it. Null if none
+     */
+    public static Loop[] analyze(List<Instruction> program) {
+        assert program != null;
+        var loops = new Loop[program.size()];
+        for (var pc = 0; pc < program.size(); ++pc) {
+            loops[pc] = loopClosedAt(program, pc);
+        }
+        return loops;
+    }
+
+    /**
+     * Method used to find the polling loop closed by the instruction at a given index
+     * @param program the program
+     * @param pc the index of the instruction
+     * @return the loop, or null if the instruction does not close a polling loop
+     */
+    private static Loop loopClosedAt(List<Instruction> program, int pc) {
+        var jump = program.get(pc);
+        if (!InstructionType.isConditionalJump(jump.getType()) || !(jump.getParam1() instanceof Constant target)) {
+            return null;
+        }
+        var head = (int) target.getValue();
+        if (head > pc || pc - head + 1 > MAX_LENGTH) {
+            return null;
+        }
+
+        var written = new ArrayList<Register>();
+        var addresses = new ArrayList<Character>();
+        for (var index = head; index < pc; ++index) {
+            var instruction = program.get(index);
+            switch (instruction.getType()) {
+                case MMU_MOV -> {
+                    if (!(instruction.getParam1() instanceof Register destination)
+                            || !(instruction.getParam2() instanceof ConstantMemoryLocation source)) {
+                        return null;
+                    }
+                    written.add(destination);
+                    addresses.add(source.getValue());
+                }
+                case ALU_CMP -> {
+                    if (!isStable(instruction.getParam1(), written, program, index, pc)
+                            || !isStable(instruction.getParam2(), written, program, index, pc)) {
+                        return null;
+                    }
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+
+        if (addresses.isEmpty()) {
+            return null;
+        }
+        var polled = new char[addresses.size()];
+        for (var index = 0; index < polled.length; ++index) {
+            polled[index] = addresses.get(index);
+        }
+        return new Loop(head, pc - head + 1, polled);
+    }
+
+    /**
+     * Method used to check whether a compared operand holds the same value on each iteration, given equal reads
+     * @param operand the operand
+     * @param writtenBefore the registers written by the loop before the comparison
+     * @param program the program
+     * @param index the index of the comparison
+     * @param jump the index of the jump closing the loop
+     * @return true for constants, registers written before the comparison and registers the loop does not write
+     */
+    private static boolean isStable(Parameter operand, List<Register> writtenBefore, List<Instruction> program,
+                                    int index, int jump) {
+        if (operand instanceof Constant) {
+            return true;
+        }
+        if (!(operand instanceof Register register)) {
+            return false;
+        }
+        if (writtenBefore.stream().anyMatch(written -> written == register)) {
+            return true;
+        }
+        for (var after = index + 1; after < jump; ++after) {
+            var instruction = program.get(after);
+            if (instruction.getType() == InstructionType.MMU_MOV && instruction.getParam1() == register) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
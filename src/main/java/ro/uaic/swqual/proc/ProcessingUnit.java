@@ -21,6 +21,17 @@ public interface ProcessingUnit {
      */
     void execute(Instruction instruction) throws InstructionException, ParameterException;
 
+    /**
+     * Method used to obtain a handler executing a given instruction, specialized for the kinds of its operands.
+     *   Called once, when a program is loaded. Will not specialize unless overridden.
+     * @param instruction the linked and resolved instruction
+     * @return the specialized handler, or null if the instruction is to be executed through
+     *   {@link ProcessingUnit#execute}
+     */
+    default InstructionHandler specialize(Instruction instruction) {
+        return null;
+    }
+
     /**
      * Method used to raise an error via a flag value, present in
      *   {@link ro.uaic.swqual.model.operands.FlagRegister FlagRegister}.
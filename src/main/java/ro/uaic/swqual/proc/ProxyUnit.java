@@ -51,6 +51,7 @@ public abstract class ProxyUnit<HardwareUnit extends MemoryUnit> extends Delegat
         // We are unsure whether this hardware can accept clock ticks
         registerPotentialClockListener(hardwareUnit);
         hardwareUnits.add(Tuple.of(hardwareUnit, offset, addressSpaceValidator));
+        memoryMapChanged();
     }
 
     /**
@@ -99,6 +100,12 @@ public abstract class ProxyUnit<HardwareUnit extends MemoryUnit> extends Delegat
             return directOrLocation;
         }
 
+        // If bound to the memory map, skip the locate chain
+        var handle = boundHandle(location);
+        if (handle != null) {
+            return handle;
+        }
+
         // Identify if a HardwareUnit matches the requested location
         var localUnitAndOffset = getUnitAndOffsetForLocation(hardwareUnits, location);
         // Identify if a delegated LocatingUnit matches the requested location
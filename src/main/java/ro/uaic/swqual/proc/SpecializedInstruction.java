@@ -0,0 +1,36 @@
+package ro.uaic.swqual.proc;
+
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.util.Tuple;
+
+/**
+ * Represents an {@link Instruction} bound to an {@link InstructionHandler} specialized for its operands. <br/>
+ * Executed by the {@link CentralProcessingUnit} through its handler instead of being routed to an executor. Holds
+ *   the same type and parameters as the instruction it was specialized from, so it can still be executed, encoded
+ *   or displayed as any other instruction.
+ */
+public class SpecializedInstruction extends Instruction {
+    /** Handler executing the instruction */
+    private final InstructionHandler handler;
+
+    /**
+     * Primary constructor
+     * @param instruction the instruction the handler was specialized for
+     * @param handler the specialized handler
+     */
+    public SpecializedInstruction(Instruction instruction, InstructionHandler handler) {
+        super(instruction.getType());
+        assert handler != null;
+        setParameters(Tuple.of(instruction.getParam1(), instruction.getParam2()));
+        setFlagsObserved(instruction.areFlagsObserved());
+        this.handler = handler;
+    }
+
+    /**
+     * Getter for the specialized handler
+     * @return the handler executing the instruction
+     */
+    public InstructionHandler getHandler() {
+        return handler;
+    }
+}
@@ -0,0 +1,89 @@
+package ro.uaic.swqual.proc;
+
+import ro.uaic.swqual.model.operands.AbsoluteMemoryLocation;
+import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.operands.Register;
+
+import static ro.uaic.swqual.model.operands.FlagRegister.SEG_FLAG;
+
+/**
+ * Represents the stack of a {@link MemoryManagementUnit}, updating the stack pointer and accessing the stack slot
+ *   directly, instead of executing synthetic {@link ro.uaic.swqual.model.InstructionType#ALU_ADD add} and
+ *   {@link ro.uaic.swqual.model.InstructionType#ALU_SUB sub} instructions through the delegating units. <br/>
+ * The stack pointer is changed without going through the {@link ArithmeticLogicUnit}, so the status flags are left
+ *   untouched. Moving the stack pointer out of the address space raises {@link FlagRegister#SEG_FLAG} instead: <br/>
+ *   - a pop with less than a slot below the stack pointer (underflow) <br/>
+ *   - a push with less than a slot above the stack pointer (overflow) <br/>
+ * Stack slots are accessed through the {@link MemoryPages} of the {@link MemoryManagementUnit}: directly in the
+ *   memory holding their page when possible, located through the unit otherwise. Addresses are the ones of the
+ *   {@link MemoryManagementUnit}.
+ */
+public class StackEngine {
+    /** Size of a stack slot, in bytes */
+    private static final int SLOT_SIZE = 2;
+
+    /** The unit owning the stack. Used to raise errors */
+    private final MemoryManagementUnit memoryManagementUnit;
+    /** Reference to the stack pointer {@link Register} */
+    private final Register stackPointer;
+    /** Location of the stack head */
+    private final AbsoluteMemoryLocation stackHeadReference;
+    /** Page table of the {@link StackEngine#memoryManagementUnit}, used to access the stack head */
+    private final MemoryPages memoryPages;
+
+    /**
+     * Primary constructor. Stack engines are obtained through {@link MemoryManagementUnit#getStackEngine}.
+     * @param memoryManagementUnit the unit owning the stack
+     * @param stackPointer reference to the {@link Register} that acts as the stack pointer
+     * @param memoryPages the page table of the unit owning the stack
+     */
+    StackEngine(MemoryManagementUnit memoryManagementUnit, Register stackPointer, MemoryPages memoryPages) {
+        assert memoryManagementUnit != null;
+        assert stackPointer != null;
+        assert memoryPages != null;
+        this.memoryManagementUnit = memoryManagementUnit;
+        this.stackPointer = stackPointer;
+        this.memoryPages = memoryPages;
+        stackHeadReference = new AbsoluteMemoryLocation(stackPointer);
+    }
+
+    /**
+     * Method used to read the slot at the stack pointer
+     * @return the value of the stack head
+     */
+    public char top() {
+        return memoryPages.read(stackHeadReference);
+    }
+
+    /**
+     * Method used to push a value: it is written at the stack pointer, which is then moved to the next slot.
+     * @param value the value to push
+     * @return true if pushed, false if the stack would overflow, in which case {@link FlagRegister#SEG_FLAG} is raised
+     */
+    public boolean push(char value) {
+        var address = stackPointer.getValue();
+        if (address > Character.MAX_VALUE - SLOT_SIZE) {
+            memoryManagementUnit.raiseFlag(SEG_FLAG);
+            return false;
+        }
+        memoryPages.write(stackHeadReference, value);
+        stackPointer.setValue((char) (address + SLOT_SIZE));
+        return true;
+    }
+
+    /**
+     * Method used to pop a slot: the stack pointer is moved to the previous slot, whose value is then available
+     *   through {@link StackEngine#top}.
+     * @return true if popped, false if the stack would underflow, in which case {@link FlagRegister#SEG_FLAG} is
+     *   raised
+     */
+    public boolean pop() {
+        var address = stackPointer.getValue();
+        if (address < SLOT_SIZE) {
+            memoryManagementUnit.raiseFlag(SEG_FLAG);
+            return false;
+        }
+        stackPointer.setValue((char) (address - SLOT_SIZE));
+        return true;
+    }
+}
@@ -0,0 +1,120 @@
+package ro.uaic.swqual.swing;
+
+import ro.uaic.swqual.exception.ParameterException;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+public class ClockPacer {
+    public static final long UNLIMITED_FREQUENCY = 0;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // Paced runs execute ~1ms worth of instructions between two sleeps
+    private static final long BATCHES_PER_SECOND = 1_000;
+    private static final int UNLIMITED_BATCH_SIZE = 4_096;
+    // When lagging behind more than this, the lost time is dropped instead of being caught up in a burst
+    private static final long MAX_LAG_NANOS = 50_000_000L;
+    private static final long MEASURE_WINDOW_NANOS = 500_000_000L;
+
+    private volatile long targetFrequency = UNLIMITED_FREQUENCY;
+    private volatile double achievedFrequency = 0;
+
+    // Only accessed by the paced thread
+    private long pacedFrequency = UNLIMITED_FREQUENCY;
+    private long periodStartNanos;
+    private long periodTicks;
+    private long windowStartNanos;
+    private long windowTicks;
+
+    public void setTargetFrequency(long frequency) {
+        if (frequency < 0) {
+            throw new ParameterException("Invalid clock frequency: " + frequency + ". Must not be negative");
+        }
+        targetFrequency = frequency;
+    }
+
+    public long getTargetFrequency() {
+        return targetFrequency;
+    }
+
+    public double getAchievedFrequency() {
+        return achievedFrequency;
+    }
+
+    public void restart() {
+        var now = System.nanoTime();
+        pacedFrequency = targetFrequency;
+        periodStartNanos = now;
+        periodTicks = 0;
+        windowStartNanos = now;
+        windowTicks = 0;
+    }
+
+    public void stop() {
+        achievedFrequency = 0;
+    }
+
+    public int nextBatchSize() {
+        if (pacedFrequency != targetFrequency) {
+            restart();
+        }
+
+        if (pacedFrequency == UNLIMITED_FREQUENCY) {
+            return UNLIMITED_BATCH_SIZE;
+        }
+        return Math.clamp(pacedFrequency / BATCHES_PER_SECOND, 1, UNLIMITED_BATCH_SIZE);
+    }
+
+    public void pace(long executedTicks, BooleanSupplier keepWaiting) {
+        measure(executedTicks);
+        if (pacedFrequency == UNLIMITED_FREQUENCY) {
+            return;
+        }
+
+        // The deadline is computed from the start of the period, not the previous batch,
+        // so that sleep and scheduling inaccuracies do not accumulate.
+        periodTicks += executedTicks;
+        var deadline = periodStartNanos + ticksToNanos(periodTicks);
+        var remaining = deadline - System.nanoTime();
+        if (remaining < -MAX_LAG_NANOS) {
+            periodStartNanos = System.nanoTime();
+            periodTicks = 0;
+            return;
+        }
+
+        // parkNanos can return early (unpark, spurious wake-ups), so re-check the deadline
+        while (remaining > 0 && pacedFrequency == targetFrequency && keepWaiting.getAsBoolean()) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+
+        // Keep the arithmetic far from overflowing on long runs
+        if (periodTicks >= pacedFrequency) {
+            periodStartNanos = deadline;
+            periodTicks = 0;
+        }
+    }
+
+    // Ticks the paced clock would have executed in the given time. 0 when unlimited, as there is no set rate
+    public long nanosToTicks(long nanos) {
+        if (pacedFrequency == UNLIMITED_FREQUENCY) {
+            return 0;
+        }
+        return (long) ((double) nanos * pacedFrequency / NANOS_PER_SECOND);
+    }
+
+    private long ticksToNanos(long ticks) {
+        return (long) ((double) ticks * NANOS_PER_SECOND / pacedFrequency);
+    }
+
+    private void measure(long executedTicks) {
+        windowTicks += executedTicks;
+        var now = System.nanoTime();
+        var elapsed = now - windowStartNanos;
+        if (elapsed >= MEASURE_WINDOW_NANOS) {
+            achievedFrequency = (double) windowTicks * NANOS_PER_SECOND / elapsed;
+            windowStartNanos = now;
+            windowTicks = 0;
+        }
+    }
+}
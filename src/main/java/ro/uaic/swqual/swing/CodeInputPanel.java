@@ -1,9 +1,13 @@
 package ro.uaic.swqual.swing;
 
+import ro.uaic.swqual.IncrementalAssembler;
+import ro.uaic.swqual.ObjectFile;
 import ro.uaic.swqual.Parser;
 import ro.uaic.swqual.model.Instruction;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -14,6 +18,9 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class CodeInputPanel extends JPanel {
     private JPanel panel1;
@@ -21,6 +28,7 @@ public class CodeInputPanel extends JPanel {
     private JTextArea codeArea;
     private JButton runButton;
     private JButton chooseFileButton;
+    private JCheckBox flagElisionBox;
     private JTextArea textArea3;
     private JTextPane display;
     private JLabel r0Val;
@@ -35,12 +43,36 @@ public class CodeInputPanel extends JPanel {
     private JLabel pcVal;
     private JLabel flVal;
     private JPanel kbPanel;
+    private JLabel assemblyStatus;
+
+    // Delay after the last edit before the code is assembled again, so that typing stays responsive
+    private static final int ASSEMBLY_DELAY_MS = 300;
 
     private static Parser parser = new Parser();
     private CpuOrchestrator cpuOrchestrator;
+    // Assembles the edited code. Only used from the assembly thread
+    private IncrementalAssembler assembler;
+    private final ExecutorService assemblyExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "code-assembler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Timer assemblyTimer = new Timer(ASSEMBLY_DELAY_MS, e -> scheduleAssembly());
+    // Set while the code area is filled from a file, which is loaded through the parser instead
+    private boolean loadingFile = false;
+    // Program assembled from the edited code, tagged with the generation of the code it was assembled from
+    private record AssembledProgram(long generation, List<Instruction> instructions) {}
+    // Incremented when the code is replaced, so that assemblies of the previous code are discarded.
+    // Only accessed from the event dispatch thread
+    private long codeGeneration = 0;
+    // Latest program assembled from the edited code. Installed once the machine is stopped, since installing it
+    // restarts the machine
+    private final AtomicReference<AssembledProgram> pendingProgram = new AtomicReference<>();
 
     public void setCpuOrchestrator(CpuOrchestrator orchestrator) {
         cpuOrchestrator = orchestrator;
+        var registerMap = orchestrator.getCentralProcessingUnit().getRegistryReferenceMap();
+        assemblyExecutor.submit(() -> assembler = new IncrementalAssembler(registerMap));
     }
 
     public void run() {
@@ -48,6 +80,7 @@ public class CodeInputPanel extends JPanel {
             return;
         }
 
+        installPendingProgram();
         cpuOrchestrator.run();
     }
 
@@ -57,18 +90,83 @@ public class CodeInputPanel extends JPanel {
         }
 
         if (cpuOrchestrator.getState() == CpuOrchestrator.State.STOPPED) {
+            installPendingProgram();
             cpuOrchestrator.step();
         } else {
             cpuOrchestrator._break();
         }
     }
 
+    public void setFlagElision(boolean flagElision) {
+        if (cpuOrchestrator == null) {
+            return;
+        }
+
+        cpuOrchestrator.setFlagElision(flagElision);
+    }
+
     public void load(List<Instruction> instructions) {
         cpuOrchestrator.setInstructions(instructions);
     }
 
+    // Runs on the event dispatch thread, which is the only one starting the machine
+    private void installPendingProgram() {
+        if (cpuOrchestrator.getState() != CpuOrchestrator.State.STOPPED) {
+            return;
+        }
+        var program = pendingProgram.getAndSet(null);
+        if (program != null && program.generation() == codeGeneration) {
+            load(program.instructions());
+        }
+    }
+
     public void reset() {
         parser = new Parser();
+        // drop the edits not assembled yet, and the assemblies still running
+        assemblyTimer.stop();
+        ++codeGeneration;
+        pendingProgram.set(null);
+        assemblyStatus.setText(" ");
+        assemblyExecutor.submit(() -> {
+            if (assembler != null) {
+                assembler.clear();
+            }
+        });
+    }
+
+    private void onCodeEdited() {
+        if (loadingFile || cpuOrchestrator == null) {
+            return;
+        }
+        assemblyTimer.restart();
+    }
+
+    private void scheduleAssembly() {
+        var lines = codeArea.getText().lines().toList();
+        var generation = codeGeneration;
+        assemblyExecutor.submit(() -> assemble(lines, generation));
+    }
+
+    // Runs on the assembly thread: only the edited lines are parsed again. The result is only used if the code
+    // was not replaced in the meantime
+    private void assemble(List<String> lines, long generation) {
+        try {
+            pendingProgram.set(new AssembledProgram(generation, assembler.update(lines).getInstructions()));
+            SwingUtilities.invokeLater(() -> {
+                if (generation == codeGeneration) {
+                    assemblyStatus.setText(" ");
+                }
+                installPendingProgram();
+            });
+        } catch (RuntimeException e) {
+            // the code is usually incomplete while being edited. The previous program keeps running
+            var message = "Assembly error: " + e.getMessage();
+            SwingUtilities.invokeLater(() -> {
+                if (generation == codeGeneration) {
+                    assemblyStatus.setText(message);
+                }
+            });
+        }
     }
 
     public CodeInputPanel() {
@@ -84,6 +182,29 @@ public class CodeInputPanel extends JPanel {
                 stop();
             }
         });
+        flagElisionBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                setFlagElision(flagElisionBox.isSelected());
+            }
+        });
+        assemblyTimer.setRepeats(false);
+        codeArea.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                onCodeEdited();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                onCodeEdited();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // attribute changes only, the code is the same
+            }
+        });
         chooseFileButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -92,12 +213,16 @@ public class CodeInputPanel extends JPanel {
                 if (option == JFileChooser.APPROVE_OPTION) {
                     String selectedFilePath = fileChooser.getSelectedFile().getAbsolutePath();
                     // Read file content and display in text area
+                    loadingFile = true;
                     readFileContent(selectedFilePath);
+                    loadingFile = false;
 
                     reset();
-                    load(parser.parse(selectedFilePath)
-                            .resolveReferences(cpuOrchestrator.getCentralProcessingUnit().getRegistryReferenceMap())
-                            .link().getInstructions());
+                    load(parser.parseCached(
+                            selectedFilePath,
+                            cpuOrchestrator.getCentralProcessingUnit().getRegistryReferenceMap(),
+                            ObjectFile.DEFAULT_CACHE_DIRECTORY
+                    ).getInstructions());
 
                     System.out.println("Selected file: " + selectedFilePath);
                     System.out.println("Read code: " + parser.getInstructions().toString());
@@ -129,18 +254,19 @@ public class CodeInputPanel extends JPanel {
     }
 
     public void update() {
-        r0Val.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getDataRegisters().get(0).getValue(), 16));
-        r1Val.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getDataRegisters().get(1).getValue(), 16));
-        r2Val.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getDataRegisters().get(2).getValue(), 16));
-        r3Val.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getDataRegisters().get(3).getValue(), 16));
-        r4Val.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getDataRegisters().get(4).getValue(), 16));
-        r5Val.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getDataRegisters().get(5).getValue(), 16));
-        r6Val.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getDataRegisters().get(6).getValue(), 16));
-        r7Val.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getDataRegisters().get(7).getValue(), 16));
-        spVal.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getStackPointer().getValue(), 16));
-        pcVal.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getProgramCounter().getValue(), 16));
-        flVal.setText("0x" + Integer.toString(cpuOrchestrator.getCentralProcessingUnit().getFlagRegister().getValue(), 16));
-        display.setText(cpuOrchestrator.getDisplay().getText());
+        var snapshot = cpuOrchestrator.getSnapshot();
+        r0Val.setText("0x" + Integer.toString(snapshot.getDataRegister(0), 16));
+        r1Val.setText("0x" + Integer.toString(snapshot.getDataRegister(1), 16));
+        r2Val.setText("0x" + Integer.toString(snapshot.getDataRegister(2), 16));
+        r3Val.setText("0x" + Integer.toString(snapshot.getDataRegister(3), 16));
+        r4Val.setText("0x" + Integer.toString(snapshot.getDataRegister(4), 16));
+        r5Val.setText("0x" + Integer.toString(snapshot.getDataRegister(5), 16));
+        r6Val.setText("0x" + Integer.toString(snapshot.getDataRegister(6), 16));
+        r7Val.setText("0x" + Integer.toString(snapshot.getDataRegister(7), 16));
+        spVal.setText("0x" + Integer.toString(snapshot.getStackPointer(), 16));
+        pcVal.setText("0x" + Integer.toString(snapshot.getProgramCounter(), 16));
+        flVal.setText("0x" + Integer.toString(snapshot.getFlags(), 16));
+        display.setText(snapshot.getDisplayText());
     }
 
     public static void main(String[] args) {
@@ -3,18 +3,29 @@ package ro.uaic.swqual.swing;
 import ro.uaic.swqual.exception.ParameterException;
 import ro.uaic.swqual.mem.RandomAccessMemory;
 import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.MachineCode;
 import ro.uaic.swqual.model.peripheral.Display;
 import ro.uaic.swqual.model.peripheral.Keyboard;
 import ro.uaic.swqual.proc.ArithmeticLogicUnit;
 import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.proc.ClockScheduler;
 import ro.uaic.swqual.proc.InputOutputManagementUnit;
+import ro.uaic.swqual.proc.InstructionCache;
 import ro.uaic.swqual.proc.InstructionProcessingUnit;
 import ro.uaic.swqual.proc.MemoryManagementUnit;
 
+import javax.swing.SwingUtilities;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 public class CpuOrchestrator {
     public enum State {
@@ -27,6 +38,9 @@ public class CpuOrchestrator {
     public static final String KEYBOARD_ADDRESS_KEY = "KeyboardAddress";
     public static final String DISPLAY_ADDRESS_KEY = "DisplayAddress";
     public static final String DISPLAY_SIZE_KEY = "DisplaySize";
+    public static final String FRAME_RATE_KEY = "FrameRate";
+    // In kHz, as configuration values are 16 bit wide. 0 runs as fast as possible
+    public static final String CLOCK_FREQUENCY_KEY = "ClockFrequency";
 
     public static final Character DEFAULT_RAM_ADDRESS = 0x100;
     public static final Character DEFAULT_RAM_SIZE = 0xFC00;
@@ -34,8 +48,11 @@ public class CpuOrchestrator {
     public static final Character KEYBOARD_SIZE = 0x02;
     public static final Character DEFAULT_DISPLAY_ADDRESS = 0x20;
     public static final Character DEFAULT_DISPLAY_SIZE = 0x30;
+    public static final Character DEFAULT_FRAME_RATE = 60;
+    public static final Character DEFAULT_CLOCK_FREQUENCY = 0;
+    public static final Character DEFAULT_MEMORY_WINDOW_SIZE = 0x100;
 
-    private State state = State.STOPPED;
+    private final AtomicReference<State> state = new AtomicReference<>(State.STOPPED);
 
     private final CentralProcessingUnit centralProcessingUnit;
     private final InstructionProcessingUnit instructionProcessingUnit;
@@ -45,9 +62,30 @@ public class CpuOrchestrator {
     private final InputOutputManagementUnit inputOutputManagementUnit;
     private final Keyboard keyboard;
     private final Display display;
-    private final List<Runnable> onUpdateListeners = new ArrayList<>();
-
-    private final Object lock = new Object();
+    private final InstructionCache instructionCache;
+    private final List<Runnable> onUpdateListeners = new CopyOnWriteArrayList<>();
+
+    // Listeners are run on the update dispatcher, never on the cpu thread.
+    // At most one update is queued at a time: a pending update will read the latest state anyway.
+    private final Executor updateDispatcher = SwingUtilities::invokeLater;
+    private final AtomicBoolean updatePending = new AtomicBoolean(false);
+    private volatile long frameIntervalNanos;
+    private long lastUpdateNanos;
+
+    // Snapshots are immutable and swapped in whole by the cpu thread, so readers always see a coherent view
+    private final AtomicReference<MachineSnapshot> snapshot = new AtomicReference<>();
+    private final char ramAddress;
+    // Only accessed by the cpu thread
+    private long snapshotSequence;
+    private char memoryWindowAddress;
+    private byte[] memoryWindow = new byte[DEFAULT_MEMORY_WINDOW_SIZE];
+    // Program as received, before binding, so that it can be bound again. Null while running from memory
+    private List<Instruction> linkedProgram = List.of();
+
+    private final ClockPacer clockPacer = new ClockPacer();
+
+    // Lock-free multi-producer queue of control operations, drained by the cpu thread only
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
     private final Thread cpuClock;
     private final AtomicBoolean running = new AtomicBoolean(true);
 
@@ -97,7 +135,8 @@ public class CpuOrchestrator {
         arithmeticLogicUnit = new ArithmeticLogicUnit(flagRegister, dataRegisters.getLast());
         inputOutputManagementUnit = new InputOutputManagementUnit(flagRegister);
 
-        var ramAddress = configParameters.getOrDefault(RAM_ADDRESS_KEY, DEFAULT_RAM_ADDRESS);
+        ramAddress = configParameters.getOrDefault(RAM_ADDRESS_KEY, DEFAULT_RAM_ADDRESS);
+        memoryWindowAddress = ramAddress;
         var ramSize = configParameters.getOrDefault(RAM_SIZE_KEY, DEFAULT_RAM_SIZE);
         if (ramSize % 0x400 != 0) {
             throw new ParameterException("Invalid RAM configuration size. Must be a multiple of 1024");
@@ -115,6 +154,10 @@ public class CpuOrchestrator {
 
         display = new Display(displaySize, flagRegister);
 
+        setFrameRate(configParameters.getOrDefault(FRAME_RATE_KEY, DEFAULT_FRAME_RATE));
+        // the clock thread is not started yet, no need to wake it
+        var clockFrequency = configParameters.getOrDefault(CLOCK_FREQUENCY_KEY, DEFAULT_CLOCK_FREQUENCY);
+        clockPacer.setTargetFrequency(clockFrequency * 1_000L);
 
         centralProcessingUnit.registerExecutor(arithmeticLogicUnit);
         centralProcessingUnit.registerExecutor(instructionProcessingUnit);
@@ -135,74 +178,317 @@ public class CpuOrchestrator {
         instructionProcessingUnit.registerClockListener(centralProcessingUnit);
         instructionProcessingUnit.subscribe(centralProcessingUnit);
 
+        // access the stack directly on push, pop, call and ret
+        memoryManagementUnit.setStackFastPath(true);
+        instructionProcessingUnit.setStackEngine(memoryManagementUnit.getStackEngine());
+
         var keyboardAddress = configParameters.getOrDefault(KEYBOARD_ADDRESS_KEY, DEFAULT_KEYBOARD_ADDRESS);
         inputOutputManagementUnit.registerHardwareUnit(keyboard, keyboardAddress, KEYBOARD_SIZE);
         inputOutputManagementUnit.registerHardwareUnit(display, displayAddress, displaySize);
 
-        cpuClock = new Thread(() -> {
-            while (running.get()) {
-                synchronized (lock) {
-                    if (state == State.STOPPED) {
-                        try {
-                            lock.wait();
-                            state = State.RUNNING;
-                        } catch (InterruptedException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
+        // tick only the units with work to do on ticks, once all of them are registered
+        instructionProcessingUnit.setClockScheduler(new ClockScheduler());
+        // input arrival resumes an idle cpu
+        keyboard.setPressListener(() -> enqueue(instructionProcessingUnit::wake));
+        // loops polling an empty keyboard wait for input instead of spinning
+        var keyboardEnd = keyboardAddress + KEYBOARD_SIZE;
+        instructionProcessingUnit.setPollingLoopDetection(
+                address -> address >= keyboardAddress && address < keyboardEnd && keyboard.isEmpty()
+        );
+
+        instructionCache = new InstructionCache(memoryManagementUnit, centralProcessingUnit.getRegisterFile());
+
+        snapshot.set(takeSnapshot());
+        cpuClock = new Thread(this::clockLoop);
+        cpuClock.start();
+    }
+
+    // Only ever run on the cpu thread. Every machine mutation happens here, or in the commands drained here.
+    private void clockLoop() {
+        publishUpdate();
+        while (running.get()) {
+            drainCommands();
+            if (state.get() == State.STOPPED) {
+                // Sleep until a command is enqueued (enqueue unparks), re-checking on spurious wake-ups
+                if (commands.isEmpty() && running.get()) {
+                    LockSupport.park(this);
                 }
-                step();
+                continue;
             }
-        });
-        cpuClock.start();
+            if (instructionProcessingUnit.isIdle()) {
+                skipIdleTime();
+                continue;
+            }
+
+            var batchSize = clockPacer.nextBatchSize();
+            var executed = 0;
+            while (executed < batchSize && state.get() == State.RUNNING && commands.isEmpty()
+                    && !instructionProcessingUnit.isIdle()) {
+                instructionProcessingUnit.onTick();
+                ++executed;
+            }
+            publishUpdateIfDue();
+            clockPacer.pace(executed, () -> running.get() && commands.isEmpty());
+        }
+    }
+
+    // While idle, simulated time jumps directly to the next scheduled event instead of ticking through each cycle.
+    // The skipped cycles are still paced, by parking. With nothing scheduled, only input or a command can resume the
+    // cpu, so the thread parks until then (enqueue unparks)
+    private void skipIdleTime() {
+        // a halted cpu only resumes on reset, so the clock stops instead
+        if (instructionProcessingUnit.isHalted()) {
+            stopClock();
+            publishUpdate();
+            return;
+        }
+        // input may have arrived before the cpu started waiting for it
+        if (!keyboard.isEmpty()) {
+            instructionProcessingUnit.wake();
+            return;
+        }
+        var skipped = instructionProcessingUnit.getClockScheduler().skipToNextDeadline();
+        if (skipped == 0) {
+            if (commands.isEmpty() && running.get()) {
+                publishUpdate();
+                var parkedAt = System.nanoTime();
+                LockSupport.park(this);
+                fastForwardIdleLoop(System.nanoTime() - parkedAt);
+            }
+            return;
+        }
+        publishUpdateIfDue();
+        clockPacer.pace(skipped, () -> running.get() && commands.isEmpty());
+    }
+
+    // The iterations of a waiting polling loop are not executed, but their cycles are still counted: as many whole
+    // iterations as the paced clock would have run while parked
+    private void fastForwardIdleLoop(long parkedNanos) {
+        var loop = instructionProcessingUnit.getIdleLoop();
+        if (loop == null) {
+            return;
+        }
+        var scheduler = instructionProcessingUnit.getClockScheduler();
+        var iterations = clockPacer.nanosToTicks(parkedNanos) / loop.length();
+        scheduler.advanceTo(scheduler.getCycle() + iterations * loop.length());
+    }
+
+    private void drainCommands() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+        }
+    }
+
+    private void enqueue(Runnable command) {
+        commands.add(command);
+        LockSupport.unpark(cpuClock);
     }
 
     public void setInstructions(List<Instruction> instructions) {
-        instructionProcessingUnit.setInstructions(instructions);
-        centralProcessingUnit.getProgramCounter().setValue((char) 0);
+        var program = List.copyOf(instructions);
+        enqueue(() -> {
+            instructionCache.invalidateAll();
+            linkedProgram = program;
+            instructionProcessingUnit.setInstructions(prepare(program));
+            // the new program starts from a clean machine, not from the state left by the previous one
+            resetMachine();
+            publishUpdate();
+        });
+    }
+
+    // Constant addresses are located once, instead of on each execution, and instructions are bound to handlers
+    // specialized for their operands
+    private List<Instruction> prepare(List<Instruction> program) {
+        return centralProcessingUnit.specialize(centralProcessingUnit.bind(program));
+    }
+
+    // Unobserved ALU flags are skipped. Off by default, since the register view shows the flags after each step.
+    // Toggled from the code panel
+    public void setFlagElision(boolean flagElision) {
+        enqueue(() -> {
+            centralProcessingUnit.setFlagElision(flagElision);
+            // same instruction count, so the program counter stays valid
+            if (linkedProgram != null) {
+                instructionProcessingUnit.setInstructions(prepare(linkedProgram));
+            }
+        });
+    }
+
+    // Places the linked program in memory as machine code, and runs it from there
+    public void loadProgram(List<Instruction> instructions, char address) {
+        var program = List.copyOf(instructions);
+        // encode on the caller thread, so that encoding errors reach the caller
+        MachineCode.encode(program, address, centralProcessingUnit.getRegisterFile());
+        enqueue(() -> {
+            instructionCache.invalidateAll();
+            linkedProgram = null;
+            instructionCache.load(program, address);
+            instructionProcessingUnit.setInstructionCache(instructionCache, address);
+            instructionProcessingUnit.reset();
+            publishUpdate();
+        });
     }
 
     public void addUpdateListener(Runnable listener) {
         onUpdateListeners.add(listener);
     }
 
-    public void step() {
-        instructionProcessingUnit.onTick();
-        onUpdateListeners.forEach(Runnable::run);
+    public void setFrameRate(int framesPerSecond) {
+        if (framesPerSecond <= 0) {
+            throw new ParameterException("Invalid frame rate: " + framesPerSecond + ". Must be positive");
+        }
+        frameIntervalNanos = 1_000_000_000L / framesPerSecond;
     }
 
-    public State getState() {
-        synchronized (lock) {
-            return state;
+    public int getFrameRate() {
+        return (int) (1_000_000_000L / frameIntervalNanos);
+    }
+
+    public MachineSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public void setMemoryWindow(char address, char size) {
+        if (size == 0) {
+            throw new ParameterException("Invalid memory window size: 0. Must be positive");
+        }
+        enqueue(() -> {
+            memoryWindowAddress = address;
+            memoryWindow = new byte[size];
+            publishUpdate();
+        });
+    }
+
+    private MachineSnapshot takeSnapshot() {
+        var dataRegisters = centralProcessingUnit.getDataRegisters();
+        var registerValues = new char[dataRegisters.size()];
+        for (var index = 0; index < registerValues.length; ++index) {
+            registerValues[index] = dataRegisters.get(index).getValue();
+        }
+
+        // Only ram is captured: reading peripherals (i.e. the keyboard) through the mmu has side effects
+        Arrays.fill(memoryWindow, (byte) 0);
+        if (memoryWindowAddress >= ramAddress) {
+            randomAccessMemory.copyTo((char) (memoryWindowAddress - ramAddress), memoryWindow);
         }
+
+        return new MachineSnapshot(
+                snapshotSequence++,
+                registerValues,
+                centralProcessingUnit.getStackPointer().getValue(),
+                centralProcessingUnit.getProgramCounter().getValue(),
+                centralProcessingUnit.getFlagRegister().getValue(),
+                memoryWindowAddress,
+                memoryWindow,
+                display.getText()
+        );
     }
 
-    public void run() {
-        synchronized (lock) {
-            if (state == State.RUNNING) {
+    private void publishUpdate() {
+        snapshot.set(takeSnapshot());
+        lastUpdateNanos = System.nanoTime();
+        if (updatePending.compareAndSet(false, true)) {
+            updateDispatcher.execute(() -> {
+                updatePending.set(false);
+                onUpdateListeners.forEach(Runnable::run);
+            });
+        }
+    }
+
+    private void publishUpdateIfDue() {
+        if (System.nanoTime() - lastUpdateNanos >= frameIntervalNanos) {
+            publishUpdate();
+        }
+    }
+
+    public void setTargetFrequency(long frequency) {
+        clockPacer.setTargetFrequency(frequency);
+        LockSupport.unpark(cpuClock);
+    }
+
+    public long getTargetFrequency() {
+        return clockPacer.getTargetFrequency();
+    }
+
+    public double getAchievedFrequency() {
+        return clockPacer.getAchievedFrequency();
+    }
+
+    public void step() {
+        step(1);
+    }
+
+    public void step(int count) {
+        if (count <= 0) {
+            throw new ParameterException("Invalid step count: " + count + ". Must be positive");
+        }
+        enqueue(() -> {
+            // Stepping is only valid while stopped. Requests racing with a run are dropped.
+            if (state.get() != State.STOPPED) {
                 return;
             }
+            for (var index = 0; index < count; ++index) {
+                instructionProcessingUnit.onTick();
+            }
+            publishUpdate();
+        });
+    }
 
-            lock.notifyAll();
+    public void reset() {
+        enqueue(() -> {
+            resetMachine();
+            publishUpdate();
+        });
+    }
+
+    private void resetMachine() {
+        stopClock();
+        centralProcessingUnit.getDataRegisters().forEach(register -> register.setValue((char) 0));
+        centralProcessingUnit.getStackPointer().setValue((char) 0);
+        centralProcessingUnit.getFlagRegister().clear();
+        instructionProcessingUnit.reset();
+    }
+
+    public void pokeRegister(String name, char value) {
+        var register = centralProcessingUnit.getRegistryReferenceMap().get(name);
+        if (register == null) {
+            throw new ParameterException("Unknown register: '" + name + "'");
         }
+        enqueue(() -> {
+            register.setValue(value);
+            publishUpdate();
+        });
+    }
 
+    public State getState() {
+        return state.get();
     }
 
-    public void _break() {
-        synchronized (lock) {
-            if (state == State.STOPPED) {
-                return;
+    public void run() {
+        enqueue(() -> {
+            if (state.compareAndSet(State.STOPPED, State.RUNNING)) {
+                clockPacer.restart();
             }
+        });
+    }
 
-            state = State.STOPPED;
+    private void stopClock() {
+        if (state.compareAndSet(State.RUNNING, State.STOPPED)) {
+            clockPacer.stop();
         }
     }
 
+    public void _break() {
+        enqueue(() -> {
+            stopClock();
+            publishUpdate();
+        });
+    }
+
     public void terminate() throws InterruptedException {
-        this.running.set(false);
-        synchronized (lock) {
-            lock.notifyAll();
-        }
+        running.set(false);
+        LockSupport.unpark(cpuClock);
         cpuClock.join();
     }
 }
@@ -0,0 +1,87 @@
+package ro.uaic.swqual.swing;
+
+// Immutable, coherent view of the machine taken by the cpu thread between two instructions.
+// Safe to share with any number of reader threads.
+public final class MachineSnapshot {
+    private final long sequence;
+    private final char[] dataRegisters;
+    private final char stackPointer;
+    private final char programCounter;
+    private final char flags;
+    private final char memoryWindowAddress;
+    private final byte[] memoryWindow;
+    private final String displayText;
+
+    public MachineSnapshot(
+            long sequence,
+            char[] dataRegisters,
+            char stackPointer,
+            char programCounter,
+            char flags,
+            char memoryWindowAddress,
+            byte[] memoryWindow,
+            String displayText
+    ) {
+        this.sequence = sequence;
+        this.dataRegisters = dataRegisters.clone();
+        this.stackPointer = stackPointer;
+        this.programCounter = programCounter;
+        this.flags = flags;
+        this.memoryWindowAddress = memoryWindowAddress;
+        this.memoryWindow = memoryWindow.clone();
+        this.displayText = displayText;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getDataRegisterCount() {
+        return dataRegisters.length;
+    }
+
+    public char getDataRegister(int index) {
+        return dataRegisters[index];
+    }
+
+    public char[] getDataRegisters() {
+        return dataRegisters.clone();
+    }
+
+    public char getStackPointer() {
+        return stackPointer;
+    }
+
+    public char getProgramCounter() {
+        return programCounter;
+    }
+
+    public char getFlags() {
+        return flags;
+    }
+
+    public char getMemoryWindowAddress() {
+        return memoryWindowAddress;
+    }
+
+    public int getMemoryWindowSize() {
+        return memoryWindow.length;
+    }
+
+    // Little endian, same as RandomAccessMemory. Address is absolute, and must be inside the window.
+    public char readMemoryWindow(char address) {
+        var offset = address - memoryWindowAddress;
+        if (offset < 0 || offset + 1 >= memoryWindow.length) {
+            throw new IndexOutOfBoundsException("Address " + (int) address + " outside of snapshot memory window");
+        }
+        return (char) ((memoryWindow[offset] & 0xFF) | (memoryWindow[offset + 1] & 0xFF) << 8);
+    }
+
+    public byte[] getMemoryWindow() {
+        return memoryWindow.clone();
+    }
+
+    public String getDisplayText() {
+        return displayText;
+    }
+}
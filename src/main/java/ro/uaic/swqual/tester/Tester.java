@@ -6,7 +6,7 @@ import ro.uaic.swqual.model.peripheral.Display;
 import ro.uaic.swqual.model.peripheral.Keyboard;
 import ro.uaic.swqual.proc.ArithmeticLogicUnit;
 import ro.uaic.swqual.proc.CentralProcessingUnit;
-import ro.uaic.swqual.proc.ClockListener;
+import ro.uaic.swqual.proc.ClockScheduler;
 import ro.uaic.swqual.proc.InputOutputManagementUnit;
 import ro.uaic.swqual.proc.InstructionProcessingUnit;
 import ro.uaic.swqual.proc.MemoryManagementUnit;
@@ -83,6 +83,8 @@ public class Tester implements Runnable {
         parser.addOnKbPreloadListener(parameters -> parameters.forEach(p -> kb.press(p.getValue())));
 
         var instr = parser.parse(path).link().getInstructions();
+        // packed before resolving, which rewrites the parsed instructions to the registers of this machine
+        var image = parser.image(CentralProcessingUnit.REGISTER_NAMES);
         var cpu = new CentralProcessingUnit();
         var freg = cpu.getFlagRegister();
         var dregs = cpu.getDataRegisters();
@@ -121,6 +123,10 @@ public class Tester implements Runnable {
         cpu.registerClockListener(alu);
         // Never link cpu back to ipu with ClockListener
 
+        // access the stack directly on push, pop, call and ret
+        mmu.setStackFastPath(true);
+        ipu.setStackEngine(mmu.getStackEngine());
+
         var iomu = new InputOutputManagementUnit(freg);
         var disp = new Display(IOMU_DISP_SIZE, freg);
         iomu.registerHardwareUnit(kb, IOMU_KB_OFFSET, IOMU_KB_SIZE);
@@ -137,6 +143,12 @@ public class Tester implements Runnable {
             // do nothing
         }
 
+        // tick only the units with work to do on ticks, once all of them are registered
+        ipu.setClockScheduler(new ClockScheduler());
+        // run the program image, with bound and specialized instructions. The parsed instructions are still used to
+        // find the expectations of each executed instruction
+        ipu.setPackedProgram(image, cpu.getRegisterFile(), cpu::preparer);
+
         // if no expectations found, fail early
         if (parser.getExpectationMap().isEmpty()) {
             err.accept("Error: no expectations found in '" + path + "'");
@@ -154,7 +166,7 @@ public class Tester implements Runnable {
         }
 
         // start simulating execution
-        simulate(parser, cpu, ipu, () -> pc.getValue() < instr.size() ? instr.get(pc.getValue()) : null);
+        simulate(parser, cpu, ipu, kb, () -> pc.getValue() < instr.size() ? instr.get(pc.getValue()) : null);
         // after which, draw conclusions
         drawConclusions(parser.isExpectedToSucceed());
     }
@@ -162,20 +174,30 @@ public class Tester implements Runnable {
     /**
      * Method used to invoke the actual simulation. Will run the root clock listener until failure is raised in the cpu,
      * specifically {@link ro.uaic.swqual.model.operands.FlagRegister#ILLEGAL_FLAG FlagRegister.ILLEGAL_FLAG},
-     * signifying end of instruction list.
+     * signifying end of instruction list, or until the program stops cleanly: after a
+     * {@link ro.uaic.swqual.model.InstructionType#IPU_HLT hlt}, or when waiting for input while the keyboard is empty,
+     * as no more input will arrive.
      * @param parser the parser that was used to acquire the instructions. Used to extract expectations from
      * @param cpu the cpu simulating the code, used to get the flag register
      * @param stepper the root clock listener (ipu) that will pass the clock signal along
+     * @param kb the keyboard, holding the input still to be read
      * @param currentInstruction supplier returning the next instruction to be run (to obtain associated expectation)
      */
     private void simulate(
             TesterParser parser,
             CentralProcessingUnit cpu,
-            ClockListener stepper,
+            InstructionProcessingUnit stepper,
+            Keyboard kb,
             Supplier<Instruction> currentInstruction
     ) {
         var freg = cpu.getFlagRegister();
         while (!freg.isSet(ILLEGAL_FLAG)) {
+            if (stepper.isIdle()) {
+                if (stepper.isHalted() || kb.isEmpty()) {
+                    return;
+                }
+                stepper.wake();
+            }
             var nextInstr = currentInstruction.get();
             var expMap = parser.getExpectationMap();
             assert expMap != null;
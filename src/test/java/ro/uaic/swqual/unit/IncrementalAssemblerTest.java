@@ -0,0 +1,134 @@
+package ro.uaic.swqual.unit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ro.uaic.swqual.IncrementalAssembler;
+import ro.uaic.swqual.Parser;
+import ro.uaic.swqual.exception.parser.DuplicateJumpTargetException;
+import ro.uaic.swqual.exception.parser.JumpLabelNotFoundException;
+import ro.uaic.swqual.exception.parser.UndefinedReferenceException;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalAssemblerTest {
+    private static final List<String> SOURCE = List.of(
+            "@start:",
+            "mov r0 0;",
+            "@loop:",
+            "add r0 1;",
+            "cmp r0 10;",
+            "jlt @loop;",
+            "// done",
+            "jmp @start;"
+    );
+
+    private final Map<String, Register> registerMap = new CentralProcessingUnit().getRegistryReferenceMap();
+
+    @Test
+    void updateShouldOnlyParseChangedLines() {
+        var assembler = new IncrementalAssembler(registerMap).update(SOURCE);
+        assertEquals(SOURCE.size(), assembler.getParsedLineCount());
+        var before = assembler.getInstructions();
+
+        var edited = new ArrayList<>(SOURCE);
+        edited.set(4, "cmp r0 20;");
+        assembler.update(edited);
+        var after = assembler.getInstructions();
+        assertEquals(1, assembler.getParsedLineCount());
+        assertNotSame(before.get(2), after.get(2));
+        // labels did not move, so jumps are not linked again
+        assertSame(before.get(3), after.get(3));
+        assertSame(before.get(4), after.get(4));
+
+        edited.add(1, "sub r1 r1;");
+        assembler.update(edited);
+        assertEquals(1, assembler.getParsedLineCount());
+        // @start did not move, but @loop did
+        assertSame(after.get(4), assembler.getInstructions().get(5));
+        assertNotSame(after.get(3), assembler.getInstructions().get(4));
+        assertEquals((char) 2, assembler.getInstructions().get(4).getParam1().getValue());
+        assertArrayEquals(new int[] {2, 3, 5, 6, 7, 9}, assembler.getInstructionLines());
+    }
+
+    @Test
+    void updateShouldRaiseSameErrorsAsFullParse() {
+        var assembler = new IncrementalAssembler(registerMap).update(SOURCE);
+        var edited = new ArrayList<>(SOURCE);
+        edited.set(7, "jmp @nowhere;");
+        assertThrows(JumpLabelNotFoundException.class, () -> assembler.update(edited));
+        edited.set(1, "mov r9 0;");
+        assertThrows(UndefinedReferenceException.class, () -> assembler.update(edited));
+        edited.add("@loop:");
+        assertThrows(DuplicateJumpTargetException.class, () -> assembler.update(edited));
+
+        // the previous successful program is kept, and fixing the errors recovers
+        assertEquals(5, assembler.getInstructions().size());
+        assembler.update(SOURCE);
+        assertEquals(5, assembler.getInstructions().size());
+    }
+
+    @Test
+    void randomEditsShouldMatchFullParse(@TempDir Path directory) throws IOException {
+        var pool = List.of(
+                "@d:", "mov r0 1;", "add r1 r0;", "jmp @a;", "jne @b;", "call @c;", "ret;",
+                "// comment", "", "mov [r0 + 2] r1;", "push r2;"
+        );
+        var random = new Random(36);
+        var assembler = new IncrementalAssembler(registerMap);
+        // labels used by the pool, never edited, so that most edits produce valid programs
+        var header = 3;
+        var source = new ArrayList<>(List.of("@a:", "@b:", "@c:"));
+        var file = directory.resolve("source.txt");
+        var validPrograms = 0;
+        for (var edit = 0; edit < 300; ++edit) {
+            var first = header + random.nextInt(source.size() - header + 1);
+            var removed = random.nextInt(Math.min(3, source.size() - first) + 1);
+            source.subList(first, first + removed).clear();
+            for (var added = random.nextInt(4); added > 0; --added) {
+                source.add(first, pool.get(random.nextInt(pool.size())));
+            }
+
+            Files.write(file, source);
+            Exception expected = null;
+            Parser parser = null;
+            try {
+                parser = new Parser().parse(file.toString()).resolveReferences(registerMap).link();
+            } catch (RuntimeException exception) {
+                expected = exception;
+            }
+            Exception actual = null;
+            try {
+                assembler.update(source);
+            } catch (RuntimeException exception) {
+                actual = exception;
+            }
+
+            if (expected != null) {
+                assertEquals(expected.getClass(), actual == null ? null : actual.getClass());
+                assertEquals(expected.getMessage(), actual.getMessage());
+            } else {
+                assertEquals(null, actual);
+                assertEquals(parser.getInstructions(), assembler.getInstructions());
+                assertArrayEquals(parser.getInstructionLines(), assembler.getInstructionLines());
+                ++validPrograms;
+            }
+        }
+        // the comparison must not only cover errors
+        assertTrue(validPrograms > 50);
+    }
+}
@@ -0,0 +1,129 @@
+package ro.uaic.swqual.unit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ro.uaic.swqual.Linker;
+import ro.uaic.swqual.ModuleLibrary;
+import ro.uaic.swqual.ObjectFile;
+import ro.uaic.swqual.Parser;
+import ro.uaic.swqual.exception.parser.DuplicateJumpTargetException;
+import ro.uaic.swqual.exception.parser.JumpLabelNotFoundException;
+import ro.uaic.swqual.exception.parser.ParserException;
+import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.Label;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkerTest {
+    private static final String MAIN = """
+            .import @isPrime;
+            @start:
+            mov r0 7;
+            call @isPrime;
+            jmp @start;
+            """;
+
+    private static final String LIBRARY = """
+            // shared routine
+            .export @isPrime;
+            @isPrime:
+            cmp r0 2;
+            jlt @isPrimeEnd;
+            mov r1 1;
+            @isPrimeEnd:
+            ret;
+            """;
+
+    private static ObjectFile assemble(Path directory, String name, String source) throws IOException {
+        var path = directory.resolve(name);
+        Files.writeString(path, source);
+        return new Parser().parse(path.toString()).assemble();
+    }
+
+    @Test
+    void assembleShouldKeepLabelsUnresolved(@TempDir Path directory) throws IOException {
+        var module = assemble(directory, "main.txt", MAIN);
+        assertEquals(Map.of("@start", 0), module.getLabels());
+        assertEquals(List.of("@isPrime"), module.getImports());
+        assertEquals(List.of(), module.getExports());
+        assertInstanceOf(Label.class, module.getInstructions().get(1).getParam1());
+    }
+
+    @Test
+    void linkShouldResolveLocalAndImportedLabels(@TempDir Path directory) throws IOException {
+        var main = assemble(directory, "main.txt", MAIN);
+        var library = assemble(directory, "library.txt", LIBRARY);
+        var program = new Linker().add(main).add(library).link();
+
+        var instructions = program.getInstructions();
+        assertEquals(7, instructions.size());
+        // call @isPrime -> first library instruction, jmp @start -> 0, jlt @isPrimeEnd -> 3 + 3
+        assertEquals(new Constant((char) 3), instructions.get(1).getParam1());
+        assertEquals(new Constant((char) 0), instructions.get(2).getParam1());
+        assertEquals(new Constant((char) 6), instructions.get(4).getParam1());
+        assertArrayEquals(new int[] {3, 4, 5, 4, 5, 6, 8}, program.getInstructionLines());
+        // modules are left untouched
+        assertInstanceOf(Label.class, main.getInstructions().get(1).getParam1());
+    }
+
+    @Test
+    void assembleShouldRejectUndeclaredLabels(@TempDir Path directory) throws IOException {
+        assertThrows(JumpLabelNotFoundException.class,
+                () -> assemble(directory, "a.txt", "jmp @missing;\n"));
+        assertThrows(JumpLabelNotFoundException.class,
+                () -> assemble(directory, "b.txt", ".export @missing;\nret;\n"));
+        assertThrows(DuplicateJumpTargetException.class,
+                () -> assemble(directory, "c.txt", ".import @here;\n@here:\nret;\n"));
+        assertThrows(ParserException.class, () -> assemble(directory, "d.txt", ".global @here;\n"));
+        assertThrows(ParserException.class, () -> assemble(directory, "e.txt", ".export @a @b;\n"));
+        assertThrows(ParserException.class, () -> assemble(directory, "f.txt", ".export @a\n"));
+    }
+
+    @Test
+    void linkShouldRejectMissingOrDuplicateExports(@TempDir Path directory) throws IOException {
+        var main = assemble(directory, "main.txt", MAIN);
+        var library = assemble(directory, "library.txt", LIBRARY);
+        assertThrows(JumpLabelNotFoundException.class, () -> new Linker().add(main).link());
+        assertThrows(DuplicateJumpTargetException.class,
+                () -> new Linker().add(main).add(library).add(library).link());
+    }
+
+    @Test
+    void libraryShouldOnlyReassembleChangedModules(@TempDir Path directory) throws IOException {
+        var main = directory.resolve("main.txt");
+        var library = directory.resolve("library.txt");
+        Files.writeString(main, MAIN);
+        Files.writeString(library, LIBRARY);
+        var modules = new ModuleLibrary(directory.resolve("modules"));
+
+        var registerMap = new CentralProcessingUnit().getRegistryReferenceMap();
+        var first = new Parser()
+                .parseModules(List.of(main.toString(), library.toString()), modules)
+                .resolveReferences(registerMap);
+        var libraryModule = modules.pathFor(ObjectFile.hash(library));
+        assertTrue(Files.exists(libraryModule));
+        assertTrue(Files.exists(modules.pathFor(ObjectFile.hash(main))));
+        var epoch = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(libraryModule, epoch);
+
+        Files.writeString(main, "// changed\n" + MAIN);
+        var second = new Parser()
+                .parseModules(List.of(main.toString(), library.toString()), modules)
+                .resolveReferences(registerMap);
+        assertEquals(first.getInstructions(), second.getInstructions());
+        assertTrue(Files.exists(modules.pathFor(ObjectFile.hash(main))));
+        assertEquals(epoch, Files.getLastModifiedTime(libraryModule));
+    }
+}
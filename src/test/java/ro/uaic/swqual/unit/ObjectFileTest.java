@@ -0,0 +1,133 @@
+package ro.uaic.swqual.unit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ro.uaic.swqual.ModuleLibrary;
+import ro.uaic.swqual.ObjectFile;
+import ro.uaic.swqual.Parser;
+import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjectFileTest {
+    private static final String SOURCE = """
+            // object file round trip
+            @start:
+            mov r0 0x10;
+            mov [r0 + 2 - r1] [sp];
+            add r1 [0x200];
+            jmp @start;
+            push r2;
+            ret;
+            """;
+
+    @Test
+    void writeReadShouldRoundTrip(@TempDir Path directory) throws IOException {
+        var source = directory.resolve("program.txt");
+        Files.writeString(source, SOURCE);
+        var registerMap = new CentralProcessingUnit().getRegistryReferenceMap();
+        var parser = new Parser().parse(source.toString()).resolveReferences(registerMap).link();
+
+        var hash = ObjectFile.hash(source);
+        var objectPath = ObjectFile.pathFor(directory, ObjectFile.Kind.PROGRAM, hash);
+        new ObjectFile(parser.getInstructions(), parser.getInstructionLines()).write(objectPath, hash, registerMap);
+        var read = ObjectFile.read(objectPath, ObjectFile.Kind.PROGRAM, hash, registerMap);
+
+        assertNotNull(read);
+        assertEquals(parser.getInstructions(), read.getInstructions());
+        assertArrayEquals(new int[] {3, 4, 5, 6, 7, 8}, read.getInstructionLines());
+        assertSame(registerMap.get("r0"), read.getInstructions().getFirst().getParam1());
+        assertInstanceOf(RelativeMemoryLocation.class, read.getInstructions().get(1).getParam1());
+    }
+
+    @Test
+    void readShouldMissOnStaleOrCorruptObject(@TempDir Path directory) throws IOException {
+        var source = directory.resolve("program.txt");
+        Files.writeString(source, SOURCE);
+        var registerMap = new CentralProcessingUnit().getRegistryReferenceMap();
+        var cacheDirectory = directory.resolve("objects");
+        var objectPath = ObjectFile.pathFor(cacheDirectory, ObjectFile.Kind.PROGRAM, ObjectFile.hash(source));
+        assertNull(ObjectFile.read(objectPath, ObjectFile.Kind.PROGRAM, ObjectFile.hash(source), registerMap));
+
+        new Parser().parseCached(source.toString(), registerMap, cacheDirectory);
+        assertTrue(Files.exists(objectPath));
+        // nothing is written next to the source
+        assertFalse(Files.exists(directory.resolve("program.txt" + ObjectFile.Kind.PROGRAM.getExtension())));
+        assertNotNull(ObjectFile.read(objectPath, ObjectFile.Kind.PROGRAM, ObjectFile.hash(source), registerMap));
+
+        Files.writeString(source, SOURCE + "mov r1 r2;\n");
+        assertNull(ObjectFile.read(objectPath, ObjectFile.Kind.PROGRAM, ObjectFile.hash(source), registerMap));
+
+        var bytes = Files.readAllBytes(objectPath);
+        Files.write(objectPath, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+        var oldHash = java.util.Arrays.copyOfRange(bytes, 11, 43);
+        assertNull(ObjectFile.read(objectPath, ObjectFile.Kind.PROGRAM, oldHash, registerMap));
+    }
+
+    @Test
+    void programsAndModulesShouldShareACacheDirectory(@TempDir Path directory) throws IOException {
+        var source = directory.resolve("program.txt");
+        Files.writeString(source, SOURCE);
+        var registerMap = new CentralProcessingUnit().getRegistryReferenceMap();
+        var cacheDirectory = directory.resolve("objects");
+        var hash = ObjectFile.hash(source);
+        var programPath = ObjectFile.pathFor(cacheDirectory, ObjectFile.Kind.PROGRAM, hash);
+        var modulePath = ObjectFile.pathFor(cacheDirectory, ObjectFile.Kind.MODULE, hash);
+        assertNotEquals(programPath, modulePath);
+
+        var module = new ModuleLibrary(cacheDirectory).assemble(source);
+        assertEquals(ObjectFile.Kind.MODULE, module.getKind());
+        var program = new Parser().parseCached(source.toString(), registerMap, cacheDirectory);
+        assertEquals(new Parser().parse(source.toString()).resolveReferences(registerMap).link().getInstructions(),
+                program.getInstructions());
+        assertNotNull(ObjectFile.read(modulePath, ObjectFile.Kind.MODULE, hash, Map.of()));
+        assertEquals(ObjectFile.Kind.PROGRAM,
+                ObjectFile.read(programPath, ObjectFile.Kind.PROGRAM, hash, registerMap).getKind());
+
+        // an object of the wrong kind is a miss, even under the expected name
+        Files.copy(modulePath, programPath, StandardCopyOption.REPLACE_EXISTING);
+        assertNull(ObjectFile.read(programPath, ObjectFile.Kind.PROGRAM, hash, registerMap));
+        assertNull(ObjectFile.read(programPath, ObjectFile.Kind.PROGRAM, hash, Map.of()));
+        assertNotNull(ObjectFile.read(programPath, ObjectFile.Kind.MODULE, hash, Map.of()));
+    }
+
+    @Test
+    void unreadableObjectShouldMiss(@TempDir Path directory) throws IOException {
+        var source = directory.resolve("program.txt");
+        Files.writeString(source, SOURCE);
+        var registerMap = new CentralProcessingUnit().getRegistryReferenceMap();
+        // exists, but cannot be read as a file
+        var objectPath = Files.createDirectory(ObjectFile.pathFor(directory, ObjectFile.Kind.PROGRAM, ObjectFile.hash(source)));
+        assertNull(ObjectFile.read(objectPath, ObjectFile.Kind.PROGRAM, ObjectFile.hash(source), registerMap));
+    }
+
+    @Test
+    void parseCachedShouldMatchParse(@TempDir Path directory) throws IOException {
+        var source = directory.resolve("program.txt");
+        Files.writeString(source, SOURCE);
+        var registerMap = new CentralProcessingUnit().getRegistryReferenceMap();
+        var expected = new Parser().parse(source.toString()).resolveReferences(registerMap).link();
+
+        var cacheDirectory = directory.resolve("objects");
+        var first = new Parser().parseCached(source.toString(), registerMap, cacheDirectory);
+        var cached = new Parser().parseCached(source.toString(), registerMap, cacheDirectory);
+        assertEquals(expected.getInstructions(), first.getInstructions());
+        assertEquals(expected.getInstructions(), cached.getInstructions());
+        assertArrayEquals(expected.getInstructionLines(), cached.getInstructionLines());
+    }
+}
@@ -3,10 +3,12 @@ package ro.uaic.swqual.unit;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import ro.uaic.swqual.Parser;
 import ro.uaic.swqual.exception.parser.ParserException;
 import ro.uaic.swqual.exception.parser.UndefinedReferenceException;
 import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
 import ro.uaic.swqual.model.operands.Register;
 import ro.uaic.swqual.exception.parser.DuplicateJumpTargetException;
 import ro.uaic.swqual.exception.parser.JumpLabelNotFoundException;
@@ -15,6 +17,11 @@ import ro.uaic.swqual.model.operands.RegisterReference;
 import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
 import ro.uaic.swqual.proc.CentralProcessingUnit;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
 
@@ -195,4 +202,85 @@ class ParserTest {
         assertThrows(ParserException.class, () -> parser.parseInstruction(0, "add r1] r0;"));
         assertThrows(ParserException.class, () -> parser.parseInstruction(0, "add r1 ] r0;"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseSpacedAddressShouldMergeTokens() {
+        var parser = new Parser();
+        var instruction = parser.parseInstruction(0, "  mov\t[ 0x10 ]  [ r0 +\t2 ] ; ").getInstructions().getFirst();
+        assertEquals(InstructionType.MMU_MOV, instruction.getType());
+        assertInstanceOf(ConstantMemoryLocation.class, instruction.getParam1());
+        assertEquals((char) 0x10, instruction.getParam1().getValue());
+        assertInstanceOf(RelativeMemoryLocation.class, instruction.getParam2());
+    }
+
+    @Test
+    void parseEmptyInstructionShouldThrow() {
+        var parser = new Parser();
+        assertThrows(ParserException.class, () -> parser.parseInstruction(0, ";"));
+        assertThrows(ParserException.class, () -> parser.parseInstruction(0, "mov r0 r1 08;"));
+    }
+
+    private static Path writeLargeSource(Path directory, String extraLabel) throws IOException {
+        var source = new StringBuilder();
+        for (var index = 0; index < 20000; ++index) {
+            if (index % 100 == 0) {
+                source.append("@l").append(index).append(":\r\n");
+            }
+            if (index == 15000 && extraLabel != null) {
+                source.append(extraLabel).append("\n");
+            }
+            source.append("  add r").append(index % 8).append(" [r1 + ").append(index).append("];\n");
+            source.append("// comment\n");
+            source.append("jmp @l").append(index / 100 * 100).append(";\n");
+        }
+        var path = directory.resolve("large.txt");
+        Files.writeString(path, source);
+        return path;
+    }
+
+    private static String describe(Parser parser) {
+        var description = new StringBuilder();
+        for (var instruction : parser.getInstructions()) {
+            description.append(instruction.getType()).append(' ');
+            for (var param : Arrays.asList(instruction.getParam1(), instruction.getParam2())) {
+                description.append(param == null ? "null" : param.getClass().getSimpleName()).append(':');
+                if (param == null) {
+                    continue;
+                } else if (param instanceof RegisterReference ref) {
+                    description.append(ref.getName()).append('@').append(ref.getReferencedAtLine());
+                } else if (!(param instanceof RelativeMemoryLocation)) {
+                    description.append((int) param.getValue());
+                }
+                description.append(' ');
+            }
+            description.append('\n');
+        }
+        return description.toString();
+    }
+
+    @Test
+    void parseParallelShouldMatchSequentialParse(@TempDir Path directory) throws IOException {
+        var path = writeLargeSource(directory, null).toString();
+        var sequential = new Parser().parse(path).link();
+        var parallel = new Parser().parseParallel(path).link();
+        assertEquals(40000, parallel.getInstructions().size());
+        assertEquals(describe(sequential), describe(parallel));
+
+        for (var resource : List.of("src/test/resources/unit/test-parser.txt", "src/test/resources/unit/test-jmp.txt")) {
+            assertEquals(describe(new Parser().parse(resource).link()), describe(new Parser().parseParallel(resource).link()));
+        }
+    }
+
+    @Test
+    void parseParallelShouldThrowFirstError(@TempDir Path directory) throws IOException {
+        var duplicate = writeLargeSource(directory, "@l100:").toString();
+        var exception = assertThrows(DuplicateJumpTargetException.class, () -> parser.parseParallel(duplicate));
+        var expected = assertThrows(DuplicateJumpTargetException.class, () -> new Parser().parse(duplicate));
+        assertEquals(expected.getMessage(), exception.getMessage());
+
+        var invalid = writeLargeSource(directory, "add r0 r1").toString();
+        assertThrows(ParserException.class, () -> parser.parseParallel(invalid));
+        assertThrows(DuplicateJumpTargetException.class, () -> parser.parseParallel("src/test/resources/unit/test-jmp-failure-dup.txt"));
+        assertThrows(ParserException.class, () -> parser.parseParallel("src/test/resources/unit/missing.txt"));
+    }
+}
@@ -0,0 +1,41 @@
+package ro.uaic.swqual.unit;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.Parser;
+import ro.uaic.swqual.SourceMap;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SourceMapTest {
+    @Test
+    void sourceMapShouldSurviveLinkAndResolve() {
+        var parser = new Parser().parse("src/test/resources/unit/test-jmp.txt");
+        var parsed = parser.getSourceMap().getPcToLine();
+        parser.link().resolveReferences(new CentralProcessingUnit().getRegistryReferenceMap());
+        var sourceMap = parser.getSourceMap();
+
+        assertArrayEquals(new int[] {2, 3, 4, 5, 6, 9, 10, 11}, parsed);
+        assertArrayEquals(parsed, sourceMap.getPcToLine());
+        assertEquals(8, sourceMap.size());
+        assertEquals(9, sourceMap.getLine(5));
+        assertEquals(0, sourceMap.getLine(8));
+        assertEquals(0, sourceMap.getLine(-1));
+    }
+
+    @Test
+    void lineToPcShouldMapFirstInstructionOfLine() {
+        var sourceMap = new SourceMap(new int[] {2, 3, 3, 6});
+        assertEquals(0, sourceMap.getProgramCounter(2));
+        assertEquals(1, sourceMap.getProgramCounter(3));
+        assertEquals(3, sourceMap.getProgramCounter(6));
+        assertEquals(SourceMap.NO_PROGRAM_COUNTER, sourceMap.getProgramCounter(4));
+        assertEquals(SourceMap.NO_PROGRAM_COUNTER, sourceMap.getProgramCounter(7));
+        assertEquals(SourceMap.NO_PROGRAM_COUNTER, sourceMap.getProgramCounter(-1));
+
+        assertEquals(0, sourceMap.getNextProgramCounter(1));
+        assertEquals(3, sourceMap.getNextProgramCounter(4));
+        assertEquals(SourceMap.NO_PROGRAM_COUNTER, sourceMap.getNextProgramCounter(7));
+    }
+}
@@ -109,4 +109,27 @@ class RandomAccessMemoryTest implements MemTestUtility, ProcTestUtility {
         Assertions.assertThrows(ValueException.class, () -> new RandomAccessMemory(65537, freg()));
         Assertions.assertThrows(ValueException.class, () -> new RandomAccessMemory(1, freg()));
     }
+
+    @Test
+    void copyToTest() {
+        exceptionLess(() -> {
+            var flags = freg();
+            var ram = new RandomAccessMemory(1024, flags);
+            var addr = reg();
+            var loc = aloc(addr);
+
+            addr.setValue(0x100);
+            ram.write(loc, (char) 0x1234);
+            var window = new byte[4];
+            ram.copyTo((char) 0xFF, window);
+            Assertions.assertArrayEquals(new byte[] {0x00, 0x34, 0x12, 0x00}, window);
+
+            var outside = new byte[] {1, 2, 3, 4};
+            ram.copyTo((char) 1022, outside);
+            Assertions.assertArrayEquals(new byte[] {0, 0, 3, 4}, outside);
+            ram.copyTo((char) 2000, outside);
+            Assertions.assertArrayEquals(new byte[] {0, 0, 3, 4}, outside);
+            Assertions.assertEquals((char) 0x0, flags.getValue());
+        });
+    }
 }
@@ -0,0 +1,41 @@
+package ro.uaic.swqual.unit.mem;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.mem.Watchpoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WatchpointTest {
+    @Test
+    void coversShouldIncludeAccessesTouchingTheRange() {
+        var watchpoint = new Watchpoint((char) 0x100, (char) 4, Watchpoint.Access.READ_WRITE, (w, a, addr, v) -> {});
+        assertEquals(0x100, watchpoint.getBegin());
+        assertEquals(0x103, watchpoint.getEnd());
+        assertFalse(watchpoint.covers((char) 0xFE));
+        // two-byte access at 0xFF touches 0x100
+        assertTrue(watchpoint.covers((char) 0xFF));
+        assertTrue(watchpoint.covers((char) 0x100));
+        assertTrue(watchpoint.covers((char) 0x103));
+        assertFalse(watchpoint.covers((char) 0x104));
+    }
+
+    @Test
+    void rangeShouldBeTruncatedToAddressSpace() {
+        var watchpoint = new Watchpoint((char) 0xFFF0, (char) 0x100, Watchpoint.Access.READ, (w, a, addr, v) -> {});
+        assertEquals(0xFFFF, watchpoint.getEnd());
+    }
+
+    @Test
+    void hitShouldOnlyNotifyWatchedAccessKinds() {
+        var hits = new ArrayList<Watchpoint.Access>();
+        var watchpoint = new Watchpoint((char) 0, (char) 2, Watchpoint.Access.WRITE, (w, a, addr, v) -> hits.add(a));
+        watchpoint.hit(Watchpoint.Access.READ, (char) 0, (char) 1);
+        watchpoint.hit(Watchpoint.Access.WRITE, (char) 0, (char) 1);
+        assertEquals(List.of(Watchpoint.Access.WRITE), hits);
+    }
+}
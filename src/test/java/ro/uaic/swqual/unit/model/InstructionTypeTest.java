@@ -27,8 +27,10 @@ import static ro.uaic.swqual.model.InstructionType.IPU_JGT;
 import static ro.uaic.swqual.model.InstructionType.IPU_JLE;
 import static ro.uaic.swqual.model.InstructionType.IPU_JLT;
 import static ro.uaic.swqual.model.InstructionType.IPU_JMP;
+import static ro.uaic.swqual.model.InstructionType.IPU_HLT;
 import static ro.uaic.swqual.model.InstructionType.IPU_JNE;
 import static ro.uaic.swqual.model.InstructionType.IPU_RET;
+import static ro.uaic.swqual.model.InstructionType.IPU_WFI;
 import static ro.uaic.swqual.model.InstructionType.MMU_MOV;
 import static ro.uaic.swqual.model.InstructionType.MMU_POP;
 import static ro.uaic.swqual.model.InstructionType.MMU_PUSH;
@@ -74,8 +76,18 @@ class InstructionTypeTest {
                         .toList(),
                 List.of(
                         IPU_JMP, IPU_JEQ, IPU_JNE, IPU_JLT, IPU_JLE,
-                        IPU_JGT, IPU_JGE, IPU_CALL, IPU_RET
+                        IPU_JGT, IPU_JGE, IPU_CALL, IPU_RET, IPU_HLT, IPU_WFI
                 )
         );
     }
+
+    @Test
+    void isConditionalJumpShouldOnlyAcceptConditionalJumps() {
+        assertEquals(
+                Arrays.stream(InstructionType.values())
+                        .filter(InstructionType::isConditionalJump)
+                        .toList(),
+                List.of(IPU_JEQ, IPU_JNE, IPU_JLT, IPU_JLE, IPU_JGT, IPU_JGE)
+        );
+    }
 }
@@ -0,0 +1,103 @@
+package ro.uaic.swqual.unit.model;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.exception.ParameterException;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.MachineCode;
+import ro.uaic.swqual.model.operands.Label;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.unit.mem.MemTestUtility;
+import ro.uaic.swqual.unit.proc.ProcTestUtility;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MachineCodeTest implements ProcTestUtility, MemTestUtility {
+    private static Instruction decodeAt(char[] words, int wordOffset, List<Register> registerFile) {
+        var decoded = MachineCode.decode(address -> words[address / 2], (char) (wordOffset * 2), registerFile);
+        assertNotNull(decoded);
+        return decoded.getFirst();
+    }
+
+    @Test
+    void encodeDecodeShouldRoundTrip() {
+        var cpu = new CentralProcessingUnit();
+        var registerFile = cpu.getRegisterFile();
+        var r1 = cpu.getDataRegisters().get(1);
+        var instructions = List.of(
+                mov(r1, _const(0x1234)),
+                mov(cloc((char) 0x200), aloc(cpu.getStackPointer())),
+                add(rloc(r1, RelativeMemoryLocation.SUBTRACTION, _const(4)), aloc(_const(0x300))),
+                new Instruction(InstructionType.IPU_RET)
+        );
+
+        for (var instruction : instructions) {
+            var words = new char[MachineCode.MAX_INSTRUCTION_WORDS];
+            var length = MachineCode.encode(instruction, registerFile, words, 0);
+            assertEquals(MachineCode.length(instruction), length);
+            var decoded = MachineCode.decode(address -> words[address / 2], (char) 0, registerFile);
+            assertNotNull(decoded);
+            assertEquals(length, decoded.getSecond());
+            assertEquals(instruction.getType(), decoded.getFirst().getType());
+        }
+
+        var words = new char[MachineCode.MAX_INSTRUCTION_WORDS];
+        MachineCode.encode(instructions.get(2), registerFile, words, 0);
+        var relative = decodeAt(words, 0, registerFile).getParam1();
+        assertInstanceOf(RelativeMemoryLocation.class, relative);
+        r1.setValue((char) 10);
+        assertEquals((char) 6, relative.getValue());
+        assertSame(r1, decodeAt(encodeAll(instructions.getFirst(), registerFile), 0, registerFile).getParam1());
+    }
+
+    private static char[] encodeAll(Instruction instruction, List<Register> registerFile) {
+        var words = new char[MachineCode.length(instruction)];
+        MachineCode.encode(instruction, registerFile, words, 0);
+        return words;
+    }
+
+    @Test
+    void encodeProgramShouldRelocateJumps() {
+        var cpu = new CentralProcessingUnit();
+        var registerFile = cpu.getRegisterFile();
+        var r0 = cpu.getDataRegisters().getFirst();
+        var program = List.of(mov(r0, _const(1)), add(r0, r0), jmp(1), jmp(3));
+        var words = MachineCode.encode(program, (char) 0x400, registerFile);
+        // mov/add take 3 words each, jmp 2 words
+        assertEquals(10, words.length);
+        assertEquals((char) 0x406, decodeAt(words, 6, registerFile).getParam1().getValue());
+        assertEquals((char) 0x410, decodeAt(words, 8, registerFile).getParam1().getValue());
+        // the program itself is left untouched
+        assertEquals((char) 1, program.get(2).getParam1().getValue());
+        assertThrows(ParameterException.class, () -> MachineCode.encode(List.of(jmp(2)), (char) 0, registerFile));
+    }
+
+    @Test
+    void encodeShouldRejectUnlinkedOrForeignParameters() {
+        var registerFile = new CentralProcessingUnit().getRegisterFile();
+        var words = new char[MachineCode.MAX_INSTRUCTION_WORDS];
+        assertThrows(ParameterException.class,
+                () -> MachineCode.encode(new Instruction(InstructionType.IPU_JMP, new Label("@x")), registerFile, words, 0));
+        assertThrows(ParameterException.class, () -> MachineCode.encode(mov(ref("r0"), _const(0)), registerFile, words, 0));
+        assertThrows(ParameterException.class, () -> MachineCode.encode(mov(reg(), _const(0)), registerFile, words, 0));
+    }
+
+    @Test
+    void decodeShouldRejectInvalidWords() {
+        var registerFile = new CentralProcessingUnit().getRegisterFile();
+        assertNull(MachineCode.decode(address -> 0, (char) 0, registerFile));
+        assertNull(MachineCode.decode(address -> 0xFF00, (char) 0, registerFile));
+        // mov with a register index outside the register file
+        var movRegister = (InstructionType.MMU_MOV.ordinal() + 1) << 8 | 1 << 4;
+        assertNull(MachineCode.decode(address -> address == 0 ? movRegister : 0x40, (char) 0, registerFile));
+    }
+}
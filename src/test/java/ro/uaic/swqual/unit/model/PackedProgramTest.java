@@ -0,0 +1,233 @@
+package ro.uaic.swqual.unit.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ro.uaic.swqual.Parser;
+import ro.uaic.swqual.exception.ParameterException;
+import ro.uaic.swqual.exception.parser.UndefinedReferenceException;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.PackedProgram;
+import ro.uaic.swqual.model.operands.BoundMemoryLocation;
+import ro.uaic.swqual.model.operands.DisplacedMemoryLocation;
+import ro.uaic.swqual.model.operands.Label;
+import ro.uaic.swqual.model.operands.RegisterReference;
+import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.proc.InstructionProcessingUnit;
+import ro.uaic.swqual.proc.SpecializedInstruction;
+import ro.uaic.swqual.unit.mem.MemTestUtility;
+import ro.uaic.swqual.unit.proc.ProcTestUtility;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedProgramTest implements ProcTestUtility, MemTestUtility {
+    private List<Instruction> program(CentralProcessingUnit cpu) {
+        var r = cpu.getDataRegisters();
+        return List.of(
+                mov(r.get(0), _const(0)),                                                           // 0
+                mov(r.get(1), _const(10)),                                                          // 1
+                add(r.get(0), r.get(1)),                                                            // 2
+                mov(rloc(r.get(1), RelativeMemoryLocation.ADDITION, _const(0x200)), r.get(0)),      // 3
+                new Instruction(InstructionType.IPU_CALL, _const(9)),                               // 4
+                sub(r.get(1), _const(1)),                                                           // 5
+                cmp(r.get(1), _const(0)),                                                           // 6
+                jne(2),                                                                             // 7
+                jmp(8),                                                                             // 8
+                add(r.get(2), rloc(r.get(1), RelativeMemoryLocation.ADDITION, _const(0x200))),      // 9
+                mov(new DisplacedMemoryLocation(cpu.getStackPointer(), (char) 2), r.get(2)),        // 10
+                mov(cloc((char) 0x220), aloc(cpu.getStackPointer())),                               // 11
+                new Instruction(InstructionType.IPU_RET)                                            // 12
+        );
+    }
+
+    @Test
+    void viewShouldRoundTrip() {
+        var cpu = new CentralProcessingUnit();
+        var program = program(cpu);
+        var packed = PackedProgram.pack(program, cpu.getRegisterFile());
+        var view = packed.asList(cpu.getRegisterFile());
+        assertEquals(program, view);
+        assertSame(cpu.getDataRegisters().get(1), view.get(2).getParam2());
+        assertEquals(PackedProgram.KIND_EXPRESSION_ADDRESS, packed.getKind(3, 0));
+        assertEquals(PackedProgram.KIND_DISPLACED_ADDRESS, packed.getKind(10, 0));
+        assertEquals(PackedProgram.KIND_NONE, packed.getKind(12, 0));
+
+        cpu.getDataRegisters().get(1).setValue((char) 6);
+        cpu.getStackPointer().setValue((char) 0x2FE);
+        assertEquals((char) 0x206, packed.address(3, 0, cpu.getRegisterFile()));
+        assertEquals((char) 0x300, packed.address(10, 0, cpu.getRegisterFile()));
+        assertEquals((char) 0x2FE, packed.address(11, 1, cpu.getRegisterFile()));
+        // decoded instructions are new objects, the packed program is unchanged by them
+        view.get(1).setParam2(_const(11));
+        assertEquals((char) 10, view.get(1).getParam2().getValue());
+    }
+
+    @Test
+    void packShouldRejectUnlinkedOrForeignParameters() {
+        var registerFile = new CentralProcessingUnit().getRegisterFile();
+        assertThrows(ParameterException.class, () -> PackedProgram.pack(
+                List.of(new Instruction(InstructionType.IPU_JMP, new Label("@x"))), registerFile
+        ));
+        assertThrows(ParameterException.class, () -> PackedProgram.pack(List.of(mov(ref("r0"), _const(0))), registerFile));
+        assertThrows(ParameterException.class, () -> PackedProgram.pack(List.of(mov(reg(), _const(0))), registerFile));
+    }
+
+    @Test
+    void loadedViewShouldRunAsTheListedProgram() {
+        var listed = wiredMachine();
+        var packed = wiredMachine();
+        listed.cpu().getStackPointer().setValue((char) 0x300);
+        packed.cpu().getStackPointer().setValue((char) 0x300);
+        listed.ipu().setInstructions(program(listed.cpu()));
+        var registerFile = packed.cpu().getRegisterFile();
+        packed.ipu().setInstructions(PackedProgram.pack(program(packed.cpu()), registerFile).asList(registerFile));
+        for (var tick = 0; tick < 150; ++tick) {
+            assertEquals(listed.ipu().next().toString(), packed.ipu().next().toString(), "tick " + tick);
+            listed.ipu().onTick();
+            packed.ipu().onTick();
+            for (var register = 0; register < listed.cpu().getRegisterFile().size(); ++register) {
+                assertEquals(
+                        listed.cpu().getRegisterFile().get(register).getValue(),
+                        packed.cpu().getRegisterFile().get(register).getValue(),
+                        "tick " + tick
+                );
+            }
+            assertEquals(listed.cpu().getFlagRegister().getValue(), packed.cpu().getFlagRegister().getValue());
+            for (var address = 0x200; address <= 0x302; address += 2) {
+                var location = cloc((char) address);
+                assertEquals(listed.cpu().locate(location).getValue(), packed.cpu().locate(location).getValue());
+            }
+        }
+        // the loop ran to completion, and is now spinning at the end
+        assertEquals((char) 8, packed.cpu().getProgramCounter().getValue());
+        assertEquals((char) 55, packed.cpu().getDataRegisters().getFirst().getValue());
+    }
+
+    @Test
+    void packedExecutionShouldMatchPreparedListExecution() {
+        var listed = wiredMachine();
+        var prepared = wiredMachine();
+        var decoded = wiredMachine();
+        var machines = List.of(listed, prepared, decoded);
+        machines.forEach(machine -> machine.cpu().getStackPointer().setValue((char) 0x300));
+        listed.ipu().setInstructions(listed.cpu().specialize(listed.cpu().bind(program(listed.cpu()))));
+        var registerFile = prepared.cpu().getRegisterFile();
+        prepared.ipu().setPackedProgram(
+                PackedProgram.pack(program(prepared.cpu()), registerFile), registerFile, prepared.cpu()::preparer
+        );
+        registerFile = decoded.cpu().getRegisterFile();
+        decoded.ipu().setPackedProgram(PackedProgram.pack(program(decoded.cpu()), registerFile), registerFile);
+        for (var tick = 0; tick < 150; ++tick) {
+            assertEquals(listed.ipu().next().toString(), prepared.ipu().next().toString(), "tick " + tick);
+            machines.forEach(machine -> machine.ipu().onTick());
+            for (var machine : machines) {
+                for (var register = 0; register < registerFile.size(); ++register) {
+                    assertEquals(
+                            listed.cpu().getRegisterFile().get(register).getValue(),
+                            machine.cpu().getRegisterFile().get(register).getValue(),
+                            "tick " + tick
+                    );
+                }
+                assertEquals(listed.cpu().getFlagRegister().getValue(), machine.cpu().getFlagRegister().getValue());
+            }
+        }
+        assertEquals((char) 55, prepared.cpu().getDataRegisters().getFirst().getValue());
+
+        // executed instructions are prepared once, bound and specialized as in the prepared list
+        prepared.cpu().getProgramCounter().setValue((char) 2);
+        var add = prepared.ipu().next();
+        assertInstanceOf(SpecializedInstruction.class, add);
+        assertSame(add, prepared.ipu().next());
+        prepared.cpu().getProgramCounter().setValue((char) 11);
+        assertInstanceOf(BoundMemoryLocation.class, prepared.ipu().next().getParam1());
+        decoded.cpu().getProgramCounter().setValue((char) 2);
+        assertFalse(decoded.ipu().next() instanceof SpecializedInstruction);
+        prepared.cpu().getProgramCounter().setValue((char) 13);
+        assertSame(InstructionProcessingUnit.defaultInstruction, prepared.ipu().next());
+    }
+
+    private static final List<String> SOURCE = List.of(
+            "mov r0 0;",
+            "mov r1 10;",
+            "@loop:",
+            "add r0 r1;",
+            "mov [r1 + 0x200 + r1] r0;",
+            "sub r1 1;",
+            "cmp r1 0;",
+            "jne @loop;",
+            "@end:",
+            "jmp @end;"
+    );
+
+    private static Parser parse(Path directory, List<String> source) throws IOException {
+        var path = Files.createTempFile(directory, "image", ".asm");
+        Files.write(path, source);
+        return new Parser().parse(path.toString()).link();
+    }
+
+    @Test
+    void imageShouldBeSharedAcrossMachines(@TempDir Path directory) throws IOException {
+        var parser = parse(directory, SOURCE);
+        var image = parser.image(CentralProcessingUnit.REGISTER_NAMES);
+        // the parsed program is left unresolved
+        assertTrue(parser.getInstructions().stream().anyMatch(i -> i.getParam1() instanceof RegisterReference));
+
+        var reference = wiredMachine();
+        reference.ipu().setInstructions(
+                parse(directory, SOURCE).resolveReferences(reference.cpu().getRegistryReferenceMap()).getInstructions()
+        );
+        var machines = IntStream.range(0, 16).mapToObj(index -> wiredMachine()).toList();
+        machines.parallelStream().forEach(machine -> {
+            machine.ipu().setPackedProgram(image, machine.cpu().getRegisterFile(), machine.cpu()::preparer);
+            for (var tick = 0; tick < 100; ++tick) {
+                machine.ipu().onTick();
+            }
+        });
+        for (var tick = 0; tick < 100; ++tick) {
+            reference.ipu().onTick();
+        }
+
+        assertEquals((char) 55, reference.cpu().getDataRegisters().getFirst().getValue());
+        for (var machine : machines) {
+            for (var register = 0; register < reference.cpu().getRegisterFile().size(); ++register) {
+                assertEquals(
+                        reference.cpu().getRegisterFile().get(register).getValue(),
+                        machine.cpu().getRegisterFile().get(register).getValue()
+                );
+            }
+            for (var address = 0x200; address <= 0x216; address += 2) {
+                var location = cloc((char) address);
+                assertEquals(reference.cpu().locate(location).getValue(), machine.cpu().locate(location).getValue());
+            }
+        }
+        // each machine prepared the shared image against its own registers
+        var first = machines.get(0);
+        var second = machines.get(1);
+        first.cpu().getProgramCounter().setValue((char) 2);
+        second.cpu().getProgramCounter().setValue((char) 2);
+        assertSame(first.cpu().getDataRegisters().getFirst(), first.ipu().next().getParam1());
+        assertSame(second.cpu().getDataRegisters().getFirst(), second.ipu().next().getParam1());
+    }
+
+    @Test
+    void imageShouldRejectUndefinedOrMachineRegisters(@TempDir Path directory) throws IOException {
+        var parser = parse(directory, List.of("add r11 r0;"));
+        assertThrows(UndefinedReferenceException.class, () -> parser.image(CentralProcessingUnit.REGISTER_NAMES));
+        var cpu = new CentralProcessingUnit();
+        assertThrows(ParameterException.class, () -> PackedProgram.image(
+                List.of(mov(cpu.getDataRegisters().getFirst(), _const(0))), CentralProcessingUnit.REGISTER_NAMES
+        ));
+    }
+}
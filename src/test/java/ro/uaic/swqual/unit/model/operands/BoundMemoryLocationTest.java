@@ -0,0 +1,146 @@
+package ro.uaic.swqual.unit.model.operands;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.mem.RandomAccessMemory;
+import ro.uaic.swqual.mem.Watchpoint;
+import ro.uaic.swqual.model.operands.BoundMemoryLocation;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.DisplacedMemoryLocation;
+import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
+import ro.uaic.swqual.model.operands.ResolvedMemory;
+import ro.uaic.swqual.model.operands.UnresolvedMemory;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.proc.MemoryManagementUnit;
+import ro.uaic.swqual.unit.mem.MemTestUtility;
+import ro.uaic.swqual.unit.proc.ProcTestUtility;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundMemoryLocationTest implements ProcTestUtility, MemTestUtility {
+    interface BoundMemoryLocationTestConsumer {
+        void accept(CentralProcessingUnit cpu, MemoryManagementUnit mmu);
+    }
+
+    void boundMemoryLocationTest(BoundMemoryLocationTestConsumer consumer) {
+        var machine = wiredMachine();
+        consumer.accept(machine.cpu(), machine.mmu());
+    }
+
+    @Test
+    void bindShouldReplaceConstantLocationsOnly() {
+        boundMemoryLocationTest((cpu, mmu) -> {
+            var r0 = cpu.getDataRegisters().getFirst();
+            var program = List.of(mov(cloc((char) 0x200), _const(5)), add(r0, cloc((char) 0x200)), add(r0, r0));
+            var bound = cpu.bind(program);
+
+            assertNotSame(program.get(0), bound.get(0));
+            assertInstanceOf(BoundMemoryLocation.class, bound.get(0).getParam1());
+            assertSame(bound.get(0).getParam1(), bound.get(1).getParam2());
+            assertSame(program.get(2), bound.get(2));
+            // the original program is left untouched
+            assertFalse(program.get(0).getParam1() instanceof BoundMemoryLocation);
+
+            bound.forEach(cpu::execute);
+            assertEquals((char) 10, r0.getValue());
+        });
+    }
+
+    @Test
+    void bindShouldCompileAddressExpressions() {
+        boundMemoryLocationTest((cpu, mmu) -> {
+            var r0 = cpu.getDataRegisters().getFirst();
+            var plus = RelativeMemoryLocation.ADDITION;
+            var program = List.of(
+                    mov(rloc(List.of(_const(0x1F0), _const(0x10)), List.of(plus)), _const(5)),
+                    mov(r0, _const(0x1FE)),
+                    add(r0, rloc(List.of(r0, _const(2)), List.of(plus)))
+            );
+            var bound = cpu.bind(program);
+
+            assertInstanceOf(BoundMemoryLocation.class, bound.get(0).getParam1());
+            assertEquals((char) 0x200, bound.get(0).getParam1().getValue());
+            assertSame(program.get(1), bound.get(1));
+            assertInstanceOf(DisplacedMemoryLocation.class, bound.get(2).getParam2());
+
+            bound.forEach(cpu::execute);
+            assertEquals((char) 0x203, r0.getValue());
+        });
+    }
+
+    @Test
+    void boundLocationShouldSkipLocateUntilMemoryMapChanges() {
+        boundMemoryLocationTest((cpu, mmu) -> {
+            var location = new BoundMemoryLocation((char) 0x200, cpu);
+            var handle = cpu.locate(location);
+            assertInstanceOf(ResolvedMemory.class, handle);
+            assertSame(handle, cpu.locate(location));
+            assertSame(handle, mmu.locate(location));
+            assertNotSame(cpu.locate(cloc((char) 0x200)), cpu.locate(cloc((char) 0x200)));
+
+            var hits = new ArrayList<Character>();
+            mmu.addWatchpoint(new Watchpoint(
+                    (char) 0x200, (char) 2, Watchpoint.Access.WRITE, (w, access, address, value) -> hits.add(value)
+            ));
+            var watched = cpu.locate(location);
+            assertNotSame(handle, watched);
+            watched.setValue((char) 7);
+            assertEquals(List.of((char) 7), hits);
+            assertEquals((char) 7, cpu.locate(cloc((char) 0x200)).getValue());
+        });
+    }
+
+    @Test
+    void memoryMapVersionShouldBeSharedWithinMachineOnly() {
+        boundMemoryLocationTest((cpu, mmu) -> boundMemoryLocationTest((otherCpu, otherMmu) -> {
+            var location = new BoundMemoryLocation((char) 0x200, cpu);
+            var handle = cpu.locate(location);
+            var version = cpu.getMemoryMapVersion();
+            assertEquals(version, mmu.getMemoryMapVersion());
+
+            // changes in another machine keep the handle
+            var watchpoint = new Watchpoint((char) 0x200, (char) 2, Watchpoint.Access.WRITE, (w, a, ad, v) -> {});
+            otherMmu.addWatchpoint(watchpoint);
+            otherMmu.removeWatchpoint(watchpoint);
+            assertEquals(version, cpu.getMemoryMapVersion());
+            assertSame(handle, cpu.locate(location));
+
+            // changes in a unit of the machine bump the version of the whole machine
+            mmu.addWatchpoint(watchpoint);
+            assertNotEquals(version, cpu.getMemoryMapVersion());
+            assertEquals(cpu.getMemoryMapVersion(), mmu.getMemoryMapVersion());
+            assertNotSame(handle, cpu.locate(location));
+        }));
+    }
+
+    @Test
+    void unmappedLocationShouldRaiseOnEachAccessUntilMapped() {
+        boundMemoryLocationTest((cpu, mmu) -> {
+            var freg = cpu.getFlagRegister();
+            var location = new BoundMemoryLocation((char) 0x10, cpu);
+            assertInstanceOf(UnresolvedMemory.class, cpu.locate(location));
+            cpu.locate(location).getValue();
+            assertTrue(freg.isSet(FlagRegister.SEG_FLAG));
+            freg.clear();
+            cpu.locate(location).getValue();
+            assertTrue(freg.isSet(FlagRegister.SEG_FLAG));
+            freg.clear();
+
+            mmu.registerHardwareUnit(new RandomAccessMemory((char) 0x100, freg), (char) 0, (char) 0x100);
+            var handle = cpu.locate(location);
+            assertInstanceOf(ResolvedMemory.class, handle);
+            handle.setValue((char) 3);
+            assertEquals((char) 3, cpu.locate(new ConstantMemoryLocation((char) 0x10)).getValue());
+            assertFalse(freg.isSet(FlagRegister.SEG_FLAG));
+        });
+    }
+}
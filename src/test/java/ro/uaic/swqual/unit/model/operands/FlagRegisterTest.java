@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Assertions;
 import ro.uaic.swqual.model.operands.FlagRegister;
 import ro.uaic.swqual.unit.proc.ProcTestUtility;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ro.uaic.swqual.model.operands.FlagRegister.EQUAL_FLAG;
 import static ro.uaic.swqual.model.operands.FlagRegister.SEG_FLAG;
 import static ro.uaic.swqual.model.operands.FlagRegister.ZERO_FLAG;
@@ -61,4 +64,58 @@ class FlagRegisterTest implements ProcTestUtility {
         flags.set(SEG_FLAG);
         assertEquals("ZERO, EQ, SEG", flags.toString());
     }
+
+    @Test
+    void lazyFlagsShouldMatchEagerFlags() {
+        var lazy = new FlagRegister();
+        var eager = new FlagRegister();
+        eager.setLazyEvaluation(false);
+        var random = new Random(41);
+        for (var step = 0; step < 10000; ++step) {
+            switch (random.nextInt(6)) {
+                case 0 -> {
+                    lazy.clear();
+                    eager.clear();
+                }
+                case 1 -> {
+                    var compound = random.nextBoolean() ? 0 : random.nextInt();
+                    lazy.setArithmeticResult(compound);
+                    eager.setArithmeticResult(compound);
+                }
+                case 2 -> {
+                    var s0 = (char) random.nextInt(4);
+                    var s1 = (char) random.nextInt(4);
+                    lazy.setComparison(s0, s1);
+                    eager.setComparison(s0, s1);
+                }
+                case 3 -> {
+                    var flag = (char) (1 << random.nextInt(5));
+                    lazy.unset(flag);
+                    eager.unset(flag);
+                }
+                case 4 -> {
+                    var flag = (char) (1 << random.nextInt(8));
+                    assertEquals(eager.isSet(flag), lazy.isSet(flag));
+                }
+                default -> assertEquals(eager.getValue(), lazy.getValue());
+            }
+        }
+        assertEquals(eager, lazy);
+        assertEquals(eager.toString(), lazy.toString());
+    }
+
+    @Test
+    void lazyFlagsShouldAccumulate() {
+        var register = new FlagRegister();
+        register.setComparison((char) 1, (char) 2);
+        register.setArithmeticResult(0);
+        register.setArithmeticResult(0x10000);
+        assertEquals((char) (FlagRegister.LESS_FLAG | ZERO_FLAG | FlagRegister.OVERFLOW_FLAG), register.getValue());
+
+        register.setComparison((char) 3, (char) 3);
+        register.setValue((char) 0);
+        assertEquals((char) 0, register.getValue());
+        register.setComparison((char) 3, (char) 3);
+        assertTrue(register.isSet(EQUAL_FLAG));
+    }
 }
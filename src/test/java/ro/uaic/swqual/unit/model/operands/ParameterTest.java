@@ -153,4 +153,23 @@ class ParameterTest implements RegisterTestUtility, ProcTestUtility {
         r1.setValue((char) 100);
         assertEquals((char) 125, p0.getValue());
     }
+
+    @Test
+    void parseConstantEdgeCasesShouldMatchIntegerParsing() {
+        parseValidIntValueShouldSucceed("0", 0);
+        parseValidIntValueShouldSucceed("#00", 0);
+        parseValidIntValueShouldSucceed("0x12345", 0x2345);
+        parseValidIntValueShouldSucceed("0b00000000000000000000000000000000001", 1);
+        parseInvalidIntValShouldThrow("#");
+        parseInvalidIntValShouldThrow("99999999999z");
+        assertThrows(NumberFormatException.class, () -> Parameter.parse("99999999999"));
+        assertThrows(NumberFormatException.class, () -> Parameter.parse("0x100000000"));
+    }
+
+    @Test
+    void parseAddressWithEmptyTermShouldThrow() {
+        parseInvalidIntValShouldThrow("[]");
+        parseInvalidIntValShouldThrow("[+1]");
+        parseInvalidIntValShouldThrow("[r0-]");
+    }
 }
@@ -7,6 +7,9 @@ import ro.uaic.swqual.model.operands.RegisterReference;
 import ro.uaic.swqual.unit.TestUtility;
 import ro.uaic.swqual.exception.ValueException;
 import ro.uaic.swqual.model.operands.Constant;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.DisplacedMemoryLocation;
+import ro.uaic.swqual.model.operands.LinearMemoryLocation;
 import ro.uaic.swqual.model.operands.Register;
 import ro.uaic.swqual.model.operands.RelativeMemoryLocation;
 import ro.uaic.swqual.unit.mem.MemTestUtility;
@@ -14,9 +17,12 @@ import ro.uaic.swqual.unit.proc.ProcTestUtility;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.function.BinaryOperator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -125,4 +131,63 @@ class RelativeMemoryLocationTest implements TestUtility, RegisterTestUtility, Me
         var rloc = rloc(reg(0x20));
         assertEquals("[<relative-location>] (=0x20)", rloc.toString());
     }
+
+    @Test
+    void compileShouldFoldConstants() {
+        var add = RelativeMemoryLocation.ADDITION;
+        var sub = RelativeMemoryLocation.SUBTRACTION;
+        // [0x600 + 4]
+        var folded = ((RelativeMemoryLocation) rloc(List.of(_const(0x600), _const(4)), List.of(add))).compile();
+        assertInstanceOf(ConstantMemoryLocation.class, folded);
+        assertEquals((char) 0x604, folded.getValue());
+
+        // [sp - 4 + 2]
+        var sp = reg(0x300);
+        var displaced = ((RelativeMemoryLocation) rloc(List.of(sp, _const(4), _const(2)), List.of(sub, add))).compile();
+        assertInstanceOf(DisplacedMemoryLocation.class, displaced);
+        assertSame(sp, ((DisplacedMemoryLocation) displaced).getBase());
+        assertEquals((char) 0xFFFE, ((DisplacedMemoryLocation) displaced).getDisplacement());
+        assertEquals((char) 0x2FE, displaced.getValue());
+    }
+
+    @Test
+    void compiledLocationShouldMatchExpression() {
+        var add = RelativeMemoryLocation.ADDITION;
+        var sub = RelativeMemoryLocation.SUBTRACTION;
+        var r1 = new Register();
+        var r2 = new Register();
+        var r3 = new Register();
+        var expressions = List.of(
+                // [r1 + 50 - r3]
+                rloc(List.of(r1, _const(50), r3), List.of(add, sub)),
+                // [10 - r1 - r2 + r3]
+                rloc(List.of(_const(10), r1, r2, r3), List.of(sub, sub, add)),
+                // [r1 - 0xFFF0]
+                rloc(List.of(r1, _const(0xFFF0)), List.of(sub))
+        );
+        var compiled = expressions.stream().map(location -> ((RelativeMemoryLocation) location).compile()).toList();
+        assertInstanceOf(LinearMemoryLocation.class, compiled.get(0));
+        assertInstanceOf(LinearMemoryLocation.class, compiled.get(1));
+        assertInstanceOf(DisplacedMemoryLocation.class, compiled.get(2));
+
+        var random = new Random(39);
+        for (var iteration = 0; iteration < 200; ++iteration) {
+            r1.setValue((char) random.nextInt(0x10000));
+            r2.setValue((char) random.nextInt(0x10000));
+            r3.setValue((char) random.nextInt(0x10000));
+            for (var index = 0; index < expressions.size(); ++index) {
+                assertEquals(expressions.get(index).getValue(), compiled.get(index).getValue());
+            }
+        }
+    }
+
+    @Test
+    void compileShouldKeepUnknownRelations() {
+        BinaryOperator<Character> xor = (a, b) -> (char) (a ^ b);
+        var custom = rloc(reg(0x20), xor, _const(3));
+        assertSame(custom, ((RelativeMemoryLocation) custom).compile());
+
+        var unresolved = (RelativeMemoryLocation) rloc(List.of(new RegisterReference(0, "r0")), List.of());
+        assertSame(unresolved, unresolved.compile());
+    }
 }
@@ -0,0 +1,282 @@
+package ro.uaic.swqual.unit.proc;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.proc.ArithmeticLogicKernels;
+import ro.uaic.swqual.proc.ArithmeticLogicUnit;
+import ro.uaic.swqual.util.Tuple;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ro.uaic.swqual.model.operands.FlagRegister.OVERFLOW_FLAG;
+import static ro.uaic.swqual.model.operands.FlagRegister.ZERO_FLAG;
+
+class ArithmeticLogicKernelsTest implements ProcTestUtility {
+    /**
+     * Reference implementation of the operations, as computed before the primitive kernels:
+     *   compound int operations for the ones accepting overflow, boxed Character operations for the others.
+     */
+    private static final Map<InstructionType, IntBinaryOperator> COMPOUND_REFERENCE = Map.of(
+            InstructionType.ALU_ADD, Integer::sum,
+            InstructionType.ALU_SUB, (s0, s1) -> s0 - s1,
+            InstructionType.ALU_UMUL, (s0, s1) -> s0 * s1,
+            InstructionType.ALU_SMUL, (s0, s1) -> (short) s0 * (short) s1,
+            InstructionType.ALU_UDIV, (s0, s1) -> ((s0 % s1) << 16) & 0xFFFF0000 | (s0 / s1) & 0x0000FFFF,
+            InstructionType.ALU_SDIV,
+            (s0, s1) -> (((short) s0 % (short) s1) << 16) & 0xFFFF0000 | ((short) s0 / (short) s1) & 0x0000FFFF
+    );
+    private static final Map<InstructionType, BinaryOperator<Character>> CHARACTER_REFERENCE = Map.of(
+            InstructionType.ALU_OR, (s0, s1) -> (char) (s0 | s1),
+            InstructionType.ALU_AND, (s0, s1) -> (char) (s0 & s1),
+            InstructionType.ALU_XOR, (s0, s1) -> (char) (s0 ^ s1),
+            InstructionType.ALU_SHL, (s0, s1) -> (char) (s0 << s1),
+            InstructionType.ALU_SHR, (s0, s1) -> (char) (s0 >>> s1),
+            InstructionType.ALU_NOT, (s0, s1) -> (char) ~s0
+    );
+    private static final Map<InstructionType, IntBinaryOperator> KERNELS = Map.ofEntries(
+            Map.entry(InstructionType.ALU_ADD, (s0, s1) -> ArithmeticLogicKernels.add((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_SUB, (s0, s1) -> ArithmeticLogicKernels.sub((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_UMUL, (s0, s1) -> ArithmeticLogicKernels.umul((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_SMUL, (s0, s1) -> ArithmeticLogicKernels.smul((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_UDIV, (s0, s1) -> ArithmeticLogicKernels.udiv((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_SDIV, (s0, s1) -> ArithmeticLogicKernels.sdiv((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_OR, (s0, s1) -> ArithmeticLogicKernels.or((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_AND, (s0, s1) -> ArithmeticLogicKernels.and((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_XOR, (s0, s1) -> ArithmeticLogicKernels.xor((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_SHL, (s0, s1) -> ArithmeticLogicKernels.shl((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_SHR, (s0, s1) -> ArithmeticLogicKernels.shr((char) s0, (char) s1)),
+            Map.entry(InstructionType.ALU_NOT, (s0, s1) -> ArithmeticLogicKernels.not((char) s0))
+    );
+
+    /**
+     * Expected outcome of an operation, as computed by the reference implementation
+     * @return the destination value in the lower 16 bits, and the flags in the higher 16 bits.
+     *   The overflow, when accepted, is the overflow of the compound reference result.
+     */
+    private static int reference(InstructionType type, int s0, int s1) {
+        var compound = COMPOUND_REFERENCE.get(type);
+        if (compound != null) {
+            return expected(compound.applyAsInt(s0, s1));
+        }
+        char result = CHARACTER_REFERENCE.get(type).apply((char) s0, (char) s1);
+        return (result == 0 ? ZERO_FLAG : 0) << 16 | result;
+    }
+
+    /**
+     * Expected outcome of an operation accepting overflow
+     * @param compound the compound reference result
+     * @return the destination value in the lower 16 bits, and the flags in the higher 16 bits
+     */
+    private static int expected(int compound) {
+        var result = compound & 0xFFFF;
+        var overflow = compound >>> 16 & 0xFFFF;
+        var flags = (result == 0 && overflow == 0 ? ZERO_FLAG : 0) | (overflow != 0 ? OVERFLOW_FLAG : 0);
+        return flags << 16 | result;
+    }
+
+    private static boolean divides(InstructionType type) {
+        return type == InstructionType.ALU_UDIV || type == InstructionType.ALU_SDIV;
+    }
+
+    /**
+     * Method used to check a kernel over the full operand space, one row of 2^16 second operands per first operand,
+     *   rows in parallel. <br/>
+     * Each opcode checks its rows through its own lambda, so the kernel and reference calls made for each of the
+     *   2^32 operand pairs only ever see one implementation.
+     * @param row the check of the row of a first operand
+     */
+    private static void sweep(IntConsumer row) {
+        IntStream.rangeClosed(0, 0xFFFF).parallel().forEach(row);
+    }
+
+    /**
+     * Method used to check the compound kernel result of an operand pair against the compound reference result:
+     *   result and overflow, compared as a whole, then the flags computed from it
+     */
+    private static void check(InstructionType type, int s0, int s1, int kernel, int reference) {
+        if (kernel != reference || ArithmeticLogicKernels.flags(kernel) != expected(reference) >>> 16) {
+            assertEquals(reference, kernel, type + " " + s0 + " " + s1);
+            assertEquals(expected(reference) >>> 16, ArithmeticLogicKernels.flags(kernel), type + " " + s0 + " " + s1);
+        }
+    }
+
+    @Test
+    void addShouldMatchReferenceOverFullSpace() {
+        var reference = COMPOUND_REFERENCE.get(InstructionType.ALU_ADD);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_ADD, s0, s1, ArithmeticLogicKernels.add((char) s0, (char) s1),
+                        reference.applyAsInt(s0, s1));
+            }
+        });
+    }
+
+    @Test
+    void subShouldMatchReferenceOverFullSpace() {
+        var reference = COMPOUND_REFERENCE.get(InstructionType.ALU_SUB);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_SUB, s0, s1, ArithmeticLogicKernels.sub((char) s0, (char) s1),
+                        reference.applyAsInt(s0, s1));
+            }
+        });
+    }
+
+    @Test
+    void umulShouldMatchReferenceOverFullSpace() {
+        var reference = COMPOUND_REFERENCE.get(InstructionType.ALU_UMUL);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_UMUL, s0, s1, ArithmeticLogicKernels.umul((char) s0, (char) s1),
+                        reference.applyAsInt(s0, s1));
+            }
+        });
+    }
+
+    @Test
+    void smulShouldMatchReferenceOverFullSpace() {
+        var reference = COMPOUND_REFERENCE.get(InstructionType.ALU_SMUL);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_SMUL, s0, s1, ArithmeticLogicKernels.smul((char) s0, (char) s1),
+                        reference.applyAsInt(s0, s1));
+            }
+        });
+    }
+
+    @Test
+    void udivShouldMatchReferenceOverFullSpace() {
+        var reference = COMPOUND_REFERENCE.get(InstructionType.ALU_UDIV);
+        // division by zero is handled by the unit, before the kernel
+        sweep(s0 -> {
+            for (var s1 = 1; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_UDIV, s0, s1, ArithmeticLogicKernels.udiv((char) s0, (char) s1),
+                        reference.applyAsInt(s0, s1));
+            }
+        });
+    }
+
+    @Test
+    void sdivShouldMatchReferenceOverFullSpace() {
+        var reference = COMPOUND_REFERENCE.get(InstructionType.ALU_SDIV);
+        // division by zero is handled by the unit, before the kernel
+        sweep(s0 -> {
+            for (var s1 = 1; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_SDIV, s0, s1, ArithmeticLogicKernels.sdiv((char) s0, (char) s1),
+                        reference.applyAsInt(s0, s1));
+            }
+        });
+    }
+
+    @Test
+    void orShouldMatchReferenceOverFullSpace() {
+        var reference = CHARACTER_REFERENCE.get(InstructionType.ALU_OR);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_OR, s0, s1, ArithmeticLogicKernels.or((char) s0, (char) s1),
+                        reference.apply((char) s0, (char) s1));
+            }
+        });
+    }
+
+    @Test
+    void andShouldMatchReferenceOverFullSpace() {
+        var reference = CHARACTER_REFERENCE.get(InstructionType.ALU_AND);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_AND, s0, s1, ArithmeticLogicKernels.and((char) s0, (char) s1),
+                        reference.apply((char) s0, (char) s1));
+            }
+        });
+    }
+
+    @Test
+    void xorShouldMatchReferenceOverFullSpace() {
+        var reference = CHARACTER_REFERENCE.get(InstructionType.ALU_XOR);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_XOR, s0, s1, ArithmeticLogicKernels.xor((char) s0, (char) s1),
+                        reference.apply((char) s0, (char) s1));
+            }
+        });
+    }
+
+    @Test
+    void shlShouldMatchReferenceOverFullSpace() {
+        var reference = CHARACTER_REFERENCE.get(InstructionType.ALU_SHL);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_SHL, s0, s1, ArithmeticLogicKernels.shl((char) s0, (char) s1),
+                        reference.apply((char) s0, (char) s1));
+            }
+        });
+    }
+
+    @Test
+    void shrShouldMatchReferenceOverFullSpace() {
+        var reference = CHARACTER_REFERENCE.get(InstructionType.ALU_SHR);
+        sweep(s0 -> {
+            for (var s1 = 0; s1 <= 0xFFFF; ++s1) {
+                check(InstructionType.ALU_SHR, s0, s1, ArithmeticLogicKernels.shr((char) s0, (char) s1),
+                        reference.apply((char) s0, (char) s1));
+            }
+        });
+    }
+
+    @Test
+    void notShouldMatchReferenceOverFullSpace() {
+        // single operand: the second one is ignored by both
+        var reference = CHARACTER_REFERENCE.get(InstructionType.ALU_NOT);
+        for (var s0 = 0; s0 <= 0xFFFF; ++s0) {
+            var compound = ArithmeticLogicKernels.not((char) s0);
+            assertEquals(reference(InstructionType.ALU_NOT, s0, 0),
+                    ArithmeticLogicKernels.flags(compound) << 16 | compound, "ALU_NOT " + s0);
+        }
+    }
+
+    @Test
+    void unitShouldMatchReference() {
+        var flagRegister = new FlagRegister();
+        var extra = new Register();
+        var alu = new ArithmeticLogicUnit(flagRegister, extra);
+        var destination = new Register();
+        var source = new Register();
+        var random = new Random(40);
+        for (var type : KERNELS.keySet()) {
+            var instruction = new Instruction(type);
+            instruction.setParameters(Tuple.of(destination, source));
+            for (var iteration = 0; iteration < 20000; ++iteration) {
+                var s0 = random.nextInt(0x10000);
+                var s1 = iteration < 64 ? iteration : random.nextInt(0x10000);
+                destination.setValue((char) s0);
+                source.setValue((char) s1);
+                extra.setValue((char) 0xDEAD);
+                flagRegister.clear();
+                alu.execute(instruction);
+
+                if (s1 == 0 && divides(type)) {
+                    assertEquals((char) s0, destination.getValue());
+                    assertEquals(FlagRegister.DIV_ZERO_FLAG, flagRegister.getValue());
+                    continue;
+                }
+                var expected = reference(type, s0, s1);
+                assertEquals((char) expected, destination.getValue());
+                assertEquals((char) (expected >>> 16), flagRegister.getValue());
+                var expectedExtra = COMPOUND_REFERENCE.containsKey(type)
+                        && type != InstructionType.ALU_ADD && type != InstructionType.ALU_SUB
+                        ? COMPOUND_REFERENCE.get(type).applyAsInt(s0, s1) >>> 16 & 0xFFFF
+                        : 0xDEAD;
+                assertEquals((char) expectedExtra, extra.getValue());
+            }
+        }
+    }
+}
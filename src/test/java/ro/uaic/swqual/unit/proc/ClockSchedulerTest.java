@@ -0,0 +1,235 @@
+package ro.uaic.swqual.unit.proc;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.peripheral.Display;
+import ro.uaic.swqual.model.peripheral.Keyboard;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.proc.ClockListener;
+import ro.uaic.swqual.proc.ClockScheduler;
+import ro.uaic.swqual.proc.InputOutputManagementUnit;
+import ro.uaic.swqual.proc.InstructionProcessingUnit;
+import ro.uaic.swqual.proc.MemoryManagementUnit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClockSchedulerTest implements ProcTestUtility {
+    private record CountingListener(AtomicInteger ticks, long period) implements ClockListener {
+        CountingListener(long period) {
+            this(new AtomicInteger(), period);
+        }
+
+        @Override
+        public void onTick() {
+            ticks.incrementAndGet();
+        }
+
+        @Override
+        public long getClockPeriod() {
+            return period;
+        }
+    }
+
+    @Test
+    void tickWithNothingScheduledShouldOnlyAdvanceCycle() {
+        var scheduler = new ClockScheduler();
+        assertEquals(Long.MAX_VALUE, scheduler.getNextDeadline());
+        for (var i = 0; i < 10; ++i) {
+            scheduler.tick();
+        }
+        assertEquals(10, scheduler.getCycle());
+        assertEquals(Long.MAX_VALUE, scheduler.getNextDeadline());
+    }
+
+    @Test
+    void periodicListenersShouldTickOnTheirOwnDivider() {
+        var scheduler = new ClockScheduler();
+        var everyCycle = new CountingListener(1);
+        var everyThird = new CountingListener(3);
+        scheduler.schedule(everyCycle, everyCycle.period());
+        scheduler.schedule(everyThird, everyThird.period());
+        for (var i = 0; i < 10; ++i) {
+            scheduler.tick();
+        }
+        assertEquals(10, everyCycle.ticks().get());
+        assertEquals(3, everyThird.ticks().get());
+    }
+
+    @Test
+    void scheduleAtShouldTickOnceAtDeadline() {
+        var scheduler = new ClockScheduler();
+        var listener = new CountingListener(0);
+        scheduler.scheduleAt(listener, 5);
+        assertEquals(5, scheduler.getNextDeadline());
+        for (var i = 0; i < 4; ++i) {
+            scheduler.tick();
+        }
+        assertEquals(0, listener.ticks().get());
+        scheduler.tick();
+        assertEquals(1, listener.ticks().get());
+        assertEquals(Long.MAX_VALUE, scheduler.getNextDeadline());
+        scheduler.tick();
+        assertEquals(1, listener.ticks().get());
+    }
+
+    @Test
+    void scheduleAtPastDeadlineShouldTickOnNextCycle() {
+        var scheduler = new ClockScheduler();
+        scheduler.tick();
+        scheduler.tick();
+        var listener = new CountingListener(0);
+        scheduler.scheduleAt(listener, 1);
+        scheduler.tick();
+        assertEquals(1, listener.ticks().get());
+    }
+
+    @Test
+    void listenersDueOnSameCycleShouldTickInSchedulingOrder() {
+        var scheduler = new ClockScheduler();
+        var order = new ArrayList<Integer>();
+        scheduler.scheduleAt(() -> order.add(2), 2);
+        scheduler.scheduleAt(() -> order.add(0), 1);
+        scheduler.scheduleAt(() -> order.add(1), 1);
+        scheduler.tick();
+        scheduler.tick();
+        assertEquals(List.of(0, 1, 2), order);
+    }
+
+    @Test
+    void cancelShouldRemoveAllTicksOfListener() {
+        var scheduler = new ClockScheduler();
+        var listener = new CountingListener(1);
+        scheduler.schedule(listener, 1);
+        scheduler.scheduleAt(listener, 3);
+        scheduler.tick();
+        scheduler.cancel(listener);
+        assertEquals(Long.MAX_VALUE, scheduler.getNextDeadline());
+        scheduler.tick();
+        scheduler.tick();
+        assertEquals(1, listener.ticks().get());
+    }
+
+    @Test
+    void scheduleListenersOfShouldSkipQuietListenersAndDelegatingUnits() {
+        var cpu = new CentralProcessingUnit();
+        var freg = cpu.getFlagRegister();
+        var ipu = new InstructionProcessingUnit(new ArrayList<>(), freg, cpu.getProgramCounter(), cpu.getStackPointer());
+        var mmu = new MemoryManagementUnit(freg, cpu.getStackPointer());
+        var iomu = new InputOutputManagementUnit(freg);
+        var periodic = new CountingListener(2);
+        ipu.registerClockListener(cpu);
+        cpu.registerClockListener(mmu);
+        mmu.registerClockListener(iomu);
+        iomu.registerHardwareUnit(new Keyboard(), (char) 0, (char) 1);
+        iomu.registerHardwareUnit(new Display((char) 4, new FlagRegister()), (char) 1, (char) 4);
+        // reachable through several units, ticked once
+        cpu.registerClockListener(periodic);
+        mmu.registerClockListener(periodic);
+
+        var scheduler = new ClockScheduler();
+        ipu.setClockScheduler(scheduler);
+        assertSame(scheduler, ipu.getClockScheduler());
+        assertEquals(2, scheduler.getNextDeadline());
+
+        for (var i = 0; i < 6; ++i) {
+            ipu.onTick();
+        }
+        assertEquals(6, scheduler.getCycle());
+        assertEquals(3, periodic.ticks().get());
+    }
+
+    @Test
+    void ipuWithoutSchedulerShouldTickAllListeners() {
+        var cpu = new CentralProcessingUnit();
+        var freg = cpu.getFlagRegister();
+        var ipu = new InstructionProcessingUnit(new ArrayList<>(), freg, cpu.getProgramCounter(), cpu.getStackPointer());
+        var periodic = new CountingListener(4);
+        ipu.registerClockListener(periodic);
+        assertNull(ipu.getClockScheduler());
+        for (var i = 0; i < 4; ++i) {
+            ipu.onTick();
+        }
+        assertEquals(4, periodic.ticks().get());
+    }
+
+    @Test
+    void advanceToShouldTickDueListenersAtTheirDeadlines() {
+        var scheduler = new ClockScheduler();
+        var cycles = new ArrayList<Long>();
+        scheduler.schedule(() -> cycles.add(scheduler.getCycle()), 4);
+        scheduler.advanceTo(10);
+        assertEquals(List.of(4L, 8L), cycles);
+        assertEquals(10, scheduler.getCycle());
+        assertEquals(12, scheduler.getNextDeadline());
+        scheduler.advanceTo(5);
+        assertEquals(10, scheduler.getCycle());
+    }
+
+    @Test
+    void skipToNextDeadlineShouldJumpOverIdleCycles() {
+        var scheduler = new ClockScheduler();
+        assertEquals(0, scheduler.skipToNextDeadline());
+        assertEquals(0, scheduler.getCycle());
+
+        var listener = new CountingListener(0);
+        scheduler.scheduleAt(listener, 1000);
+        scheduler.tick();
+        assertEquals(999, scheduler.skipToNextDeadline());
+        assertEquals(1000, scheduler.getCycle());
+        assertEquals(1, listener.ticks().get());
+        assertEquals(0, scheduler.skipToNextDeadline());
+    }
+
+    @Test
+    void idleIpuShouldOnlyPassTime() {
+        var machine = wiredMachine();
+        var cpu = machine.cpu();
+        var r0 = cpu.getDataRegisters().get(0);
+        var ipu = machine.ipu();
+        ipu.setInstructions(List.of(add(r0, _const(1))));
+        var scheduler = new ClockScheduler();
+        ipu.setClockScheduler(scheduler);
+
+        ipu.setIdle(true);
+        assertTrue(ipu.isIdle());
+        ipu.onTick();
+        ipu.onTick();
+        assertEquals(0, r0.getValue());
+        assertEquals(0, cpu.getProgramCounter().getValue());
+        assertEquals(2, scheduler.getCycle());
+
+        // a scheduled event may resume the processor
+        scheduler.scheduleAt(() -> ipu.setIdle(false), 50);
+        scheduler.skipToNextDeadline();
+        assertFalse(ipu.isIdle());
+        ipu.onTick();
+        assertEquals(1, r0.getValue());
+        assertEquals(51, scheduler.getCycle());
+
+        ipu.setIdle(true);
+        ipu.reset();
+        assertFalse(ipu.isIdle());
+    }
+
+    @Test
+    void keyboardPressShouldNotifyListener() {
+        var keyboard = new Keyboard();
+        var presses = new AtomicInteger();
+        keyboard.setPressListener(presses::incrementAndGet);
+        keyboard.press('a');
+        keyboard.press('b');
+        assertEquals(2, presses.get());
+        assertEquals(2, keyboard.size());
+        keyboard.setPressListener(null);
+        keyboard.press('c');
+        assertEquals(2, presses.get());
+    }
+}
@@ -0,0 +1,136 @@
+package ro.uaic.swqual.unit.proc;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.proc.FlagLiveness;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlagLivenessTest implements ProcTestUtility {
+    @Test
+    void flagsShouldOnlyBeObservedThroughJumps() {
+        var r0 = new Register();
+        var r1 = new Register();
+        var program = List.of(
+                cmp(r0, r1),    // 0: read by jeq
+                jeq(5),         // 1
+                add(r0, r1),    // 2: mov clears the flags
+                mov(r1, r0),    // 3
+                sub(r0, r1),    // 4: read by jlt, through jmp
+                jmp(7),         // 5
+                add(r0, r0),    // 6: read by jlt
+                jlt(0),         // 7
+                add(r0, r0),    // 8: jmp only leads back to add
+                jmp(8)          // 9
+        );
+        assertArrayEquals(
+                new boolean[] {true, false, false, false, true, false, true, false, false, false},
+                FlagLiveness.analyze(program)
+        );
+    }
+
+    @Test
+    void flagsShouldBeObservedThroughWaitsButNotHalts() {
+        var r0 = new Register();
+        var program = List.of(
+                cmp(r0, r0),                                // 0: read by jeq, through wfi
+                new Instruction(InstructionType.IPU_WFI),   // 1
+                jeq(0),                                     // 2
+                cmp(r0, r0),                                // 3: hlt is only resumed by reset
+                new Instruction(InstructionType.IPU_HLT),   // 4
+                jeq(3)                                      // 5
+        );
+        assertArrayEquals(
+                new boolean[] {true, true, false, false, true, false},
+                FlagLiveness.analyze(program)
+        );
+    }
+
+    @Test
+    void flagsReachingTheEndShouldBeObservedThroughTheWarmReset() {
+        var r0 = new Register();
+        var r1 = new Register();
+        var program = List.of(
+                jeq(3),                 // 0
+                add(r1, _const(1)),     // 1
+                cmp(r0, r0)             // 2: read by jeq, through the jmp 0 past the end
+        );
+        assertArrayEquals(new boolean[] {false, false, true}, FlagLiveness.analyze(program));
+
+        var jumpingPastTheEnd = List.of(
+                jeq(4),                 // 0
+                cmp(r0, r0),            // 1: read by jeq, through the jump past the end
+                jmp(10),                // 2
+                add(r1, _const(1))      // 3: read by jeq, through the end
+        );
+        assertArrayEquals(new boolean[] {false, true, false, true}, FlagLiveness.analyze(jumpingPastTheEnd));
+    }
+
+    @Test
+    void elisionShouldNotChangeThePathThroughTheWarmReset() {
+        var pcs = new ArrayList<List<Character>>();
+        for (var elision : new boolean[] {false, true}) {
+            var machine = wiredMachine();
+            var cpu = machine.cpu();
+            var ipu = machine.ipu();
+            var r0 = cpu.getDataRegisters().getFirst();
+            var r1 = cpu.getDataRegisters().get(1);
+            cpu.setFlagElision(elision);
+            ipu.setInstructions(cpu.bind(List.of(jeq(3), add(r1, _const(1)), cmp(r0, r0))));
+
+            var trace = new ArrayList<Character>();
+            for (var tick = 0; tick < 12; ++tick) {
+                ipu.onTick();
+                trace.add(cpu.getProgramCounter().getValue());
+            }
+            pcs.add(trace);
+        }
+        assertEquals(pcs.getFirst(), pcs.getLast());
+    }
+
+    @Test
+    void elidedFlagsShouldNotChangeExecution() {
+        for (var elision : new boolean[] {false, true}) {
+            var machine = wiredMachine();
+            var cpu = machine.cpu();
+            var freg = cpu.getFlagRegister();
+            var ipu = machine.ipu();
+
+            var r0 = cpu.getDataRegisters().getFirst();
+            var r1 = cpu.getDataRegisters().get(1);
+            var program = List.of(
+                    add(r0, _const(1)),     // 0: dead
+                    cmp(r0, _const(5)),     // 1: read by jlt
+                    jlt(0),                 // 2
+                    mov(r1, r0),            // 3
+                    sub(r1, r0)             // 4: dead, zero result
+            );
+            cpu.setFlagElision(elision);
+            var bound = cpu.bind(program);
+            assertEquals(!elision, bound.get(0).areFlagsObserved());
+            assertTrue(bound.get(1).areFlagsObserved());
+            assertSame(program.get(1), bound.get(1));
+            // the original program is left untouched
+            assertTrue(program.stream().allMatch(Instruction::areFlagsObserved));
+
+            ipu.setInstructions(bound);
+            for (var tick = 0; tick < 17; ++tick) {
+                ipu.onTick();
+            }
+            assertEquals((char) 5, r0.getValue());
+            assertEquals((char) 0, r1.getValue());
+            assertEquals(elision, !freg.isSet(FlagRegister.ZERO_FLAG));
+            assertFalse(freg.isSet(FlagRegister.ILLEGAL_FLAG));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ro.uaic.swqual.unit.proc;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.proc.InstructionCache;
+import ro.uaic.swqual.proc.InstructionProcessingUnit;
+import ro.uaic.swqual.unit.mem.MemTestUtility;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstructionCacheTest implements ProcTestUtility, MemTestUtility {
+    private static final char BASE = (char) 0x400;
+
+    interface InstructionCacheTestConsumer {
+        void accept(CentralProcessingUnit cpu, InstructionProcessingUnit ipu, InstructionCache cache);
+    }
+
+    void instructionCacheTest(List<Instruction> program, InstructionCacheTestConsumer consumer) {
+        var machine = wiredMachine();
+        var cpu = machine.cpu();
+        var ipu = machine.ipu();
+        var mmu = machine.mmu();
+        cpu.registerClockListener(mmu);
+        cpu.registerClockListener(machine.alu());
+
+        var cache = new InstructionCache(mmu, cpu.getRegisterFile());
+        cache.load(program, BASE);
+        ipu.setInstructionCache(cache, BASE);
+        ipu.reset();
+        consumer.accept(cpu, ipu, cache);
+    }
+
+    @Test
+    void programInMemoryShouldRun() {
+        instructionCacheTest(List.of(), (cpu, ipu, cache) -> {
+            var r0 = cpu.getDataRegisters().getFirst();
+            var program = List.of(add(r0, _const(1)), jmp(0));
+            var end = cache.load(program, BASE);
+            assertEquals((char) (BASE + 10), end);
+
+            var first = cache.fetch(BASE);
+            assertSame(first, cache.fetch(BASE));
+            assertEquals(6, cache.sizeAt(BASE));
+
+            for (var tick = 0; tick < 6; ++tick) {
+                ipu.onTick();
+            }
+            assertEquals((char) 3, r0.getValue());
+            assertEquals(BASE, cpu.getProgramCounter().getValue());
+            assertSame(first, cache.fetch(BASE));
+            assertFalse(cpu.getFlagRegister().isSet(FlagRegister.ILLEGAL_FLAG));
+        });
+    }
+
+    @Test
+    void writeToCodeShouldInvalidate() {
+        instructionCacheTest(List.of(), (cpu, ipu, cache) -> {
+            var r1 = cpu.getDataRegisters().get(1);
+            // the first instruction overwrites the constant of the second: header, register index, constant
+            var program = List.of(mov(cloc((char) (BASE + 10)), _const(5)), mov(r1, _const(2)), jmp(1));
+            cache.load(program, BASE);
+
+            ipu.onTick();
+            ipu.onTick();
+            assertEquals((char) 5, r1.getValue());
+
+            var stale = cache.fetch((char) (BASE + 6));
+            cache.load(List.of(mov(cloc((char) (BASE + 10)), _const(7))), BASE);
+            ipu.reset();
+            ipu.onTick();
+            assertNotSame(stale, cache.fetch((char) (BASE + 6)));
+            ipu.onTick();
+            assertEquals((char) 7, r1.getValue());
+        });
+    }
+
+    @Test
+    void invalidFetchShouldRaiseIllegalAndReset() {
+        instructionCacheTest(List.of(), (cpu, ipu, cache) -> {
+            cpu.getProgramCounter().setValue((char) 0x2000);
+            ipu.onTick();
+            assertTrue(cpu.getFlagRegister().isSet(FlagRegister.ILLEGAL_FLAG));
+            assertEquals(BASE, cpu.getProgramCounter().getValue());
+            assertSame(InstructionProcessingUnit.defaultInstruction, ipu.next());
+        });
+    }
+}
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ro.uaic.swqual.model.operands.FlagRegister.SEG_FLAG;
 
@@ -473,4 +474,80 @@ class InstructionProcessingUnitTest implements ProcTestUtility {
                         .findAny().orElse(InstructionType.LABEL)
         );
     }
+
+    @Test
+    void hltShouldIdleUntilReset() {
+        var r0 = reg();
+        var freg = freg();
+        var pc = reg();
+        var ipu = new InstructionProcessingUnit(
+                List.of(new Instruction(InstructionType.IPU_HLT), add(r0, _const(1))), freg, pc, reg()
+        );
+        ipu.subscribe(new ProcessingUnit() {
+            @Override
+            public void execute(Instruction instruction) {
+                if (ipu.getDefaultFilter().test(instruction)) {
+                    ipu.execute(instruction);
+                } else {
+                    r0.setValue((char) (r0.getValue() + 1));
+                }
+            }
+
+            @Override
+            public void raiseFlag(char value) {
+                freg.set(value);
+            }
+        });
+
+        ipu.onTick();
+        assertTrue(ipu.isIdle());
+        assertTrue(ipu.isHalted());
+        assertEquals(1, pc.getValue());
+        ipu.wake();
+        ipu.onTick();
+        assertTrue(ipu.isHalted());
+        assertEquals(0, r0.getValue());
+        assertEquals(1, pc.getValue());
+        assertFalse(freg.isSet(FlagRegister.ILLEGAL_FLAG));
+
+        ipu.reset();
+        assertFalse(ipu.isIdle());
+        assertFalse(ipu.isHalted());
+        assertEquals(0, pc.getValue());
+    }
+
+    @Test
+    void wfiShouldIdleUntilWoken() {
+        var r0 = reg();
+        var pc = reg();
+        var ipu = new InstructionProcessingUnit(
+                List.of(new Instruction(InstructionType.IPU_WFI), add(r0, _const(1))), freg(), pc, reg()
+        );
+        ipu.subscribe(new ProcessingUnit() {
+            @Override
+            public void execute(Instruction instruction) {
+                if (ipu.getDefaultFilter().test(instruction)) {
+                    ipu.execute(instruction);
+                } else {
+                    r0.setValue((char) (r0.getValue() + 1));
+                }
+            }
+
+            @Override
+            public void raiseFlag(char value) {
+                discard(value);
+            }
+        });
+
+        ipu.onTick();
+        assertTrue(ipu.isIdle());
+        assertFalse(ipu.isHalted());
+        ipu.onTick();
+        assertEquals(0, r0.getValue());
+        ipu.wake();
+        assertFalse(ipu.isIdle());
+        ipu.onTick();
+        assertEquals(1, r0.getValue());
+        assertEquals(2, pc.getValue());
+    }
 }
@@ -5,15 +5,19 @@ import org.junit.jupiter.api.Test;
 import ro.uaic.swqual.exception.InstructionException;
 import ro.uaic.swqual.exception.ParameterException;
 import ro.uaic.swqual.mem.RandomAccessMemory;
+import ro.uaic.swqual.mem.Watchpoint;
 import ro.uaic.swqual.proc.ProcessingUnit;
 import ro.uaic.swqual.unit.mem.MemTestUtility;
 import ro.uaic.swqual.model.Instruction;
 import ro.uaic.swqual.model.InstructionType;
 import ro.uaic.swqual.model.operands.AbsoluteMemoryLocation;
+import ro.uaic.swqual.model.operands.DisplacedMemoryLocation;
 import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.model.operands.UnresolvedMemory;
 import ro.uaic.swqual.proc.MemoryManagementUnit;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
@@ -23,6 +27,7 @@ import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -353,4 +358,128 @@ class MemoryManagementUnitTest implements ProcTestUtility, MemTestUtility {
             assertFalse(freg.isSet(FlagRegister.SEG_FLAG));
         });
     }
+
+    @Test
+    void watchpointShouldNotifyOnAccessInWatchedRange() {
+        var freg = freg();
+        var mmu = new MemoryManagementUnit(freg, reg());
+        mmu.registerHardwareUnit(new RandomAccessMemory((char) 0x1000, freg), (char) 0, (char) 0x1000);
+        var hits = new ArrayList<String>();
+        mmu.addWatchpoint(new Watchpoint(
+                (char) 0x200, (char) 2, Watchpoint.Access.READ_WRITE,
+                (watchpoint, access, address, value) -> hits.add(access + "@" + (int) address + "=" + (int) value)
+        ));
+
+        var r0 = reg(0xAB);
+        mmu.execute(mov(cloc((char) 0x200), r0));
+        mmu.execute(mov(r0, cloc((char) 0x200)));
+        // same page, not covered
+        mmu.execute(mov(cloc((char) 0x210), r0));
+        // other page, not covered
+        mmu.execute(mov(cloc((char) 0x400), r0));
+        // covers 0x200 by touching the previous byte
+        mmu.execute(mov(cloc((char) 0x1FF), r0));
+
+        assertEquals(List.of("WRITE@512=171", "READ@512=171", "WRITE@511=171"), hits);
+        assertEquals(1, mmu.getWatchpoints().size());
+    }
+
+    @Test
+    void removedWatchpointShouldNotBeNotified() {
+        var freg = freg();
+        var mmu = new MemoryManagementUnit(freg, reg());
+        mmu.registerHardwareUnit(new RandomAccessMemory((char) 0x1000, freg), (char) 0, (char) 0x1000);
+        var hits = new AtomicInteger(0);
+        var watchpoint = new Watchpoint(
+                (char) 0x200, (char) 0x200, Watchpoint.Access.WRITE, (w, a, addr, v) -> hits.incrementAndGet()
+        );
+        mmu.addWatchpoint(watchpoint);
+        mmu.execute(mov(cloc((char) 0x300), reg(1)));
+        mmu.execute(mov(reg(), cloc((char) 0x300)));
+        assertEquals(1, hits.get());
+
+        mmu.removeWatchpoint(watchpoint);
+        mmu.execute(mov(cloc((char) 0x300), reg(1)));
+        assertEquals(1, hits.get());
+        assertTrue(mmu.getWatchpoints().isEmpty());
+    }
+
+    @Test
+    void watchpointShouldNotifyOnStackAccess() {
+        var freg = freg();
+        var sp = reg(0x100);
+        var mmu = new MemoryManagementUnit(freg, sp);
+        mmu.registerHardwareUnit(new RandomAccessMemory((char) 0x1000, freg), (char) 0, (char) 0x1000);
+        var hits = new AtomicInteger(0);
+        mmu.addWatchpoint(new Watchpoint(
+                (char) 0x100, (char) 2, Watchpoint.Access.WRITE, (w, a, addr, v) -> hits.incrementAndGet()
+        ));
+
+        mmu.execute(push(reg(5)));
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void watchpointShouldNotWrapUnresolvedMemory() {
+        var freg = freg();
+        var mmu = new MemoryManagementUnit(freg, reg());
+        mmu.addWatchpoint(new Watchpoint((char) 0, (char) 0x10, Watchpoint.Access.READ, (w, a, addr, v) -> {}));
+        assertInstanceOf(UnresolvedMemory.class, mmu.locate(cloc((char) 0)));
+    }
+
+    @Test
+    void displacedHandlersShouldMatchLocatedAccess() {
+        var freg = freg();
+        var mmu = new MemoryManagementUnit(freg, reg());
+        mmu.registerHardwareUnit(new RandomAccessMemory((char) 0x1000, freg), (char) 0, (char) 0x1000);
+        var cells = new HashMap<Character, Character>();
+        mmu.registerHardwareUnit(
+                proxyRWMemoryUnit(location -> cells.getOrDefault(location.getValue(), (char) 0),
+                        (location, value) -> cells.put(location.getValue(), value)),
+                (char) 0x1000,
+                (char) 0x100
+        );
+
+        var base = reg();
+        var location = new DisplacedMemoryLocation(base, (char) 4);
+        var r0 = reg();
+        var r1 = reg();
+        var store = mmu.specialize(mov(location, r0));
+        var load = mmu.specialize(mov(r1, location));
+        var storeConstant = mmu.specialize(mov(location, _const(0x55)));
+
+        // random access memory page, accessed directly
+        base.setValue((char) 0x200);
+        r0.setValue((char) 0x1234);
+        store.execute();
+        assertEquals((char) 0x1234, mmu.locate(cloc((char) 0x204)).getValue());
+        mmu.execute(mov(cloc((char) 0x206), _const(0x4321)));
+        base.setValue((char) 0x202);
+        load.execute();
+        assertEquals((char) 0x4321, r1.getValue());
+
+        // other units are located
+        base.setValue((char) 0x1000);
+        storeConstant.execute();
+        assertEquals((char) 0x55, cells.get((char) 0x4));
+        load.execute();
+        assertEquals((char) 0x55, r1.getValue());
+
+        // pages are checked again once watched
+        var hits = new AtomicInteger(0);
+        mmu.addWatchpoint(new Watchpoint(
+                (char) 0x204, (char) 2, Watchpoint.Access.READ_WRITE, (w, a, addr, v) -> hits.incrementAndGet()
+        ));
+        base.setValue((char) 0x200);
+        store.execute();
+        load.execute();
+        assertEquals(2, hits.get());
+        assertEquals((char) 0x1234, r1.getValue());
+
+        // unmapped addresses still raise
+        assertFalse(freg.isSet(FlagRegister.SEG_FLAG));
+        base.setValue((char) 0x2000);
+        store.execute();
+        assertTrue(freg.isSet(FlagRegister.SEG_FLAG));
+    }
 }
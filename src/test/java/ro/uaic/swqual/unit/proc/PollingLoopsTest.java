@@ -0,0 +1,149 @@
+package ro.uaic.swqual.unit.proc;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.Register;
+import ro.uaic.swqual.model.peripheral.Keyboard;
+import ro.uaic.swqual.proc.ClockScheduler;
+import ro.uaic.swqual.proc.InputOutputManagementUnit;
+import ro.uaic.swqual.proc.PollingLoops;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PollingLoopsTest implements ProcTestUtility {
+    private static final char KB_ADDR = (char) 0x10;
+
+    @Test
+    void analyzeShouldOnlyFindLoopsPollingConstantAddresses() {
+        var r0 = new Register();
+        var r1 = new Register();
+        var program = List.of(
+                mov(r0, new ConstantMemoryLocation(KB_ADDR)),   // 0
+                cmp(r0, _const(0)),                             // 1
+                jeq(0),                                         // 2: polling loop
+                cmp(r1, _const(0)),                             // 3: r1 compared before being written
+                mov(r1, new ConstantMemoryLocation(KB_ADDR)),   // 4
+                jeq(3),                                         // 5
+                mov(r0, new ConstantMemoryLocation(KB_ADDR)),   // 6
+                add(r1, _const(1)),                             // 7: side effect
+                jne(6),                                         // 8
+                mov(r0, r1),                                    // 9: no read
+                jmp(6)                                          // 10: unconditional
+        );
+        var loops = PollingLoops.analyze(program);
+        assertEquals(program.size(), loops.length);
+        assertNotNull(loops[2]);
+        assertEquals(0, loops[2].head());
+        assertEquals(3, loops[2].length());
+        assertArrayEquals(new char[] {KB_ADDR}, loops[2].addresses());
+        for (var pc = 0; pc < loops.length; ++pc) {
+            if (pc != 2) {
+                assertNull(loops[pc]);
+            }
+        }
+    }
+
+    @Test
+    void analyzeShouldRejectLongLoops() {
+        var r0 = new Register();
+        var program = new ArrayList<>(List.of(mov(r0, new ConstantMemoryLocation(KB_ADDR))));
+        for (var index = 0; index < PollingLoops.MAX_LENGTH; ++index) {
+            program.add(cmp(r0, _const(0)));
+        }
+        program.add(jeq(0));
+        assertNull(PollingLoops.analyze(program)[program.size() - 1]);
+    }
+
+    /**
+     * Machine running: <br/>
+     * <pre>
+     * {@literal @}wait:
+     *   mov r0 [0x10];
+     *   cmp r0 0;
+     *   jeq {@literal @}wait;
+     *   mov r1 r0;
+     * </pre>
+     */
+    private Machine machine(Keyboard kb) {
+        var machine = wiredMachine();
+        var cpu = machine.cpu();
+        var r0 = cpu.getDataRegisters().get(0);
+        var r1 = cpu.getDataRegisters().get(1);
+        var program = List.of(
+                mov(r0, new ConstantMemoryLocation(KB_ADDR)),
+                cmp(r0, _const(0)),
+                jeq(0),
+                mov(r1, r0)
+        );
+        var ipu = machine.ipu();
+        ipu.setInstructions(program);
+        var iomu = new InputOutputManagementUnit(cpu.getFlagRegister());
+        machine.mmu().registerLocator(iomu, (char) 0, (char) 0x100);
+        iomu.registerHardwareUnit(kb, KB_ADDR, (char) 0x02);
+        ipu.setClockScheduler(new ClockScheduler());
+        ipu.setPollingLoopDetection(address -> address == KB_ADDR && kb.isEmpty());
+        return machine;
+    }
+
+    @Test
+    void waitingPollingLoopShouldIdleUntilInput() {
+        var kb = new Keyboard();
+        var machine = machine(kb);
+        var ipu = machine.ipu();
+        var pc = machine.cpu().getProgramCounter();
+
+        for (var index = 0; index < 3; ++index) {
+            ipu.onTick();
+        }
+        assertTrue(ipu.isIdle());
+        assertEquals(0, pc.getValue());
+        assertNotNull(ipu.getIdleLoop());
+        assertEquals(3, ipu.getIdleLoop().length());
+
+        ipu.onTick();
+        assertEquals(0, pc.getValue());
+        assertEquals(4, ipu.getClockScheduler().getCycle());
+
+        kb.press('a');
+        ipu.setIdle(false);
+        assertNull(ipu.getIdleLoop());
+        for (var index = 0; index < 4; ++index) {
+            ipu.onTick();
+        }
+        assertFalse(ipu.isIdle());
+        assertEquals('a', machine.cpu().getDataRegisters().get(1).getValue());
+    }
+
+    @Test
+    void pollingLoopWithPendingInputShouldNotIdle() {
+        var kb = new Keyboard();
+        var machine = machine(kb);
+        var ipu = machine.ipu();
+        kb.press('a');
+
+        for (var index = 0; index < 4; ++index) {
+            ipu.onTick();
+        }
+        assertFalse(ipu.isIdle());
+        assertEquals('a', machine.cpu().getDataRegisters().get(1).getValue());
+    }
+
+    @Test
+    void disabledDetectionShouldNotIdle() {
+        var machine = machine(new Keyboard());
+        var ipu = machine.ipu();
+        ipu.setPollingLoopDetection(null);
+        for (var index = 0; index < 30; ++index) {
+            ipu.onTick();
+        }
+        assertFalse(ipu.isIdle());
+    }
+}
@@ -1,6 +1,11 @@
 package ro.uaic.swqual.unit.proc;
 
+import ro.uaic.swqual.mem.RandomAccessMemory;
 import ro.uaic.swqual.model.operands.RegisterReference;
+import ro.uaic.swqual.proc.ArithmeticLogicUnit;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.proc.InstructionProcessingUnit;
+import ro.uaic.swqual.proc.MemoryManagementUnit;
 import ro.uaic.swqual.unit.TestUtility;
 import ro.uaic.swqual.exception.ValueException;
 import ro.uaic.swqual.model.Instruction;
@@ -12,6 +17,8 @@ import ro.uaic.swqual.model.operands.Register;
 import ro.uaic.swqual.model.operands.ResolvedMemory;
 import ro.uaic.swqual.proc.LocatingUnit;
 
+import java.util.ArrayList;
+
 public interface ProcTestUtility extends TestUtility {
     default Instruction add(Parameter p0, Parameter p1) {
         return new Instruction(InstructionType.ALU_ADD, p0, p1);
@@ -104,4 +111,35 @@ public interface ProcTestUtility extends TestUtility {
             }
         };
     }
+
+    /**
+     * Machine wired as by the Tester: the cpu delegates to its alu, ipu and mmu, which delegate back to it.
+     *   RAM is mapped from 0x100 to the end of the address space.
+     */
+    record Machine(
+            CentralProcessingUnit cpu,
+            InstructionProcessingUnit ipu,
+            MemoryManagementUnit mmu,
+            ArithmeticLogicUnit alu
+    ) {}
+
+    default Machine wiredMachine() {
+        var cpu = new CentralProcessingUnit();
+        var freg = cpu.getFlagRegister();
+        var ipu = new InstructionProcessingUnit(new ArrayList<>(), freg, cpu.getProgramCounter(), cpu.getStackPointer());
+        var mmu = new MemoryManagementUnit(freg, cpu.getStackPointer());
+        var alu = new ArithmeticLogicUnit(freg, cpu.getDataRegisters().getLast());
+        cpu.registerExecutor(alu);
+        cpu.registerExecutor(ipu);
+        cpu.registerExecutor(mmu);
+        cpu.registerLocator(mmu);
+        mmu.registerExecutor(cpu);
+        alu.registerLocator(cpu);
+        ipu.registerExecutor(cpu);
+        ipu.registerLocator(cpu);
+        ipu.registerClockListener(cpu);
+        ipu.subscribe(cpu);
+        mmu.registerHardwareUnit(new RandomAccessMemory((char) 0xFF00, freg), (char) 0x100, (char) 0xFF00);
+        return new Machine(cpu, ipu, mmu, alu);
+    }
 }
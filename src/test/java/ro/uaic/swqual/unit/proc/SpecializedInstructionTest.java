@@ -0,0 +1,155 @@
+package ro.uaic.swqual.unit.proc;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.ConstantMemoryLocation;
+import ro.uaic.swqual.model.operands.DisplacedMemoryLocation;
+import ro.uaic.swqual.model.operands.Parameter;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.proc.SpecializedInstruction;
+import ro.uaic.swqual.util.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpecializedInstructionTest implements ProcTestUtility {
+    private static final List<InstructionType> TYPES = List.of(
+            InstructionType.MMU_MOV, InstructionType.MMU_MOV, InstructionType.MMU_MOV,
+            InstructionType.ALU_ADD, InstructionType.ALU_SUB, InstructionType.ALU_UMUL, InstructionType.ALU_SMUL,
+            InstructionType.ALU_UDIV, InstructionType.ALU_SDIV, InstructionType.ALU_AND, InstructionType.ALU_OR,
+            InstructionType.ALU_XOR, InstructionType.ALU_SHL, InstructionType.ALU_SHR, InstructionType.ALU_NOT,
+            InstructionType.ALU_CMP
+    );
+
+    CentralProcessingUnit cpu() {
+        var cpu = wiredMachine().cpu();
+        cpu.getStackPointer().setValue((char) 0x200);
+        return cpu;
+    }
+
+    /**
+     * Random operand: a data register, a constant, a constant address or an address relative to sp.
+     */
+    Parameter operand(CentralProcessingUnit cpu, Random random, boolean writeable) {
+        return switch (random.nextInt(writeable ? 3 : 4)) {
+            case 0 -> cpu.getDataRegisters().get(random.nextInt(7));
+            case 1 -> new ConstantMemoryLocation((char) (0x200 + 2 * random.nextInt(8)));
+            case 2 -> new DisplacedMemoryLocation(cpu.getStackPointer(), (char) (2 * random.nextInt(8)));
+            default -> _const(random.nextInt(4) == 0 ? random.nextInt(4) : random.nextInt(0x10000));
+        };
+    }
+
+    List<Instruction> program(CentralProcessingUnit cpu, long seed) {
+        var random = new Random(seed);
+        var program = new ArrayList<Instruction>();
+        for (var index = 0; index < 400; ++index) {
+            var instruction = new Instruction(TYPES.get(random.nextInt(TYPES.size())));
+            instruction.setParameters(Tuple.of(operand(cpu, random, true), operand(cpu, random, false)));
+            program.add(instruction);
+        }
+        return program;
+    }
+
+    @Test
+    void specializedProgramShouldMatchGenericExecution() {
+        for (var seed = 0L; seed < 20; ++seed) {
+            var generic = cpu();
+            var specialized = cpu();
+            var genericProgram = generic.bind(program(generic, seed));
+            var specializedProgram = specialized.specialize(specialized.bind(program(specialized, seed)));
+            assertTrue(specializedProgram.stream().filter(SpecializedInstruction.class::isInstance).count() > 80);
+
+            for (var index = 0; index < genericProgram.size(); ++index) {
+                generic.execute(genericProgram.get(index));
+                specialized.execute(specializedProgram.get(index));
+                var context = "seed " + seed + ", instruction " + index + ": " + genericProgram.get(index);
+                for (var register = 0; register < 8; ++register) {
+                    assertEquals(
+                            generic.getDataRegisters().get(register).getValue(),
+                            specialized.getDataRegisters().get(register).getValue(),
+                            context
+                    );
+                }
+                assertEquals(generic.getFlagRegister().getValue(), specialized.getFlagRegister().getValue(), context);
+                for (var address = 0x200; address < 0x210; address += 2) {
+                    var location = new ConstantMemoryLocation((char) address);
+                    assertEquals(generic.locate(location).getValue(), specialized.locate(location).getValue(), context);
+                }
+            }
+        }
+    }
+
+    @Test
+    void unsupportedOperandsShouldNotBeSpecialized() {
+        var cpu = cpu();
+        var r0 = cpu.getDataRegisters().getFirst();
+        var program = cpu.specialize(cpu.bind(List.of(
+                add(r0, new DisplacedMemoryLocation(cpu.getStackPointer(), (char) 2)),
+                mov(r0, _const(3)),
+                push(r0)
+        )));
+        assertFalse(program.get(0) instanceof SpecializedInstruction);
+        assertInstanceOf(SpecializedInstruction.class, program.get(1));
+        assertEquals(InstructionType.MMU_MOV, program.get(1).getType());
+        assertSame(r0, program.get(1).getParam1());
+        assertFalse(program.get(2) instanceof SpecializedInstruction);
+    }
+
+    /**
+     * Program calling a subroutine in a loop, then halting.
+     */
+    List<Instruction> callingProgram(CentralProcessingUnit cpu) {
+        var r0 = cpu.getDataRegisters().get(0);
+        var r1 = cpu.getDataRegisters().get(1);
+        return cpu.bind(List.of(
+                mov(r0, _const(3)),                                     // 0
+                new Instruction(InstructionType.IPU_CALL, _const(6)),   // 1
+                sub(r0, _const(1)),                                     // 2
+                cmp(r0, _const(0)),                                     // 3
+                jne(1),                                                 // 4
+                new Instruction(InstructionType.IPU_HLT),               // 5
+                add(r1, _const(2)),                                     // 6
+                new Instruction(InstructionType.IPU_RET)                // 7
+        ));
+    }
+
+    @Test
+    void programWithIpuInstructionsShouldSpecializeAndRun() {
+        var generic = wiredMachine();
+        var specialized = wiredMachine();
+        generic.cpu().getStackPointer().setValue((char) 0x300);
+        specialized.cpu().getStackPointer().setValue((char) 0x300);
+        generic.ipu().setInstructions(callingProgram(generic.cpu()));
+        var specializedProgram = specialized.cpu().specialize(callingProgram(specialized.cpu()));
+        specialized.ipu().setInstructions(specializedProgram);
+
+        // jumps, calls and returns are executed by the ipu itself
+        assertInstanceOf(SpecializedInstruction.class, specializedProgram.get(0));
+        for (var index : List.of(1, 4, 5, 7)) {
+            assertFalse(specializedProgram.get(index) instanceof SpecializedInstruction);
+        }
+
+        for (var tick = 0; tick < 100 && !generic.ipu().isHalted(); ++tick) {
+            generic.ipu().onTick();
+            specialized.ipu().onTick();
+            var context = "tick " + tick;
+            var genericCpu = generic.cpu();
+            var specializedCpu = specialized.cpu();
+            assertEquals(genericCpu.getProgramCounter().getValue(), specializedCpu.getProgramCounter().getValue(), context);
+            assertEquals(genericCpu.getStackPointer().getValue(), specializedCpu.getStackPointer().getValue(), context);
+            assertEquals(genericCpu.getFlagRegister().getValue(), specializedCpu.getFlagRegister().getValue(), context);
+        }
+        assertTrue(generic.ipu().isHalted());
+        assertTrue(specialized.ipu().isHalted());
+        assertEquals(0, specialized.cpu().getDataRegisters().get(0).getValue());
+        assertEquals(6, specialized.cpu().getDataRegisters().get(1).getValue());
+    }
+}
@@ -0,0 +1,159 @@
+package ro.uaic.swqual.unit.proc;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.mem.RandomAccessMemory;
+import ro.uaic.swqual.mem.Watchpoint;
+import ro.uaic.swqual.model.Instruction;
+import ro.uaic.swqual.model.InstructionType;
+import ro.uaic.swqual.model.operands.DisplacedMemoryLocation;
+import ro.uaic.swqual.model.operands.FlagRegister;
+import ro.uaic.swqual.proc.CentralProcessingUnit;
+import ro.uaic.swqual.proc.MemoryManagementUnit;
+import ro.uaic.swqual.unit.mem.MemTestUtility;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StackEngineTest implements ProcTestUtility, MemTestUtility {
+    private Machine machine(boolean fastPath) {
+        var machine = wiredMachine();
+        if (fastPath) {
+            machine.mmu().setStackFastPath(true);
+            machine.ipu().setStackEngine(machine.mmu().getStackEngine());
+        }
+        machine.cpu().getStackPointer().setValue((char) 0x1F0);
+        return machine;
+    }
+
+    /**
+     * Recursive sum of 1..n, with the argument on the stack and the result in r0.
+     */
+    private List<Instruction> recursiveSum(CentralProcessingUnit cpu, int n) {
+        var r0 = cpu.getDataRegisters().get(0);
+        var r2 = cpu.getDataRegisters().get(2);
+        var argument = new DisplacedMemoryLocation(cpu.getStackPointer(), (char) -4);
+        return List.of(
+                mov(r0, _const(n)),                                         // 0
+                push(r0),                                                   // 1
+                new Instruction(InstructionType.IPU_CALL, _const(5)),       // 2
+                pop(r2),                                                    // 3
+                jmp(4),                                                     // 4
+                mov(r2, argument),                                          // 5: sum
+                cmp(r2, _const(0)),                                         // 6
+                jne(10),                                                    // 7
+                mov(r0, _const(0)),                                         // 8
+                new Instruction(InstructionType.IPU_RET),                   // 9
+                sub(r2, _const(1)),                                         // 10
+                push(r2),                                                   // 11
+                new Instruction(InstructionType.IPU_CALL, _const(5)),       // 12
+                pop(r2),                                                    // 13
+                add(r0, argument),                                          // 14
+                new Instruction(InstructionType.IPU_RET)                    // 15
+        );
+    }
+
+    @Test
+    void stackEngineShouldMatchDelegatedStack() {
+        var delegated = machine(false);
+        var direct = machine(true);
+        delegated.ipu().setInstructions(recursiveSum(delegated.cpu(), 40));
+        direct.ipu().setInstructions(recursiveSum(direct.cpu(), 40));
+        for (var tick = 0; tick < 600; ++tick) {
+            delegated.ipu().onTick();
+            direct.ipu().onTick();
+            for (var register = 0; register < delegated.cpu().getRegisterFile().size(); ++register) {
+                assertEquals(
+                        delegated.cpu().getRegisterFile().get(register).getValue(),
+                        direct.cpu().getRegisterFile().get(register).getValue(),
+                        "tick " + tick
+                );
+            }
+            assertEquals(delegated.cpu().getFlagRegister().getValue(), direct.cpu().getFlagRegister().getValue());
+        }
+        for (var address = 0x1F0; address < 0x1F0 + 4 * 42; address += 2) {
+            var location = cloc((char) address);
+            assertEquals(delegated.cpu().locate(location).getValue(), direct.cpu().locate(location).getValue());
+        }
+        assertEquals((char) 820, direct.cpu().getDataRegisters().getFirst().getValue());
+        assertEquals((char) 4, direct.cpu().getProgramCounter().getValue());
+    }
+
+    @Test
+    void stackEngineShouldKeepFlagsAndRaiseSegOnBounds() {
+        var machine = machine(true);
+        var engine = machine.mmu().getStackEngine();
+        var sp = machine.cpu().getStackPointer();
+        var freg = machine.cpu().getFlagRegister();
+
+        // popping down to 0 no longer raises the zero flag of a delegated sub
+        sp.setValue((char) 0x102);
+        freg.set(FlagRegister.EQUAL_FLAG);
+        assertTrue(engine.pop());
+        assertEquals((char) 0x100, sp.getValue());
+        sp.setValue((char) 2);
+        assertTrue(engine.pop());
+        assertEquals(FlagRegister.EQUAL_FLAG, freg.getValue());
+
+        assertFalse(engine.pop());
+        assertEquals((char) 0, sp.getValue());
+        assertTrue(freg.isSet(FlagRegister.SEG_FLAG));
+
+        freg.clear();
+        sp.setValue((char) 0xFFFE);
+        assertFalse(engine.push((char) 1));
+        assertEquals((char) 0xFFFE, sp.getValue());
+        assertTrue(freg.isSet(FlagRegister.SEG_FLAG));
+    }
+
+    @Test
+    void stackOutsideRandomAccessMemoryShouldBeLocated() {
+        var freg = freg();
+        var sp = reg(0x10);
+        var mmu = new MemoryManagementUnit(freg, sp);
+        mmu.setStackFastPath(true);
+        var cells = new HashMap<Character, Character>();
+        mmu.registerHardwareUnit(
+                proxyRWMemoryUnit(location -> cells.getOrDefault(location.getValue(), (char) 0),
+                        (location, value) -> cells.put(location.getValue(), value)),
+                (char) 0,
+                (char) 0x100
+        );
+
+        mmu.execute(push(_const(7)));
+        mmu.execute(push(_const(9)));
+        assertEquals((char) 7, cells.get((char) 0x10));
+        assertEquals((char) 9, cells.get((char) 0x12));
+        var top = reg();
+        mmu.execute(pop(top));
+        assertEquals((char) 9, top.getValue());
+        assertEquals((char) 0x12, sp.getValue());
+        assertFalse(freg.isSet(FlagRegister.SEG_FLAG));
+    }
+
+    @Test
+    void watchpointShouldNotifyOnStackEngineAccess() {
+        var freg = freg();
+        var sp = reg(0x100);
+        var mmu = new MemoryManagementUnit(freg, sp);
+        mmu.setStackFastPath(true);
+        mmu.registerHardwareUnit(new RandomAccessMemory((char) 0x1000, freg), (char) 0, (char) 0x1000);
+        // bring the page in use, before it is watched
+        mmu.execute(push(reg(4)));
+        var hits = new AtomicInteger(0);
+        mmu.addWatchpoint(new Watchpoint(
+                (char) 0x102, (char) 2, Watchpoint.Access.WRITE, (w, a, addr, v) -> hits.incrementAndGet()
+        ));
+
+        mmu.execute(push(reg(5)));
+        assertEquals(1, hits.get());
+        mmu.execute(pop(reg()));
+        mmu.execute(pop(reg()));
+        assertEquals((char) 0x100, sp.getValue());
+        assertEquals((char) 4, mmu.locate(cloc((char) 0x100)).getValue());
+    }
+}
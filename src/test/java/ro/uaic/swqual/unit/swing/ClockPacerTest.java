@@ -0,0 +1,79 @@
+package ro.uaic.swqual.unit.swing;
+
+import org.junit.jupiter.api.Test;
+import ro.uaic.swqual.exception.ParameterException;
+import ro.uaic.swqual.swing.ClockPacer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClockPacerTest {
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void batchSizeShouldFollowTargetFrequency() {
+        var pacer = new ClockPacer();
+        var unlimited = pacer.nextBatchSize();
+        assertTrue(unlimited > 1);
+
+        // about 1ms worth of ticks per batch
+        pacer.setTargetFrequency(10_000);
+        assertEquals(10, pacer.nextBatchSize());
+        pacer.setTargetFrequency(100);
+        assertEquals(1, pacer.nextBatchSize());
+        pacer.setTargetFrequency(1_000_000_000L);
+        assertEquals(unlimited, pacer.nextBatchSize());
+        pacer.setTargetFrequency(ClockPacer.UNLIMITED_FREQUENCY);
+        assertEquals(unlimited, pacer.nextBatchSize());
+
+        assertThrows(ParameterException.class, () -> pacer.setTargetFrequency(-1));
+    }
+
+    @Test
+    void nanosToTicksShouldUsePacedFrequency() {
+        var pacer = new ClockPacer();
+        assertEquals(0, pacer.nanosToTicks(1_000 * MILLIS));
+
+        pacer.setTargetFrequency(1_000);
+        // the target is applied from the next batch
+        assertEquals(0, pacer.nanosToTicks(1_000 * MILLIS));
+        pacer.nextBatchSize();
+        assertEquals(1_000, pacer.nanosToTicks(1_000 * MILLIS));
+        assertEquals(500, pacer.nanosToTicks(500 * MILLIS));
+        assertEquals(0, pacer.nanosToTicks(MILLIS - 1));
+    }
+
+    @Test
+    void lagUnderLimitShouldBeCaughtUp() throws InterruptedException {
+        var pacer = new ClockPacer();
+        pacer.setTargetFrequency(1_000);
+        var start = System.nanoTime();
+        pacer.nextBatchSize();
+        Thread.sleep(30);
+
+        // due 25ms after the start, already passed
+        var batchStart = System.nanoTime();
+        pacer.pace(25, () -> true);
+        assertTrue(System.nanoTime() - batchStart < 20 * MILLIS);
+
+        // still paced from the start, not from the late batch
+        pacer.pace(25, () -> true);
+        assertTrue(System.nanoTime() - start >= 50 * MILLIS);
+    }
+
+    @Test
+    void lagOverLimitShouldBeDropped() throws InterruptedException {
+        var pacer = new ClockPacer();
+        pacer.setTargetFrequency(1_000);
+        pacer.nextBatchSize();
+        Thread.sleep(100);
+
+        // due 1ms after the start: lagging by more than 50ms, so pacing restarts from now
+        pacer.pace(1, () -> true);
+        var restart = System.nanoTime();
+        // caught up, this batch would not wait. Instead, it is due 40ms after the restart
+        pacer.pace(40, () -> true);
+        assertTrue(System.nanoTime() - restart >= 30 * MILLIS);
+    }
+}
@@ -0,0 +1,20 @@
+// sim-test
+// expected: success
+
+// tester kb will be at 0x10.
+// wfi waits for input, then resumes with the next instruction.
+// hlt ends the program cleanly: the loop after it is never run.
+
+// kb-preload {0x61}
+
+jmp @main;
+
+@main:
+wfi;
+mov r0 [0x10]; // expect-true {r0==0x61}
+mov r1 1;
+hlt; // expect-true {r1==1}
+
+@spin:
+add r1 1;
+jmp @spin;